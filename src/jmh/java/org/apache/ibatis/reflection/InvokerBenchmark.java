@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflective invokers of {@link DefaultReflectorFactory} with the bound invokers of
+ * {@link MethodHandleReflectorFactory}. Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class InvokerBenchmark {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  @Param({ "reflection", "bound" })
+  private String invokers;
+
+  private final Bean bean = new Bean();
+  private final HiddenBean hiddenBean = new HiddenBean();
+  private final Object[] nameArgument = { "name" };
+  private final Object[] countArgument = { 42 };
+
+  // 公共类的getter/setter：bound时由LambdaMetafactory绑定
+  private Invoker nameGetter;
+  private Invoker nameSetter;
+  private Invoker countSetter;
+  // 没有getter/setter的字段：bound时绑定为MethodHandle
+  private Invoker fieldGetter;
+  // 非公共类的setter：bound时绑定为MethodHandle
+  private Invoker hiddenSetter;
+
+  @Setup
+  public void setUp() {
+    ReflectorFactory reflectorFactory = "bound".equals(invokers) ? new MethodHandleReflectorFactory() : new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    nameGetter = reflector.getGetInvoker("name");
+    nameSetter = reflector.getSetInvoker("name");
+    countSetter = reflector.getSetInvoker("count");
+    fieldGetter = reflector.getGetInvoker("field");
+    hiddenSetter = reflectorFactory.findForClass(HiddenBean.class).getSetInvoker("value");
+  }
+
+  @Benchmark
+  public Object getProperty() throws Exception {
+    return nameGetter.invoke(bean, NO_ARGUMENTS);
+  }
+
+  @Benchmark
+  public Object setProperty() throws Exception {
+    return nameSetter.invoke(bean, nameArgument);
+  }
+
+  @Benchmark
+  public Object setPrimitiveProperty() throws Exception {
+    return countSetter.invoke(bean, countArgument);
+  }
+
+  @Benchmark
+  public Object getField() throws Exception {
+    return fieldGetter.invoke(bean, NO_ARGUMENTS);
+  }
+
+  @Benchmark
+  public Object setPropertyOfNonPublicClass() throws Exception {
+    return hiddenSetter.invoke(hiddenBean, nameArgument);
+  }
+
+  public static class Bean {
+    private String name;
+    private int count;
+    private String field = "field";
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+  }
+
+  static class HiddenBean {
+    private String value;
+
+    public String getValue() {
+      return value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+  }
+
+}
@@ -18,6 +18,9 @@ package org.apache.ibatis.binding;
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.resultset.ColumnarResult;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -25,6 +28,7 @@ import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.reflection.TypeParameterResolver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Page;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -33,10 +37,18 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * @author Clinton Begin
@@ -107,6 +119,15 @@ public class MapperMethod {
                     // 返回游标的情况
                 } else if (method.returnsCursor()) {
                     result = executeForCursor(sqlSession, args);
+                    // 返回分页结果的情况，同时查询总行数
+                } else if (method.returnsPage()) {
+                    result = executeForPage(sqlSession, args);
+                    // 返回按需拉取结果的发布者
+                } else if (method.returnsPublisher()) {
+                    result = executeForPublisher(sqlSession, args);
+                    // 返回按列存放的结果，需要带上RowBounds参数
+                } else if (method.returnsColumnarResult()) {
+                    result = executeForColumnarResult(sqlSession, args);
                 } else {
                     // 返回一个对象的情况
                     Object param = method.convertArgsToSqlCommandParam(args);
@@ -209,6 +230,29 @@ public class MapperMethod {
         return result;
     }
 
+    private <E> Page<E> executeForPage(SqlSession sqlSession, Object[] args) {
+        Object param = method.convertArgsToSqlCommandParam(args);
+        RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+        return sqlSession.selectPage(command.getName(), param, rowBounds);
+    }
+
+    private <T> CursorPublisher<T> executeForPublisher(SqlSession sqlSession, Object[] args) {
+        Object param = method.convertArgsToSqlCommandParam(args);
+        RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+        return sqlSession.selectPublisher(command.getName(), param, rowBounds);
+    }
+
+    // 整个结果集映射为一个ColumnarResult，selectOne不接受RowBounds，因此通过selectList查询后取出
+    private ColumnarResult executeForColumnarResult(SqlSession sqlSession, Object[] args) {
+        Object param = method.convertArgsToSqlCommandParam(args);
+        RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+        List<ColumnarResult> result = sqlSession.selectList(command.getName(), param, rowBounds);
+        if (result.size() > 1) {
+            throw new TooManyResultsException("Expected one result (or null) to be returned by " + command.getName() + ", but found: " + result.size());
+        }
+        return result.isEmpty() ? null : result.get(0);
+    }
+
     private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
         Object collection = config.getObjectFactory().create(method.getReturnType());
         MetaObject metaObject = config.newMetaObject(collection);
@@ -261,6 +305,231 @@ public class MapperMethod {
 
     }
 
+    /**
+     * 参数名固定的ParamMap，由ParamNameResolver按方法预先计算参数名到实参下标的布局，
+     * 每次调用只记录实参数组，读取时按下标取值，不再创建HashMap节点。
+     * 只有读取操作使用布局，第一次修改或遍历时把全部参数复制到HashMap中，之后与ParamMap完全一致
+     */
+    public static class FixedParamMap extends ParamMap<Object> {
+
+        private static final long serialVersionUID = 2215846207392761327L;
+
+        private final transient Layout layout;
+        private final transient Object[] args;
+        private boolean inflated;
+
+        /**
+         * @param layout 参数布局
+         * @param args   实参数组，由本对象持有，调用方不应再修改
+         */
+        public FixedParamMap(Layout layout, Object[] args) {
+            this.layout = layout;
+            this.args = args;
+        }
+
+        private Map<String, Object> inflate() {
+            if (!inflated) {
+                inflated = true;
+                for (int i = 0; i < layout.keys.length; i++) {
+                    super.put(layout.keys[i], args[layout.argIndexes[i]]);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (inflated) {
+                return super.get(key);
+            }
+            final int index = layout.indexOf(key);
+            if (index < 0) {
+                throw new BindingException("Parameter '" + key + "' not found. Available parameters are " + layout.keySet);
+            }
+            return args[layout.argIndexes[index]];
+        }
+
+        @Override
+        public Object getOrDefault(Object key, Object defaultValue) {
+            if (inflated) {
+                return super.getOrDefault(key, defaultValue);
+            }
+            final int index = layout.indexOf(key);
+            return index < 0 ? defaultValue : args[layout.argIndexes[index]];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return inflated ? super.containsKey(key) : layout.indexOf(key) >= 0;
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            if (inflated) {
+                return super.containsValue(value);
+            }
+            for (int argIndex : layout.argIndexes) {
+                if (value == null ? args[argIndex] == null : value.equals(args[argIndex])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return inflated ? super.size() : layout.keys.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            inflate();
+            return super.put(key, value);
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ?> m) {
+            inflate();
+            super.putAll(m);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            inflate();
+            return super.remove(key);
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            inflate();
+            return super.remove(key, value);
+        }
+
+        @Override
+        public void clear() {
+            inflate();
+            super.clear();
+        }
+
+        @Override
+        public Object putIfAbsent(String key, Object value) {
+            inflate();
+            return super.putIfAbsent(key, value);
+        }
+
+        @Override
+        public boolean replace(String key, Object oldValue, Object newValue) {
+            inflate();
+            return super.replace(key, oldValue, newValue);
+        }
+
+        @Override
+        public Object replace(String key, Object value) {
+            inflate();
+            return super.replace(key, value);
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+            inflate();
+            super.replaceAll(function);
+        }
+
+        @Override
+        public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+            inflate();
+            return super.computeIfAbsent(key, mappingFunction);
+        }
+
+        @Override
+        public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+            inflate();
+            return super.computeIfPresent(key, remappingFunction);
+        }
+
+        @Override
+        public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+            inflate();
+            return super.compute(key, remappingFunction);
+        }
+
+        @Override
+        public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+            inflate();
+            return super.merge(key, value, remappingFunction);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            inflate();
+            return super.keySet();
+        }
+
+        @Override
+        public Collection<Object> values() {
+            inflate();
+            return super.values();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            inflate();
+            return super.entrySet();
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            inflate();
+            super.forEach(action);
+        }
+
+        @Override
+        public Object clone() {
+            inflate();
+            return super.clone();
+        }
+
+        private Object writeReplace() {
+            final ParamMap<Object> copy = new ParamMap<>();
+            copy.putAll(inflate());
+            return copy;
+        }
+
+        /**
+         * 参数名到实参下标的布局，同一个方法的所有调用共享
+         */
+        public static final class Layout {
+            private final String[] keys;
+            private final int[] argIndexes;
+            private final Map<String, Integer> indexes = new HashMap<>();
+            // 用于异常信息
+            private final Set<String> keySet;
+
+            /**
+             * @param argIndexes 参数名到实参下标的对应关系，按放入ParamMap的顺序排列
+             */
+            public Layout(Map<String, Integer> argIndexes) {
+                this.keys = argIndexes.keySet().toArray(new String[0]);
+                this.argIndexes = new int[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    this.argIndexes[i] = argIndexes.get(keys[i]);
+                    this.indexes.put(keys[i], i);
+                }
+                this.keySet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(keys)));
+            }
+
+            int indexOf(Object key) {
+                final Integer index = indexes.get(key);
+                return index == null ? -1 : index;
+            }
+        }
+    }
+
     /**
      * 该类指代一条sql语句
      */
@@ -353,6 +622,9 @@ public class MapperMethod {
         private final boolean returnsVoid;  // 返回类型是否为void
         private final boolean returnsCursor;    // 返回类型是否为cursor，当返回结果集很大的时候会用，防止内存占用过高
         private final boolean returnsOptional;  // 返回类型是否为Optional
+        private final boolean returnsPage;  // 返回类型是否为Page
+        private final boolean returnsPublisher; // 返回类型是否为CursorPublisher
+        private final boolean returnsColumnarResult; // 返回类型是否为ColumnarResult
         private final Class<?> returnType;  // 具体的返回类型
         private final String mapKey;    //如果返回值是map，该字段记录作为key的列名
 
@@ -387,6 +659,9 @@ public class MapperMethod {
             this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
             this.returnsCursor = Cursor.class.equals(this.returnType);
             this.returnsOptional = Optional.class.equals(this.returnType);
+            this.returnsPage = Page.class.equals(this.returnType);
+            this.returnsPublisher = CursorPublisher.class.equals(this.returnType);
+            this.returnsColumnarResult = ColumnarResult.class.equals(this.returnType);
             this.mapKey = getMapKey(method);
             this.returnsMap = this.mapKey != null;
             this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
@@ -445,6 +720,18 @@ public class MapperMethod {
             return returnsOptional;
         }
 
+        public boolean returnsPage() {
+            return returnsPage;
+        }
+
+        public boolean returnsPublisher() {
+            return returnsPublisher;
+        }
+
+        public boolean returnsColumnarResult() {
+            return returnsColumnarResult;
+        }
+
         private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
             Integer index = null;
             final Class<?>[] argTypes = method.getParameterTypes();
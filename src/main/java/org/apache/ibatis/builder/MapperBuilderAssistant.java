@@ -175,6 +175,16 @@ public class MapperBuilderAssistant extends BaseBuilder {
                 .build();
     }
 
+    public ResultMap addResultMap(
+            String id,
+            Class<?> type,
+            String extend,
+            Discriminator discriminator,
+            List<ResultMapping> resultMappings,
+            Boolean autoMapping) {
+        return addResultMap(id, type, extend, discriminator, resultMappings, autoMapping, null);
+    }
+
     /**
      * 根据ResultMapping对象构建ResultMap对象并添加到configuration.resultMaps这个映射表中
      * 参数是ResultMap标签的属性
@@ -187,7 +197,8 @@ public class MapperBuilderAssistant extends BaseBuilder {
             String extend,
             Discriminator discriminator,
             List<ResultMapping> resultMappings,
-            Boolean autoMapping) {
+            Boolean autoMapping,
+            Boolean directFieldMapping) {
         // ResultMap的完整id是namespace.id
         id = applyCurrentNamespace(id, false);
         // 获取父ResultMap的完整id
@@ -223,6 +234,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
         // 创建ResultMap对象，并添加到Configuration.resultMaps集合中保存
         ResultMap resultMap = new ResultMap.Builder(configuration, id, type, resultMappings, autoMapping)
                 .discriminator(discriminator)
+                .directFieldMapping(directFieldMapping)
                 .build();
         configuration.addResultMap(resultMap);
         return resultMap;
@@ -422,6 +434,27 @@ public class MapperBuilderAssistant extends BaseBuilder {
             String resultSet,
             String foreignColumn,
             boolean lazy) {
+        return buildResultMapping(
+                resultType, property, column, javaType, jdbcType, nestedSelect, nestedResultMap, notNullColumn,
+                columnPrefix, typeHandler, flags, resultSet, foreignColumn, lazy, null);
+    }
+
+    public ResultMapping buildResultMapping(
+            Class<?> resultType,
+            String property,
+            String column,
+            Class<?> javaType,
+            JdbcType jdbcType,
+            String nestedSelect,
+            String nestedResultMap,
+            String notNullColumn,
+            String columnPrefix,
+            Class<? extends TypeHandler<?>> typeHandler,
+            List<ResultFlag> flags,
+            String resultSet,
+            String foreignColumn,
+            boolean lazy,
+            String batchKey) {
         Class<?> javaTypeClass = resolveResultJavaType(resultType, property, javaType);
         TypeHandler<?> typeHandlerInstance = resolveTypeHandler(javaTypeClass, typeHandler);
         List<ResultMapping> composites;
@@ -442,6 +475,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
                 .columnPrefix(columnPrefix)
                 .foreignColumn(foreignColumn)
                 .lazy(lazy)
+                .batchKey(batchKey)
                 .build();
     }
 
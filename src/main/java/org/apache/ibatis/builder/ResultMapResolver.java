@@ -49,8 +49,14 @@ public class ResultMapResolver {
     private final Discriminator discriminator;  // ResultMap的discriminator节点，鉴别器
     private final List<ResultMapping> resultMappings; // ResultMap的属性映射列表
     private final Boolean autoMapping;  // ResultMapd额autoMapping属性，是否开启自动映射
+    private final Boolean directFieldMapping;  // ResultMap的directFieldMapping属性，是否直接写字段
 
     public ResultMapResolver(MapperBuilderAssistant assistant, String id, Class<?> type, String extend, Discriminator discriminator, List<ResultMapping> resultMappings, Boolean autoMapping) {
+        this(assistant, id, type, extend, discriminator, resultMappings, autoMapping, null);
+    }
+
+    public ResultMapResolver(MapperBuilderAssistant assistant, String id, Class<?> type, String extend, Discriminator discriminator, List<ResultMapping> resultMappings, Boolean autoMapping,
+                             Boolean directFieldMapping) {
         this.assistant = assistant;
         this.id = id;
         this.type = type;
@@ -58,13 +64,14 @@ public class ResultMapResolver {
         this.discriminator = discriminator;
         this.resultMappings = resultMappings;
         this.autoMapping = autoMapping;
+        this.directFieldMapping = directFieldMapping;
     }
 
     /**
      * ResultMap的继承是通过MapperBuilderAssistant#addResultMap来实现的
      */
     public ResultMap resolve() {
-        return assistant.addResultMap(this.id, this.type, this.extend, this.discriminator, this.resultMappings, this.autoMapping);
+        return assistant.addResultMap(this.id, this.type, this.extend, this.discriminator, this.resultMappings, this.autoMapping, this.directFieldMapping);
     }
 
 }
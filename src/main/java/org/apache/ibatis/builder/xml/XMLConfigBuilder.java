@@ -20,6 +20,7 @@ import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.pagination.Dialect;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
@@ -333,6 +334,16 @@ public class XMLConfigBuilder extends BaseBuilder {
         configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
         configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
         configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+        configuration.setSharedStatementCacheSize(integerValueOf(props.getProperty("sharedStatementCacheSize"), 0));
+        configuration.setPaginationDialect((Dialect) createInstance(props.getProperty("paginationDialect")));
+        configuration.setParallelCountEnabled(booleanValueOf(props.getProperty("parallelCountEnabled"), false));
+        configuration.setCompiledRowMappingEnabled(booleanValueOf(props.getProperty("compiledRowMappingEnabled"), false));
+        configuration.setDirectFieldMappingEnabled(booleanValueOf(props.getProperty("directFieldMappingEnabled"), false));
+        configuration.setResultSetMetadataCacheEnabled(booleanValueOf(props.getProperty("resultSetMetadataCacheEnabled"), false));
+        configuration.setColumnIndexReadEnabled(booleanValueOf(props.getProperty("columnIndexReadEnabled"), false));
+        configuration.setParallelRowMappingEnabled(booleanValueOf(props.getProperty("parallelRowMappingEnabled"), false));
+        configuration.setParallelRowMappingBatchSize(integerValueOf(props.getProperty("parallelRowMappingBatchSize"), 512));
+        configuration.setCompactMapResultsEnabled(booleanValueOf(props.getProperty("compactMapResultsEnabled"), false));
         configuration.setDefaultResultSetType(resolveResultSetType(props.getProperty("defaultResultSetType")));
         configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
         configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
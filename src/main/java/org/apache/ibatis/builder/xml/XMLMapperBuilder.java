@@ -346,9 +346,10 @@ public class XMLMapperBuilder extends BaseBuilder {
                 resultMapNode.getValueBasedIdentifier());
         String extend = resultMapNode.getStringAttribute("extends");
         Boolean autoMapping = resultMapNode.getBooleanAttribute("autoMapping");
+        Boolean directFieldMapping = resultMapNode.getBooleanAttribute("directFieldMapping");
         // ResultMapResolver 会根据上面解析到的ResultMappings 集合以及 <resultMap> 标签的属性构造 ResultMap 对象，
         // 并将其添加到 Configuration.resultMaps 集合（StrictMap 类型）中
-        ResultMapResolver resultMapResolver = new ResultMapResolver(builderAssistant, id, typeClass, extend, discriminator, resultMappings, autoMapping);
+        ResultMapResolver resultMapResolver = new ResultMapResolver(builderAssistant, id, typeClass, extend, discriminator, resultMappings, autoMapping, directFieldMapping);
         try {
             return resultMapResolver.resolve();
         } catch (IncompleteElementException e) {
@@ -467,11 +468,12 @@ public class XMLMapperBuilder extends BaseBuilder {
         String resultSet = context.getStringAttribute("resultSet");
         String foreignColumn = context.getStringAttribute("foreignColumn");
         boolean lazy = "lazy".equals(context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager"));
+        String batchKey = context.getStringAttribute("batchKey");
         Class<?> javaTypeClass = resolveClass(javaType);
         Class<? extends TypeHandler<?>> typeHandlerClass = resolveClass(typeHandler);
         JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
         // 根据上述信息构建ResultMapping对象
-        return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+        return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, batchKey);
     }
 
     private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings, Class<?> enclosingType) {
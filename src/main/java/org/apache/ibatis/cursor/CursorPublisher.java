@@ -0,0 +1,71 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * 按需拉取结果的发布者，订阅者通过{@link Subscription#request(long)}声明还能处理多少条结果，
+ * 发布者只在有需求时才从游标中读取并映射对应数量的行，慢速的消费者不会导致结果在内存中堆积。
+ * 接口与java.util.concurrent.Flow的Publisher、Subscriber、Subscription一一对应（MyBatis仍以Java 8为目标版本），
+ * 可以直接适配到Flow或Reactive Streams。
+ * 每个发布者只能被订阅一次，结果读取完毕、出错或取消时关闭游标，并释放相关资源
+ *
+ * @param <T> 结果类型
+ */
+public interface CursorPublisher<T> {
+
+    /**
+     * 添加订阅者，重复订阅时订阅者会收到onError
+     *
+     * @param subscriber 订阅者
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+
+    /**
+     * 结果的订阅者，对应java.util.concurrent.Flow.Subscriber
+     *
+     * @param <T> 结果类型
+     */
+    interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * 订阅关系，对应java.util.concurrent.Flow.Subscription
+     */
+    interface Subscription {
+
+        /**
+         * 请求n条结果，结果在调用request的线程上读取并推送给订阅者。
+         * 游标和会话不是线程安全的，实现可以拒绝在创建发布者以外的线程上读取结果
+         *
+         * @param n 请求的数量，必须大于0
+         */
+        void request(long n);
+
+        /**
+         * 取消订阅，关闭游标并释放资源
+         */
+        void cancel();
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * 创建{@link CursorPublisher}的工厂，会话接口通过它获得默认实现，而不直接依赖实现类。
+ * 返回的发布者只能在创建它的线程上读取结果
+ */
+public final class CursorPublishers {
+
+    private CursorPublishers() {
+        // Prevent Instantiation of Static Class
+    }
+
+    /**
+     * 创建一个在第一次request时打开游标的发布者，游标在结果读取完毕、出错或取消时关闭
+     *
+     * @param cursorOpener 打开游标，只会被调用一次
+     * @param <T>          结果类型
+     * @return 发布者
+     */
+    public static <T> CursorPublisher<T> fromCursor(Supplier<Cursor<T>> cursorOpener) {
+        return new DefaultCursorPublisher<>(cursorOpener, null);
+    }
+
+    /**
+     * 创建一个在订阅时打开新会话的发布者，会话在结果读取完毕、出错或取消时关闭
+     *
+     * @param sqlSessionFactory 会话工厂
+     * @param statement         语句id
+     * @param parameter         参数对象
+     * @param rowBounds         分页限制
+     * @param <T>               结果类型
+     * @return 发布者
+     */
+    public static <T> CursorPublisher<T> withOwnSession(SqlSessionFactory sqlSessionFactory, String statement, Object parameter, RowBounds rowBounds) {
+        return DefaultCursorPublisher.withOwnSession(sqlSessionFactory, statement, parameter, rowBounds);
+    }
+
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 基于{@link Cursor}的发布者实现。
+ * 第一次request时才打开游标，之后每次request只从游标中读取并映射请求数量的行，
+ * 结果读取完毕、出错或取消时关闭游标并执行释放操作。
+ * 游标和会话都不是线程安全的，读取只能发生在创建发布者的线程上：其他线程调用request时，
+ * 如果创建线程正在推送结果，新的需求由它处理，否则订阅者收到IllegalStateException。cancel可以在任意线程调用
+ *
+ * @param <T> 结果类型
+ */
+public class DefaultCursorPublisher<T> implements CursorPublisher<T> {
+
+    private static final Log log = LogFactory.getLog(DefaultCursorPublisher.class);
+
+    private static final Subscription EMPTY_SUBSCRIPTION = new Subscription() {
+        @Override
+        public void request(long n) {
+            // nothing to emit
+        }
+
+        @Override
+        public void cancel() {
+            // nothing to release
+        }
+    };
+
+    // 打开游标，只会被调用一次
+    private final Supplier<Cursor<T>> cursorOpener;
+    // 游标关闭后执行的释放操作，可以为null
+    private final Runnable releaser;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    // 创建发布者的线程，只有它可以读取游标
+    private final Thread ownerThread;
+
+    public DefaultCursorPublisher(Supplier<Cursor<T>> cursorOpener, Runnable releaser) {
+        this.cursorOpener = cursorOpener;
+        this.releaser = releaser;
+        this.ownerThread = Thread.currentThread();
+    }
+
+    /**
+     * 创建一个在订阅时打开新会话的发布者，会话在结果读取完毕、出错或取消时关闭，从而释放数据库连接
+     *
+     * @param sqlSessionFactory 会话工厂
+     * @param statement         语句id
+     * @param parameter         参数对象
+     * @param rowBounds         分页限制
+     * @param <T>               结果类型
+     * @return 发布者
+     */
+    public static <T> DefaultCursorPublisher<T> withOwnSession(SqlSessionFactory sqlSessionFactory, String statement, Object parameter, RowBounds rowBounds) {
+        final SessionHolder holder = new SessionHolder();
+        return new DefaultCursorPublisher<>(() -> {
+            holder.session = sqlSessionFactory.openSession();
+            return holder.session.selectCursor(statement, parameter, rowBounds);
+        }, () -> {
+            if (holder.session != null) {
+                holder.session.close();
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber must not be null");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(EMPTY_SUBSCRIPTION);
+            subscriber.onError(new IllegalStateException("A CursorPublisher can only be subscribed once"));
+            return;
+        }
+        subscriber.onSubscribe(new CursorSubscription(subscriber));
+    }
+
+    private static final class SessionHolder {
+        private volatile SqlSession session;
+    }
+
+    private final class CursorSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        // 尚未满足的需求
+        private final AtomicLong requested = new AtomicLong();
+        // 进入drain的次数，保证同一时刻只有一个线程访问游标
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        // 以下字段只在drain中访问
+        private Cursor<T> cursor;
+        private Iterator<T> iterator;
+        private boolean done;
+
+        private CursorSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " items, but the request must be positive");
+            } else {
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                // 另一个线程（或外层的onNext调用）正在drain，由它处理新的需求
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (cancelled) {
+                release();
+                return;
+            }
+            if (invalidRequest != null) {
+                error(invalidRequest);
+                return;
+            }
+            final long demand = requested.get();
+            if (demand == 0) {
+                return;
+            }
+            if (Thread.currentThread() != ownerThread) {
+                error(new IllegalStateException("A CursorPublisher must be requested from the thread that created it, "
+                    + "because the underlying cursor and session are not thread safe"));
+                return;
+            }
+            long emitted = 0;
+            try {
+                if (iterator == null) {
+                    cursor = cursorOpener.get();
+                    iterator = cursor.iterator();
+                }
+                while (emitted != demand) {
+                    if (cancelled) {
+                        release();
+                        return;
+                    }
+                    if (!iterator.hasNext()) {
+                        complete();
+                        return;
+                    }
+                    subscriber.onNext(iterator.next());
+                    emitted++;
+                }
+                // 需求恰好满足时也检查是否已经读完，避免订阅者为了等待完成信号再次request
+                if (!cancelled && !iterator.hasNext()) {
+                    complete();
+                    return;
+                }
+            } catch (Throwable t) {
+                if (done) {
+                    // 终止信号已经发出，异常来自订阅者的onComplete或onError，不能再发出onError
+                    log.error("Subscriber threw an exception from a terminal signal", t);
+                    return;
+                }
+                error(t);
+                return;
+            }
+            if (demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        // release会先标记为已终止，之后才发出终止信号
+        private void complete() {
+            Throwable failure = release();
+            if (failure == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(failure);
+            }
+        }
+
+        private void error(Throwable failure) {
+            release();
+            subscriber.onError(failure);
+        }
+
+        // 关闭游标并执行释放操作，返回关闭过程中的异常
+        private Throwable release() {
+            done = true;
+            Throwable failure = null;
+            try {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            } catch (Throwable t) {
+                failure = t;
+            }
+            try {
+                if (releaser != null) {
+                    releaser.run();
+                }
+            } catch (Throwable t) {
+                if (failure == null) {
+                    failure = t;
+                }
+            }
+            cursor = null;
+            iterator = null;
+            return failure;
+        }
+    }
+
+}
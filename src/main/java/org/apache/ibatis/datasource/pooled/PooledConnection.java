@@ -41,6 +41,7 @@ class PooledConnection implements InvocationHandler {
     private long lastUsedTimestamp; // 最后一次使用的时间戳
     private int connectionTypeCode; // 标志所在连接池的链接类型编码
     private boolean valid;  // 连接是否可用
+    private StatementCache statementCache; // 物理连接上跨会话共享的Statement缓存，重新包装连接时会传递给新的PooledConnection
 
     /**
      * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -66,6 +67,44 @@ class PooledConnection implements InvocationHandler {
         valid = false;
     }
 
+    /**
+     * 获取物理连接上共享的Statement缓存，第一次调用时创建
+     *
+     * @param maxSize 缓存的最大Statement数
+     * @return Statement缓存，连接已经失效时返回null
+     */
+    public synchronized StatementCache getStatementCache(int maxSize) {
+        if (!valid) {
+            return null;
+        }
+        if (statementCache == null) {
+            statementCache = new StatementCache(maxSize);
+        }
+        return statementCache;
+    }
+
+    /**
+     * 用同一个物理连接创建新的PooledConnection时，接管旧对象上的Statement缓存
+     *
+     * @param previous 包装同一物理连接的旧PooledConnection
+     */
+    synchronized void inheritStatementCache(PooledConnection previous) {
+        synchronized (previous) {
+            this.statementCache = previous.statementCache;
+            previous.statementCache = null;
+        }
+    }
+
+    /**
+     * 关闭并丢弃Statement缓存，在物理连接关闭前调用
+     */
+    synchronized void clearStatementCache() {
+        if (statementCache != null) {
+            statementCache.clear();
+            statementCache = null;
+        }
+    }
+
     /**
      * Method to see if the connection is usable.
      * 判断连接是否可用的方法，方式是判断valid字段、查看封装的connection是否为null，ping数据库成功
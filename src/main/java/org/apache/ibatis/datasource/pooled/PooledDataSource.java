@@ -352,6 +352,8 @@ public class PooledDataSource implements DataSource {
                     PooledConnection conn = state.activeConnections.remove(i - 1);
                     conn.invalidate();
 
+                    conn.clearStatementCache();
+
                     Connection realConn = conn.getRealConnection();
                     if (!realConn.getAutoCommit()) {
                         realConn.rollback();
@@ -367,6 +369,8 @@ public class PooledDataSource implements DataSource {
                     PooledConnection conn = state.idleConnections.remove(i - 1);
                     conn.invalidate();
 
+                    conn.clearStatementCache();
+
                     Connection realConn = conn.getRealConnection();
                     if (!realConn.getAutoCommit()) {
                         realConn.rollback();
@@ -415,6 +419,7 @@ public class PooledDataSource implements DataSource {
                     }
                     // 重新整理连接
                     PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+                    newConn.inheritStatementCache(conn);
                     // 将连接放入空闲连接池
                     state.idleConnections.add(newConn);
                     newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
@@ -432,6 +437,7 @@ public class PooledDataSource implements DataSource {
                         conn.getRealConnection().rollback();
                     }
                     // 直接将连接关闭
+                    conn.clearStatementCache();
                     conn.getRealConnection().close();
                     if (log.isDebugEnabled()) {
                         log.debug("Closed connection " + conn.getRealHashCode() + ".");
@@ -516,6 +522,8 @@ public class PooledDataSource implements DataSource {
                             }
                             // 用最旧的那个连接代理的真正的连接来创建一个新连接，替代之前那个逾期不换的连接
                             // 并更新连接的创建时间，最后一次使用时间
+                            // 逾期的会话可能还在使用缓存的Statement，不能把缓存交给新的使用者
+                            oldestActiveConnection.clearStatementCache();
                             conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
                             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
                             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
@@ -637,6 +645,7 @@ public class PooledDataSource implements DataSource {
             } catch (Exception e) {
                 log.warn("Execution of ping query '" + poolPingQuery + "' failed: " + e.getMessage());
                 try {
+                    conn.clearStatementCache();
                     conn.getRealConnection().close();
                 } catch (Exception e2) {
                     // ignore
@@ -666,6 +675,23 @@ public class PooledDataSource implements DataSource {
         return conn;
     }
 
+    /**
+     * 获取池化连接所对应物理连接上的Statement缓存
+     *
+     * @param conn    连接池返回的代理连接
+     * @param maxSize 缓存的最大Statement数
+     * @return Statement缓存，不是本连接池的连接或连接已失效时返回null
+     */
+    public static StatementCache getStatementCache(Connection conn, int maxSize) {
+        if (Proxy.isProxyClass(conn.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(conn);
+            if (handler instanceof PooledConnection) {
+                return ((PooledConnection) handler).getStatementCache(maxSize);
+            }
+        }
+        return null;
+    }
+
     @Override
     protected void finalize() throws Throwable {
         forceCloseAll();
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 绑定在一个物理连接上的Statement缓存，键是SQL语句。
+ * 与ReuseExecutor中随会话销毁的statementMap不同，本缓存跟随物理连接存在，可以被使用同一连接的多个会话复用。
+ * 使用者通过acquire/release标记Statement正在使用（如仍在读取的游标），使用中的Statement不会被get返回给其他使用者；
+ * 缓存按LRU策略淘汰，被淘汰的Statement如果仍在使用，会等到release时再关闭；物理连接关闭时整个缓存失效。
+ */
+public class StatementCache {
+
+    // 缓存的最大Statement数
+    private final int maxSize;
+    // accessOrder为true的LinkedHashMap，按访问顺序排序，实现LRU
+    private final Map<String, Statement> statements;
+    // 正在使用中的Statement，按引用比较
+    private final Set<Statement> inUseStatements = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+    // 已被淘汰、但仍在使用中的Statement，release时再关闭
+    private final Set<Statement> evictedStatements = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+
+    public StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<String, Statement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Statement> eldest) {
+                boolean tooBig = size() > StatementCache.this.maxSize;
+                if (tooBig) {
+                    evict(eldest.getValue());
+                }
+                return tooBig;
+            }
+        };
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 获取SQL对应的Statement，已经被关闭的Statement会被移出缓存
+     *
+     * @param sql SQL语句
+     * @return 可用的Statement，不存在或正在使用中时返回null
+     */
+    public synchronized Statement get(String sql) {
+        Statement statement = statements.get(sql);
+        if (statement != null && isClosed(statement)) {
+            statements.remove(sql);
+            return null;
+        }
+        if (statement != null && inUseStatements.contains(statement)) {
+            return null;
+        }
+        return statement;
+    }
+
+    public synchronized void put(String sql, Statement statement) {
+        Statement previous = statements.put(sql, statement);
+        if (previous != null && previous != statement) {
+            evict(previous);
+        }
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * 标记Statement正在使用，使用期间不会被get返回，被淘汰时也不会立即关闭
+     *
+     * @param statement 缓存中的Statement
+     */
+    public synchronized void acquire(Statement statement) {
+        inUseStatements.add(statement);
+    }
+
+    /**
+     * 结束使用Statement，使用期间已被淘汰的Statement在此关闭
+     *
+     * @param statement 之前acquire的Statement
+     */
+    public void release(Statement statement) {
+        boolean evicted;
+        synchronized (this) {
+            inUseStatements.remove(statement);
+            evicted = evictedStatements.remove(statement);
+        }
+        if (evicted) {
+            closeStatement(statement);
+        }
+    }
+
+    /**
+     * 关闭并清空所有缓存的Statement，在物理连接关闭前调用
+     */
+    public void clear() {
+        List<Statement> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(statements.values());
+            toClose.addAll(evictedStatements);
+            statements.clear();
+            inUseStatements.clear();
+            evictedStatements.clear();
+        }
+        for (Statement statement : toClose) {
+            closeStatement(statement);
+        }
+    }
+
+    // 仍在使用中时推迟到release再关闭，避免关闭正在被读取的结果集
+    private void evict(Statement statement) {
+        if (inUseStatements.contains(statement)) {
+            evictedStatements.add(statement);
+        } else {
+            closeStatement(statement);
+        }
+    }
+
+    private boolean isClosed(Statement statement) {
+        try {
+            return statement.isClosed() || statement.getConnection().isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void closeStatement(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+}
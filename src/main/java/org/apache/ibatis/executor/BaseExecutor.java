@@ -18,6 +18,7 @@ package org.apache.ibatis.executor;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -26,6 +27,7 @@ import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -34,6 +36,7 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -60,6 +63,8 @@ public abstract class BaseExecutor implements Executor {
 
     protected int queryStack;
     private boolean closed;
+    // 请求级别的截止时间，作用于本执行器上的所有查询、嵌套查询和延迟加载
+    private Deadline deadline;
 
     protected BaseExecutor(Configuration configuration, Transaction transaction) {
         this.transaction = transaction;
@@ -106,6 +111,16 @@ public abstract class BaseExecutor implements Executor {
         return closed;
     }
 
+    @Override
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
     /**
      * 更新操作，包括insert、update、delete，会触发整个命名空间缓存的删除，以此来防止缓存旧数据
      *
@@ -123,6 +138,8 @@ public abstract class BaseExecutor implements Executor {
         }
         // 清理本地缓存
         clearLocalCache();
+        // 截止时间已到，不再访问数据库
+        checkDeadline(ms);
         // 返回调用子类进行操作
         return doUpdate(ms, parameter);
     }
@@ -193,6 +210,8 @@ public abstract class BaseExecutor implements Executor {
                 // 对于CALLABLE语句，还需要绑定到IN/INOUT参数上
                 handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
             } else {  // 缓存不存在查询数据库
+                // 截止时间已到，不再访问数据库
+                checkDeadline(ms);
                 list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
             }
         } finally {
@@ -218,6 +237,7 @@ public abstract class BaseExecutor implements Executor {
     @Override
     public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
         BoundSql boundSql = ms.getBoundSql(parameter);
+        checkDeadline(ms);
         return doQueryCursor(ms, parameter, rowBounds, boundSql);
     }
 
@@ -254,6 +274,13 @@ public abstract class BaseExecutor implements Executor {
         cacheKey.update(ms.getId());
         cacheKey.update(rowBounds.getOffset());
         cacheKey.update(rowBounds.getLimit());
+        if (rowBounds instanceof KeysetRowBounds) {
+            // 键集分页的键值在Statement阶段才加入SQL参数，这里需要单独写入
+            KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+            cacheKey.update(keysetRowBounds.getKeyColumn());
+            cacheKey.update(keysetRowBounds.getLastKey());
+            cacheKey.update(keysetRowBounds.isDescending());
+        }
         cacheKey.update(boundSql.getSql());
         List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
         TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
@@ -353,6 +380,33 @@ public abstract class BaseExecutor implements Executor {
         StatementUtil.applyTransactionTimeout(statement, statement.getQueryTimeout(), transaction.getTimeout());
     }
 
+    /**
+     * 复用Statement前按映射语句重新设置超时时间，再叠加事务超时和截止时间。
+     * 不能以Statement当前的超时时间为基准，它可能是上一次执行按截止时间缩短后留下的。
+     *
+     * @param ms        将要执行的映射语句
+     * @param statement 复用的Statement
+     * @throws SQLException 截止时间已经到达，或设置超时时间失败
+     */
+    protected void resetStatementTimeout(MappedStatement ms, Statement statement) throws SQLException {
+        Integer queryTimeout = ms.getTimeout() != null ? ms.getTimeout() : configuration.getDefaultStatementTimeout();
+        statement.setQueryTimeout(queryTimeout == null ? 0 : queryTimeout);
+        StatementUtil.applyTransactionTimeout(statement, queryTimeout, transaction.getTimeout());
+        StatementUtil.applyDeadline(statement, deadline);
+    }
+
+    /**
+     * 截止时间已经到达时直接失败，避免访问数据库
+     *
+     * @param ms 将要执行的映射语句
+     * @throws SQLTimeoutException 截止时间已经到达
+     */
+    private void checkDeadline(MappedStatement ms) throws SQLTimeoutException {
+        if (deadline != null && deadline.isExpired()) {
+            throw new SQLTimeoutException("Deadline exceeded before executing '" + ms.getId() + "'.");
+        }
+    }
+
     private void handleLocallyCachedOutputParameters(MappedStatement ms, CacheKey key, Object parameter, BoundSql boundSql) {
         if (ms.getStatementType() == StatementType.CALLABLE) {
             final Object cachedParameter = localOutputParameterCache.getObject(key);
@@ -66,7 +66,7 @@ public class BatchExecutor extends BaseExecutor {
         if (sql.equals(currentSql) && ms.equals(currentStatement)) {
             int last = statementList.size() - 1;
             stmt = statementList.get(last);
-            applyTransactionTimeout(stmt);
+            resetStatementTimeout(ms, stmt);
             handler.parameterize(stmt);// fix Issues 322
             // 查找该Statement对象对应的BatchResult对象，并记录用户传入的实参
             BatchResult batchResult = batchResultList.get(last);
@@ -130,8 +130,8 @@ public class BatchExecutor extends BaseExecutor {
             // 遍历statementList集合
             for (int i = 0, n = statementList.size(); i < n; i++) {
                 Statement stmt = statementList.get(i);
-                applyTransactionTimeout(stmt);
                 BatchResult batchResult = batchResultList.get(i);
+                resetStatementTimeout(batchResult.getMappedStatement(), stmt);
                 try {
                     // 调用statement.executeBatch()执行其中记录的sql语句，并使用返回的int数组更新BatchResult的updateCounts属性
                     // 其中每个元素都表示一条SQL语句影响的记录条数
@@ -21,6 +21,7 @@ import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -208,6 +209,16 @@ public class CachingExecutor implements Executor {
         }
     }
 
+    @Override
+    public void setDeadline(Deadline deadline) {
+        delegate.setDeadline(deadline);
+    }
+
+    @Override
+    public Deadline getDeadline() {
+        return delegate.getDeadline();
+    }
+
     @Override
     public void setExecutorWrapper(Executor executor) {
         throw new UnsupportedOperationException("This method should not be called");
@@ -20,6 +20,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -110,4 +111,21 @@ public interface Executor {
      */
     void setExecutorWrapper(Executor executor);
 
+    /**
+     * 设置后续数据库操作的截止时间，null表示不限制。
+     * 与SqlSession一致，不支持截止时间的执行器直接抛出异常，而不是静默忽略
+     *
+     * @throws UnsupportedOperationException 执行器不支持截止时间
+     */
+    default void setDeadline(Deadline deadline) {
+        throw new UnsupportedOperationException("This executor does not support deadlines");
+    }
+
+    /**
+     * 获取后续数据库操作的截止时间
+     */
+    default Deadline getDeadline() {
+        return null;
+    }
+
 }
@@ -16,8 +16,9 @@
 package org.apache.ibatis.executor;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.StatementCache;
 import org.apache.ibatis.executor.statement.StatementHandler;
-import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
@@ -25,17 +26,20 @@ import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 /**
  * @author Clinton Begin
  * 实现了缓存Statement的优化，减少Sql预编译的开销
+ * 配置了sharedStatementCacheSize并且使用池化数据源时，Statement会缓存在物理连接上，被使用同一连接的多个会话复用
  */
 public class ReuseExecutor extends BaseExecutor {
     // 用于存储编译后的Statement，键是SQL模板
@@ -49,24 +53,44 @@ public class ReuseExecutor extends BaseExecutor {
     public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
         Configuration configuration = ms.getConfiguration();
         StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
-        Statement stmt = prepareStatement(handler, ms.getStatementLog());
-        return handler.update(stmt);
+        Statement stmt = prepareStatement(handler, ms);
+        try {
+            return handler.update(stmt);
+        } finally {
+            releaseSharedStatement(stmt);
+        }
     }
 
     @Override
     public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
         Configuration configuration = ms.getConfiguration();
         StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
-        Statement stmt = prepareStatement(handler, ms.getStatementLog());
-        return handler.query(stmt, resultHandler);
+        Statement stmt = prepareStatement(handler, ms);
+        try {
+            return handler.query(stmt, resultHandler);
+        } finally {
+            releaseSharedStatement(stmt);
+        }
     }
 
     @Override
     protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql) throws SQLException {
         Configuration configuration = ms.getConfiguration();
         StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
-        Statement stmt = prepareStatement(handler, ms.getStatementLog());
-        return handler.queryCursor(stmt);
+        Statement stmt = prepareStatement(handler, ms);
+        StatementCache sharedStatementCache = getSharedStatementCache();
+        if (sharedStatementCache == null) {
+            return handler.queryCursor(stmt);
+        }
+        Cursor<E> cursor;
+        try {
+            cursor = handler.queryCursor(stmt);
+        } catch (SQLException | RuntimeException e) {
+            sharedStatementCache.release(stmt);
+            throw e;
+        }
+        // 游标关闭前Statement一直处于使用中，期间被淘汰也不会关闭
+        return new SharedStatementCursor<>(cursor, sharedStatementCache, stmt);
     }
 
     @Override
@@ -82,23 +106,58 @@ public class ReuseExecutor extends BaseExecutor {
     /**
      * 初始化statement并处理占位符
      */
-    private Statement prepareStatement(StatementHandler handler, Log statementLog) throws SQLException {
+    private Statement prepareStatement(StatementHandler handler, MappedStatement ms) throws SQLException {
         Statement stmt;
         BoundSql boundSql = handler.getBoundSql();
         String sql = boundSql.getSql();
+        // 物理连接上的共享缓存，不可用时为null
+        StatementCache sharedStatementCache = getSharedStatementCache();
         // 尝试从statementMap缓存中获取编译好的Statement对象
         if (hasStatementFor(sql)) {
             stmt = getStatement(sql);
-            applyTransactionTimeout(stmt);
+            resetStatementTimeout(ms, stmt);
+        } else if (sharedStatementCache != null && (stmt = sharedStatementCache.get(sql)) != null) {
+            // 其他会话在同一物理连接上编译好的Statement
+            resetStatementTimeout(ms, stmt);
+            sharedStatementCache.acquire(stmt);
         } else {
-            Connection connection = getConnection(statementLog);
+            Connection connection = getConnection(ms.getStatementLog());
             stmt = handler.prepare(connection, transaction.getTimeout());
-            putStatement(sql, stmt);
+            if (sharedStatementCache != null) {
+                // 共享缓存中的Statement由缓存负责关闭，不放入statementMap
+                sharedStatementCache.acquire(stmt);
+                sharedStatementCache.put(sql, stmt);
+            } else {
+                putStatement(sql, stmt);
+            }
+        }
+        try {
+            handler.parameterize(stmt);
+        } catch (SQLException | RuntimeException e) {
+            releaseSharedStatement(stmt);
+            throw e;
         }
-        handler.parameterize(stmt);
         return stmt;
     }
 
+    /**
+     * 结束对共享缓存中Statement的使用，会话自己的statementMap中的Statement不受影响
+     */
+    private void releaseSharedStatement(Statement stmt) throws SQLException {
+        StatementCache sharedStatementCache = getSharedStatementCache();
+        if (sharedStatementCache != null) {
+            sharedStatementCache.release(stmt);
+        }
+    }
+
+    private StatementCache getSharedStatementCache() throws SQLException {
+        int cacheSize = configuration.getSharedStatementCacheSize();
+        if (cacheSize <= 0) {
+            return null;
+        }
+        return PooledDataSource.getStatementCache(transaction.getConnection(), cacheSize);
+    }
+
     private boolean hasStatementFor(String sql) {
         try {
             Statement statement = statementMap.get(sql);
@@ -116,4 +175,48 @@ public class ReuseExecutor extends BaseExecutor {
         statementMap.put(sql, stmt);
     }
 
+    /**
+     * 游标关闭时释放共享缓存中的Statement
+     */
+    private static class SharedStatementCursor<T> implements Cursor<T> {
+        private final Cursor<T> delegate;
+        private final StatementCache statementCache;
+        private final Statement statement;
+
+        SharedStatementCursor(Cursor<T> delegate, StatementCache statementCache, Statement statement) {
+            this.delegate = delegate;
+            this.statementCache = statementCache;
+            this.statement = statement;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return delegate.isConsumed();
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return delegate.getCurrentIndex();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return delegate.iterator();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                statementCache.release(statement);
+            }
+        }
+    }
+
 }
@@ -24,6 +24,7 @@ import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
@@ -49,6 +50,8 @@ public class ResultLoader {
     protected final BoundSql boundSql;
     protected final ResultExtractor resultExtractor;
     protected final long creatorThreadId;
+    // 创建时执行器上的截止时间，使用新执行器延迟加载时继续生效
+    protected final Deadline deadline;
 
     protected boolean loaded;
     protected Object resultObject;
@@ -64,6 +67,7 @@ public class ResultLoader {
         this.boundSql = boundSql;
         this.resultExtractor = new ResultExtractor(configuration, objectFactory);
         this.creatorThreadId = Thread.currentThread().getId();
+        this.deadline = executor.getDeadline();
     }
 
     public Object loadResult() throws SQLException {
@@ -99,7 +103,11 @@ public class ResultLoader {
         }
         final TransactionFactory transactionFactory = environment.getTransactionFactory();
         final Transaction tx = transactionFactory.newTransaction(ds, null, false);
-        return configuration.newExecutor(tx, ExecutorType.SIMPLE);
+        final Executor newExecutor = configuration.newExecutor(tx, ExecutorType.SIMPLE);
+        if (deadline != null) {
+            newExecutor.setDeadline(deadline);
+        }
+        return newExecutor;
     }
 
     public boolean wasNull() {
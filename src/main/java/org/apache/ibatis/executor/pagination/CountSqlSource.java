@@ -0,0 +1,61 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 计数语句的SqlSource，把原语句生成的SQL改写为SELECT COUNT(*)。
+ * 改写结果按原SQL缓存，静态SQL只需要解析一次
+ */
+public class CountSqlSource implements SqlSource {
+
+    // 动态SQL可能生成很多不同的SQL，缓存数量需要有上限
+    private static final int MAX_CACHED_SQL = 64;
+
+    private final Configuration configuration;
+    private final SqlSource sqlSource;
+    private final Map<String, String> countSqlCache = new ConcurrentHashMap<>();
+
+    public CountSqlSource(Configuration configuration, SqlSource sqlSource) {
+        this.configuration = configuration;
+        this.sqlSource = sqlSource;
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+        BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+        String sql = boundSql.getSql();
+        String countSql = countSqlCache.get(sql);
+        if (countSql == null) {
+            countSql = PaginationUtil.getCountSql(sql);
+            if (countSqlCache.size() < MAX_CACHED_SQL) {
+                countSqlCache.put(sql, countSql);
+            }
+        }
+        BoundSql countBoundSql = new BoundSql(configuration, countSql, boundSql.getParameterMappings(), parameterObject);
+        for (Map.Entry<String, Object> entry : boundSql.getAdditionalParameters().entrySet()) {
+            countBoundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
+        }
+        return countBoundSql;
+    }
+
+}
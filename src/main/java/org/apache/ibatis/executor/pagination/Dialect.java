@@ -0,0 +1,62 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * 数据库分页方言，负责把RowBounds表达的分页条件改写进SQL。
+ * 分页参数以占位符?的形式加入SQL，这样不同页使用相同的SQL，可以复用预编译的Statement。
+ * 新增的占位符必须全部出现在原SQL之后，其参数值按占位符出现的顺序加入parameters。
+ */
+public interface Dialect {
+
+    /**
+     * 为SQL加上分页子句
+     *
+     * @param sql        原SQL
+     * @param offset     跳过的行数，{@link RowBounds#NO_ROW_OFFSET}表示不跳过
+     * @param limit      最多返回的行数，{@link RowBounds#NO_ROW_LIMIT}表示不限制
+     * @param parameters 用于接收分页参数值
+     * @return 分页SQL
+     */
+    String getPagingSql(String sql, int offset, int limit, List<Object> parameters);
+
+    /**
+     * 为SQL加上键集分页条件：只返回排序键在上一页最后一个键值之后的行，并按排序键排序。
+     * 原SQL作为派生表，keyColumn需要是原SQL结果中的列名（或别名）
+     *
+     * @param sql        原SQL
+     * @param keyColumn  排序键所在的列
+     * @param lastKey    上一页最后一行的键值，为null时表示第一页
+     * @param descending 是否降序
+     * @param parameters 用于接收参数值
+     * @return 键集分页SQL，尚未限制行数
+     */
+    default String getKeysetSql(String sql, String keyColumn, Object lastKey, boolean descending, List<Object> parameters) {
+        StringBuilder keysetSql = new StringBuilder(sql.length() + 64);
+        keysetSql.append("SELECT * FROM (").append(sql).append(") keyset_");
+        if (lastKey != null) {
+            keysetSql.append(" WHERE keyset_.").append(keyColumn).append(descending ? " < ?" : " > ?");
+            parameters.add(lastKey);
+        }
+        keysetSql.append(" ORDER BY keyset_.").append(keyColumn).append(descending ? " DESC" : " ASC");
+        return keysetSql.toString();
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.regex.Pattern;
+
+/**
+ * 键集分页（seek method）条件：不再按偏移量跳过行，而是从上一页最后一行的键值之后开始取。
+ * 需要配置paginationDialect，翻页代价与页码无关
+ */
+public class KeysetRowBounds extends RowBounds {
+
+    // 列名会直接拼进SQL，只允许普通标识符
+    private static final Pattern COLUMN_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+
+    // 排序键所在的列
+    private final String keyColumn;
+    // 上一页最后一行的键值，null表示第一页
+    private final Object lastKey;
+    // 是否降序
+    private final boolean descending;
+
+    public KeysetRowBounds(String keyColumn, Object lastKey, int limit) {
+        this(keyColumn, lastKey, limit, false);
+    }
+
+    public KeysetRowBounds(String keyColumn, Object lastKey, int limit, boolean descending) {
+        super(NO_ROW_OFFSET, limit);
+        if (keyColumn == null || !COLUMN_PATTERN.matcher(keyColumn).matches()) {
+            throw new IllegalArgumentException("Invalid key column '" + keyColumn + "' for keyset pagination.");
+        }
+        this.keyColumn = keyColumn;
+        this.lastKey = lastKey;
+        this.descending = descending;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public Object getLastKey() {
+        return lastKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * 使用LIMIT ? OFFSET ?分页的方言，H2、HSQLDB、PostgreSQL、MySQL都支持这种写法
+ */
+public class LimitOffsetDialect implements Dialect {
+
+    @Override
+    public String getPagingSql(String sql, int offset, int limit, List<Object> parameters) {
+        // 部分数据库（如MySQL）不支持单独的OFFSET，只有偏移量时用最大行数作为LIMIT
+        parameters.add(limit == RowBounds.NO_ROW_LIMIT ? Integer.MAX_VALUE : limit);
+        if (offset == RowBounds.NO_ROW_OFFSET) {
+            return sql + " LIMIT ?";
+        }
+        parameters.add(offset);
+        return sql + " LIMIT ? OFFSET ?";
+    }
+
+}
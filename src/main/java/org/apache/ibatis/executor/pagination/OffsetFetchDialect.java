@@ -0,0 +1,41 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * 使用SQL:2008标准OFFSET ? ROWS FETCH NEXT ? ROWS ONLY分页的方言，如Derby、Oracle 12c、SQL Server 2012
+ */
+public class OffsetFetchDialect implements Dialect {
+
+    @Override
+    public String getPagingSql(String sql, int offset, int limit, List<Object> parameters) {
+        StringBuilder pagingSql = new StringBuilder(sql.length() + 48).append(sql);
+        if (offset != RowBounds.NO_ROW_OFFSET) {
+            pagingSql.append(" OFFSET ? ROWS");
+            parameters.add(offset);
+        }
+        if (limit != RowBounds.NO_ROW_LIMIT) {
+            pagingSql.append(offset == RowBounds.NO_ROW_OFFSET ? " FETCH FIRST ? ROWS ONLY" : " FETCH NEXT ? ROWS ONLY");
+            parameters.add(limit);
+        }
+        return pagingSql.toString();
+    }
+
+}
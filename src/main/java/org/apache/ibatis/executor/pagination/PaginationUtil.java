@@ -0,0 +1,224 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据库分页的工具类，在创建StatementHandler时把RowBounds改写进BoundSql
+ */
+public final class PaginationUtil {
+
+    // 分页参数在additionalParameters中的名称前缀
+    private static final String PAGING_PARAMETER_PREFIX = "_paging_param_";
+    // 计数语句id的后缀
+    private static final String COUNT_STATEMENT_SUFFIX = "!count";
+
+    private PaginationUtil() {
+        // NOP
+    }
+
+    /**
+     * 判断查询能否在数据库端分页。
+     * 只改写预编译的SELECT语句；嵌套结果映射按父对象而不是按行计数，多结果集也无法用一个分页子句表达，这两种情况仍在客户端分页
+     *
+     * @param ms        映射语句
+     * @param rowBounds 分页条件
+     * @return 能否在数据库端分页
+     */
+    public static boolean isApplicable(MappedStatement ms, RowBounds rowBounds) {
+        if (rowBounds == null || (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET
+            && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT && !(rowBounds instanceof KeysetRowBounds))) {
+            return false;
+        }
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getStatementType() != StatementType.PREPARED
+            || ms.getResultSets() != null) {
+            return false;
+        }
+        for (ResultMap resultMap : ms.getResultMaps()) {
+            if (resultMap.hasNestedResultMaps()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把分页条件改写进BoundSql，分页参数作为附加参数追加到参数映射的末尾
+     *
+     * @param configuration 配置
+     * @param dialect       分页方言
+     * @param boundSql      原BoundSql
+     * @param rowBounds     分页条件
+     * @return 分页后的BoundSql
+     */
+    public static BoundSql rewrite(Configuration configuration, Dialect dialect, BoundSql boundSql, RowBounds rowBounds) {
+        List<Object> pagingParameters = new ArrayList<>();
+        String sql = boundSql.getSql();
+        if (rowBounds instanceof KeysetRowBounds) {
+            KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+            sql = dialect.getKeysetSql(sql, keysetRowBounds.getKeyColumn(), keysetRowBounds.getLastKey(),
+                keysetRowBounds.isDescending(), pagingParameters);
+        }
+        if (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+            sql = dialect.getPagingSql(sql, rowBounds.getOffset(), rowBounds.getLimit(), pagingParameters);
+        }
+
+        List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings().size() + pagingParameters.size());
+        parameterMappings.addAll(boundSql.getParameterMappings());
+        BoundSql pagingBoundSql = new BoundSql(configuration, sql, parameterMappings, boundSql.getParameterObject());
+        for (Map.Entry<String, Object> entry : boundSql.getAdditionalParameters().entrySet()) {
+            pagingBoundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
+        }
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        for (int i = 0; i < pagingParameters.size(); i++) {
+            String property = PAGING_PARAMETER_PREFIX + i;
+            Object value = pagingParameters.get(i);
+            // 没有对应TypeHandler的键值交给UnknownTypeHandler在运行时解析
+            Class<?> javaType = typeHandlerRegistry.hasTypeHandler(value.getClass()) ? value.getClass() : Object.class;
+            parameterMappings.add(new ParameterMapping.Builder(configuration, property, javaType).build());
+            pagingBoundSql.setAdditionalParameter(property, value);
+        }
+        return pagingBoundSql;
+    }
+
+    /**
+     * 无法在数据库端分页时检查分页条件，键集分页没有客户端实现
+     *
+     * @param rowBounds 分页条件
+     */
+    public static void checkClientSidePaging(RowBounds rowBounds) {
+        if (rowBounds instanceof KeysetRowBounds) {
+            throw new ExecutorException("Keyset pagination requires a paginationDialect and a prepared select statement "
+                + "without nested result maps or multiple result sets.");
+        }
+    }
+
+    /**
+     * 根据查询语句生成计数语句：SQL改写为SELECT COUNT(*)，结果映射为Long，其余属性沿用原语句
+     *
+     * @param ms 查询语句
+     * @return 计数语句
+     */
+    public static MappedStatement buildCountStatement(MappedStatement ms) {
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getStatementType() == StatementType.CALLABLE) {
+            throw new ExecutorException("Cannot derive a count statement from '" + ms.getId() + "', only select statements are supported.");
+        }
+        Configuration configuration = ms.getConfiguration();
+        String id = ms.getId() + COUNT_STATEMENT_SUFFIX;
+        SqlSource sqlSource = new CountSqlSource(configuration, ms.getSqlSource());
+        ResultMap resultMap = new ResultMap.Builder(configuration, id + "-Inline", Long.class, new ArrayList<>(), null).build();
+        return new MappedStatement.Builder(configuration, id, sqlSource, SqlCommandType.SELECT)
+            .resource(ms.getResource())
+            .parameterMap(ms.getParameterMap())
+            .resultMaps(Collections.singletonList(resultMap))
+            .timeout(ms.getTimeout())
+            .statementType(ms.getStatementType())
+            .databaseId(ms.getDatabaseId())
+            .lang(ms.getLang())
+            .cache(ms.getCache())
+            .useCache(ms.isUseCache())
+            .flushCacheRequired(ms.isFlushCacheRequired())
+            .build();
+    }
+
+    /**
+     * 生成计数SQL：去掉最外层的ORDER BY后作为派生表计数
+     *
+     * @param sql 查询SQL
+     * @return 计数SQL
+     */
+    public static String getCountSql(String sql) {
+        return "SELECT COUNT(*) FROM (" + removeOrderBy(sql) + ") count_";
+    }
+
+    /**
+     * 去掉最外层的ORDER BY子句。
+     * 括号内（子查询、窗口函数）和引号内的内容不处理；ORDER BY之后还有LIMIT、OFFSET、FETCH、FOR等子句时，排序会影响结果，保留原SQL
+     *
+     * @param sql 查询SQL
+     * @return 去掉排序后的SQL
+     */
+    static String removeOrderBy(String sql) {
+        int depth = 0;
+        int orderBy = -1;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && isWordStart(sql, i)) {
+                if (startsWithWord(sql, i, "ORDER")) {
+                    int by = skipWhitespace(sql, i + 5);
+                    if (startsWithWord(sql, by, "BY")) {
+                        orderBy = i;
+                    }
+                } else if (orderBy >= 0 && (startsWithWord(sql, i, "LIMIT") || startsWithWord(sql, i, "OFFSET")
+                    || startsWithWord(sql, i, "FETCH") || startsWithWord(sql, i, "FOR"))) {
+                    return sql;
+                }
+            }
+        }
+        return orderBy < 0 ? sql : sql.substring(0, orderBy);
+    }
+
+    private static boolean isWordStart(String sql, int index) {
+        return index == 0 || !isIdentifierPart(sql.charAt(index - 1));
+    }
+
+    private static boolean startsWithWord(String sql, int index, String word) {
+        int end = index + word.length();
+        return sql.regionMatches(true, index, word, 0, word.length())
+            && (end == sql.length() || !isIdentifierPart(sql.charAt(end)));
+    }
+
+    private static int skipWhitespace(String sql, int index) {
+        while (index < sql.length() && Character.isWhitespace(sql.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * 使用ROWNUM分页的方言，适用于不支持OFFSET/FETCH的Oracle版本。
+ * 有偏移量时结果中会多出一列rownum_
+ */
+public class RowNumDialect implements Dialect {
+
+    @Override
+    public String getPagingSql(String sql, int offset, int limit, List<Object> parameters) {
+        // offset + limit可能超出int范围
+        long upperBound = limit == RowBounds.NO_ROW_LIMIT ? Long.MAX_VALUE : (long) offset + limit;
+        if (offset == RowBounds.NO_ROW_OFFSET) {
+            parameters.add(upperBound);
+            return "SELECT * FROM (" + sql + ") WHERE ROWNUM <= ?";
+        }
+        parameters.add(upperBound);
+        parameters.add(offset);
+        return "SELECT * FROM (SELECT row_.*, ROWNUM rownum_ FROM (" + sql + ") row_ WHERE ROWNUM <= ?) WHERE rownum_ > ?";
+    }
+
+}
@@ -0,0 +1,21 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+/**
+ * Contains the pagination dialects.
+ * 本包负责数据库端分页：配置了paginationDialect后，带RowBounds的查询会被改写为带LIMIT/OFFSET、FETCH FIRST或ROWNUM的SQL，
+ * 而不是在客户端逐行跳过。{@link org.apache.ibatis.executor.pagination.KeysetRowBounds}提供基于上一页最后一个键值的游标式分页。
+ */
+package org.apache.ibatis.executor.pagination;
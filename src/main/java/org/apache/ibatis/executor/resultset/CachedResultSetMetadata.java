@@ -0,0 +1,118 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一种列布局下的结果集元数据，以及在这些元数据上解析出的TypeHandler、已映射/未映射列和自动映射规则。
+ * 开启resultSetMetadataCacheEnabled后由Configuration按语句id和结果集序号缓存，同一语句的多次执行共享，
+ * 因此除列信息外的部分都是线程安全的、按需填充的缓存
+ */
+public final class CachedResultSetMetadata {
+
+    // 列名列表、Java类型列表和JDBC类型列表
+    final List<String> columnNames;
+    final List<String> classNames;
+    final List<JdbcType> jdbcTypes;
+    // 驱动返回的原始列类型，用于判断表结构是否发生变化
+    private final int[] columnTypes;
+    // 列名（大写）与列下标的对应关系，列名重复时取第一列，与ResultSet.findColumn一致
+    final Map<String, Integer> columnIndexMap;
+    // 结构为Map<列名, Map<Java类型, 类型处理器>>
+    final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new ConcurrentHashMap<>();
+    // 结构为Map<resultMap的id:列前缀, List<列名>>
+    final Map<String, List<String>> mappedColumnNamesMap = new ConcurrentHashMap<>();
+    final Map<String, List<String>> unMappedColumnNamesMap = new ConcurrentHashMap<>();
+    // 自动映射规则，结构为Map<resultMap的id:列前缀, List<自动映射>>
+    final Map<String, List<DefaultResultSetHandler.UnMappedColumnAutoMapping>> autoMappingsMap = new ConcurrentHashMap<>();
+    // 紧凑Map结果的键布局，结构为Map<resultMap的id:列前缀, 布局>
+    final Map<String, CompactRowMap.Layout> rowMapLayoutsMap = new ConcurrentHashMap<>();
+    // 编译后的行映射器，结构为Map<resultMap的id:列前缀, 行映射器>
+    final Map<String, CompiledRowMapper> compiledRowMappersMap = new ConcurrentHashMap<>();
+
+    private CachedResultSetMetadata(List<String> columnNames, List<String> classNames, List<JdbcType> jdbcTypes, int[] columnTypes) {
+        this.columnNames = Collections.unmodifiableList(columnNames);
+        this.classNames = Collections.unmodifiableList(classNames);
+        this.jdbcTypes = Collections.unmodifiableList(jdbcTypes);
+        this.columnTypes = columnTypes;
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            // 驱动可能不返回列名，这样的列无法按列名定位
+            final String columnName = columnNames.get(i);
+            if (columnName != null) {
+                indexes.putIfAbsent(columnName.toUpperCase(Locale.ENGLISH), i + 1);
+            }
+        }
+        this.columnIndexMap = indexes;
+    }
+
+    /**
+     * 读取结果集的全部列信息
+     *
+     * @param metaData       结果集元数据
+     * @param useColumnLabel 是否使用列标签作为列名
+     * @return 新的元数据
+     */
+    static CachedResultSetMetadata load(ResultSetMetaData metaData, boolean useColumnLabel) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        final List<String> columnNames = new ArrayList<>(columnCount);
+        final List<String> classNames = new ArrayList<>(columnCount);
+        final List<JdbcType> jdbcTypes = new ArrayList<>(columnCount);
+        final int[] columnTypes = new int[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            columnNames.add(useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
+            columnTypes[i - 1] = metaData.getColumnType(i);
+            jdbcTypes.add(JdbcType.forCode(columnTypes[i - 1]));
+            classNames.add(metaData.getColumnClassName(i));
+        }
+        return new CachedResultSetMetadata(columnNames, classNames, jdbcTypes, columnTypes);
+    }
+
+    /**
+     * 检查结果集的列布局是否与缓存时一致，只比较列数、列名和列类型，不读取列的Java类型
+     *
+     * @param metaData       结果集元数据
+     * @param useColumnLabel 是否使用列标签作为列名
+     * @return 列布局是否一致
+     */
+    boolean matches(ResultSetMetaData metaData, boolean useColumnLabel) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        if (columnCount != columnTypes.length) {
+            return false;
+        }
+        for (int i = 1; i <= columnCount; i++) {
+            if (metaData.getColumnType(i) != columnTypes[i - 1]
+                    || !Objects.equals(columnNames.get(i - 1), useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
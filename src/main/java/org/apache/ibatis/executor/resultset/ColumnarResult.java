@@ -0,0 +1,357 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.type.DoubleResultReader;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.LongResultReader;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按列存放的查询结果，语句的结果类型为ColumnarResult时使用。
+ * 整数列存为long[]，浮点列存为double[]，字符列存为String[]，其余列由TypeHandler读取后存为Object[]，
+ * long[]和double[]列的NULL记录在按行的位图中。每行只占各列数组中的一个元素，不创建结果对象，
+ * 也不经过ObjectFactory和MetaObject
+ */
+public final class ColumnarResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<String> columnNames;
+    // 列名（大写）与列序号的对应关系，从0开始
+    private final Map<String, Integer> columnIndexMap = new HashMap<>();
+    private final Column[] columns;
+    private int size;
+    private int capacity;
+
+    ColumnarResult(ResultSetWrapper rsw) {
+        this.columnNames = rsw.getColumnNames();
+        this.columns = new Column[columnNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            final String columnName = columnNames.get(i);
+            columnIndexMap.putIfAbsent(columnName.toUpperCase(Locale.ENGLISH), i);
+            columns[i] = createColumn(rsw, columnName, rsw.getJdbcTypes().get(i));
+        }
+    }
+
+    private static Column createColumn(ResultSetWrapper rsw, String columnName, JdbcType jdbcType) {
+        if (jdbcType != null) {
+            switch (jdbcType) {
+                case BIGINT:
+                case INTEGER:
+                case SMALLINT:
+                case TINYINT: {
+                    TypeHandler<?> typeHandler = rsw.getTypeHandler(long.class, columnName);
+                    // LongResultReader只能按列下标读取，不受columnIndexReadEnabled影响
+                    if (typeHandler instanceof LongResultReader && ResultSetWrapper.isIndexedResultReader(typeHandler)) {
+                        return new LongColumn((LongResultReader) typeHandler);
+                    }
+                    return new ObjectColumn(typeHandler, columnName, rsw.canReadByIndex(typeHandler));
+                }
+                case DOUBLE:
+                case FLOAT:
+                case REAL: {
+                    TypeHandler<?> typeHandler = rsw.getTypeHandler(double.class, columnName);
+                    if (typeHandler instanceof DoubleResultReader && ResultSetWrapper.isIndexedResultReader(typeHandler)) {
+                        return new DoubleColumn((DoubleResultReader) typeHandler);
+                    }
+                    return new ObjectColumn(typeHandler, columnName, rsw.canReadByIndex(typeHandler));
+                }
+                case CHAR:
+                case VARCHAR:
+                case LONGVARCHAR:
+                case NCHAR:
+                case NVARCHAR:
+                case LONGNVARCHAR: {
+                    TypeHandler<?> typeHandler = rsw.getTypeHandler(String.class, columnName);
+                    return new StringColumn(typeHandler, columnName, rsw.canReadByIndex(typeHandler));
+                }
+                default:
+                    break;
+            }
+        }
+        final TypeHandler<?> typeHandler = rsw.getTypeHandler(Object.class, columnName);
+        return new ObjectColumn(typeHandler, columnName, rsw.canReadByIndex(typeHandler));
+    }
+
+    /**
+     * 读取结果集的当前行，追加到各列的末尾
+     */
+    void addRow(ResultSet rs) throws SQLException {
+        if (size == capacity) {
+            capacity = capacity == 0 ? INITIAL_CAPACITY : capacity << 1;
+            for (Column column : columns) {
+                column.resize(capacity);
+            }
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].read(rs, i + 1, size);
+        }
+        size++;
+    }
+
+    /**
+     * 读取完毕后把各列数组裁剪到实际行数
+     */
+    void complete() {
+        if (capacity != size) {
+            capacity = size;
+            for (Column column : columns) {
+                column.resize(size);
+            }
+        }
+    }
+
+    /**
+     * @return 行数
+     */
+    public int size() {
+        return size;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * @param columnName 列名，不区分大小写
+     * @return 列值的存放类型，long.class、double.class、String.class或Object.class
+     */
+    public Class<?> getColumnType(String columnName) {
+        return getColumn(columnName).getType();
+    }
+
+    /**
+     * @param columnName 列名，不区分大小写
+     * @param row        行号，从0开始
+     * @return 该行的列值是否为NULL
+     */
+    public boolean isNull(String columnName, int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of range [0, " + size + ")");
+        }
+        return getColumn(columnName).isNull(row);
+    }
+
+    /**
+     * @param columnName 整数列的列名
+     * @return 全部行的列值，NULL对应的元素为0，需要通过isNull区分
+     */
+    public long[] getLongs(String columnName) {
+        return getColumn(columnName, LongColumn.class).values;
+    }
+
+    /**
+     * @param columnName 浮点列的列名
+     * @return 全部行的列值，NULL对应的元素为0，需要通过isNull区分
+     */
+    public double[] getDoubles(String columnName) {
+        return getColumn(columnName, DoubleColumn.class).values;
+    }
+
+    public String[] getStrings(String columnName) {
+        return getColumn(columnName, StringColumn.class).values;
+    }
+
+    public Object[] getObjects(String columnName) {
+        return getColumn(columnName, ObjectColumn.class).values;
+    }
+
+    private Column getColumn(String columnName) {
+        Integer index = columnName == null ? null : columnIndexMap.get(columnName.toUpperCase(Locale.ENGLISH));
+        if (index == null) {
+            throw new ExecutorException("Column '" + columnName + "' not found in columnar result. Available columns are " + columnNames);
+        }
+        return columns[index];
+    }
+
+    private <C extends Column> C getColumn(String columnName, Class<C> columnType) {
+        Column column = getColumn(columnName);
+        if (!columnType.isInstance(column)) {
+            throw new ExecutorException("Column '" + columnName + "' is stored as " + column.getType().getSimpleName() + "[] in columnar result.");
+        }
+        return columnType.cast(column);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{columns=" + columnNames + ", size=" + size + "}";
+    }
+
+    private abstract static class Column implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        abstract Class<?> getType();
+
+        abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+        abstract void resize(int capacity);
+
+        abstract boolean isNull(int row);
+    }
+
+    private static final class LongColumn extends Column {
+        private static final long serialVersionUID = 1L;
+        private final transient LongResultReader reader;
+        private long[] values = new long[0];
+        private final BitSet nulls = new BitSet();
+
+        private LongColumn(LongResultReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        Class<?> getType() {
+            return long.class;
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            long value = reader.getLong(rs, columnIndex);
+            if (value == 0 && rs.wasNull()) {
+                nulls.set(row);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return nulls.get(row);
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private static final long serialVersionUID = 1L;
+        private final transient DoubleResultReader reader;
+        private double[] values = new double[0];
+        private final BitSet nulls = new BitSet();
+
+        private DoubleColumn(DoubleResultReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        Class<?> getType() {
+            return double.class;
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            double value = reader.getDouble(rs, columnIndex);
+            if (value == 0 && rs.wasNull()) {
+                nulls.set(row);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return nulls.get(row);
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        private static final long serialVersionUID = 1L;
+        private final transient TypeHandler<?> typeHandler;
+        // 按列名读取时的列名，按列下标读取时为null
+        private final transient String columnName;
+        private String[] values = new String[0];
+
+        private StringColumn(TypeHandler<?> typeHandler, String columnName, boolean readByIndex) {
+            this.typeHandler = typeHandler;
+            this.columnName = readByIndex ? null : columnName;
+        }
+
+        @Override
+        Class<?> getType() {
+            return String.class;
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            Object value = columnName == null ? typeHandler.getResult(rs, columnIndex) : typeHandler.getResult(rs, columnName);
+            values[row] = value == null ? null : value.toString();
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return values[row] == null;
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        private static final long serialVersionUID = 1L;
+        private final transient TypeHandler<?> typeHandler;
+        private final transient String columnName;
+        private Object[] values = new Object[0];
+
+        private ObjectColumn(TypeHandler<?> typeHandler, String columnName, boolean readByIndex) {
+            this.typeHandler = typeHandler;
+            this.columnName = readByIndex ? null : columnName;
+        }
+
+        @Override
+        Class<?> getType() {
+            return Object.class;
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            values[row] = columnName == null ? typeHandler.getResult(rs, columnIndex) : typeHandler.getResult(rs, columnName);
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return values[row] == null;
+        }
+    }
+
+}
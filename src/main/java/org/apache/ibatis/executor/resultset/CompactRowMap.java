@@ -0,0 +1,311 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * resultType为map时使用的紧凑Map，同一结果集的所有行共享一份不可变的键布局，
+ * 每行只保存按列位置排列的值数组，不再为每个键值对创建HashMap.Node，也不会扩容。
+ * 布局之外的键存放在按需创建的HashMap中，因此仍是一个完整可修改的Map，迭代顺序为列的顺序。
+ * 序列化时替换为LinkedHashMap
+ */
+public final class CompactRowMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 未设置的位置，与值为null区分
+    private static final Object ABSENT = new Object();
+
+    private final transient Layout layout;
+    private final transient Object[] values;
+    private transient int slotCount;
+    // 布局之外的键值对
+    private transient Map<String, Object> overflow;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    CompactRowMap(Layout layout) {
+        this.layout = layout;
+        this.values = new Object[layout.keys.length];
+        Arrays.fill(values, ABSENT);
+    }
+
+    Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * 按布局中的位置赋值，自动映射时使用
+     */
+    void set(int slot, Object value) {
+        if (values[slot] == ABSENT) {
+            slotCount++;
+        }
+        values[slot] = value;
+    }
+
+    @Override
+    public int size() {
+        return slotCount + (overflow == null ? 0 : overflow.size());
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        final int slot = layout.indexOf(key);
+        if (slot >= 0) {
+            return values[slot] != ABSENT;
+        }
+        return overflow != null && overflow.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        final int slot = layout.indexOf(key);
+        if (slot >= 0) {
+            final Object value = values[slot];
+            return value == ABSENT ? null : value;
+        }
+        return overflow == null ? null : overflow.get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        final int slot = layout.indexOf(key);
+        if (slot >= 0) {
+            final Object previous = values[slot];
+            set(slot, value);
+            return previous == ABSENT ? null : previous;
+        }
+        if (overflow == null) {
+            overflow = new HashMap<>();
+        }
+        return overflow.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        final int slot = layout.indexOf(key);
+        if (slot >= 0) {
+            return removeSlot(slot);
+        }
+        return overflow == null ? null : overflow.remove(key);
+    }
+
+    private Object removeSlot(int slot) {
+        final Object previous = values[slot];
+        if (previous == ABSENT) {
+            return null;
+        }
+        values[slot] = ABSENT;
+        slotCount--;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+        slotCount = 0;
+        overflow = null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return CompactRowMap.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    CompactRowMap.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private Object writeReplace() {
+        return new LinkedHashMap<>(this);
+    }
+
+    // 先按位置遍历布局中已设置的键，再遍历布局之外的键
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int next = advance(0);
+        private int last = -1;
+        private Iterator<Entry<String, Object>> overflowIterator;
+
+        private int advance(int from) {
+            int slot = from;
+            while (slot < values.length && values[slot] == ABSENT) {
+                slot++;
+            }
+            return slot;
+        }
+
+        private Iterator<Entry<String, Object>> overflowIterator() {
+            if (overflowIterator == null && overflow != null) {
+                overflowIterator = overflow.entrySet().iterator();
+            }
+            return overflowIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) {
+                return true;
+            }
+            final Iterator<Entry<String, Object>> iterator = overflowIterator();
+            return iterator != null && iterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next < values.length) {
+                last = next;
+                next = advance(next + 1);
+                return new SlotEntry(last);
+            }
+            final Iterator<Entry<String, Object>> iterator = overflowIterator();
+            if (iterator == null) {
+                throw new NoSuchElementException();
+            }
+            last = values.length;
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (last < values.length) {
+                removeSlot(last);
+            } else {
+                overflowIterator.remove();
+            }
+            last = -1;
+        }
+    }
+
+    private final class SlotEntry implements Entry<String, Object> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return layout.keys[slot];
+        }
+
+        @Override
+        public Object getValue() {
+            final Object value = values[slot];
+            return value == ABSENT ? null : value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            final Object previous = getValue();
+            set(slot, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            final Entry<?, ?> e = (Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && (getValue() == null ? e.getValue() == null : getValue().equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * 同一结果集、同一resultMap的所有行共享的键布局
+     */
+    static final class Layout {
+        private final String[] keys;
+        private final Map<String, Integer> indexes;
+        // 自动映射规则到位置的对应关系，规则列表与位置数组一起发布
+        private volatile AutoMappingSlots autoMappingSlots;
+
+        Layout(Collection<String> keys) {
+            this.keys = keys.toArray(new String[0]);
+            this.indexes = new HashMap<>();
+            for (int i = 0; i < this.keys.length; i++) {
+                indexes.put(this.keys[i], i);
+            }
+        }
+
+        int indexOf(Object key) {
+            final Integer index = indexes.get(key);
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * @param autoMappings 自动映射规则列表
+         * @return 之前为同一个规则列表记录的位置，没有时返回null
+         */
+        int[] getAutoMappingSlots(List<?> autoMappings) {
+            final AutoMappingSlots cached = autoMappingSlots;
+            return cached != null && cached.autoMappings == autoMappings ? cached.slots : null;
+        }
+
+        void setAutoMappingSlots(List<?> autoMappings, int[] slots) {
+            this.autoMappingSlots = new AutoMappingSlots(autoMappings, slots);
+        }
+    }
+
+    private static final class AutoMappingSlots {
+        private final List<?> autoMappings;
+        private final int[] slots;
+
+        AutoMappingSlots(List<?> autoMappings, int[] slots) {
+            this.autoMappings = autoMappings;
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,459 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.AmbiguousMethodInvoker;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+import org.apache.ibatis.type.DoubleResultReader;
+import org.apache.ibatis.type.IntResultReader;
+import org.apache.ibatis.type.LongResultReader;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeReference;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译后的行映射器，对应一个ResultMap在一种列布局下的全部简单属性映射（自动映射和显式映射）。
+ * 列下标、TypeHandler和setter的MethodHandle在创建时一次性解析，之后每一行只需按下标取值并直接调用setter，
+ * 不再经过MetaObject、PropertyTokenizer和反射。
+ * int、long、double属性在TypeHandler实现了对应的ResultReader时按基本类型读取和写入，整个过程不装箱；
+ * 并行映射时列值先经{@link #read(ResultSet)}放入行缓冲区，这时基本类型的值会装箱。
+ * 开启directFieldMapping时，与属性同名同类型的非final字段直接通过字段的MethodHandle写入，不调用setter。
+ * 随结果集元数据按ResultMap缓存，并由Configuration按ResultMap和列布局缓存，可以在线程间共享
+ */
+public final class CompiledRowMapper {
+
+    // 结果对象的类型
+    private final Class<?> type;
+    private final ColumnMapping[] columnMappings;
+    private final boolean callSettersOnNulls;
+
+    private CompiledRowMapper(Class<?> type, List<ColumnMapping> columnMappings, boolean callSettersOnNulls) {
+        this.type = type;
+        this.columnMappings = columnMappings.toArray(new ColumnMapping[0]);
+        this.callSettersOnNulls = callSettersOnNulls;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 把当前行映射到结果对象上，与applyAutomaticMappings、applyPropertyMappings的语义一致
+     *
+     * @param rs       结果集，已定位到当前行
+     * @param rowValue 结果对象
+     * @return 是否读到了非null的值
+     */
+    public boolean map(ResultSet rs, Object rowValue) throws SQLException {
+        boolean foundValues = false;
+        for (ColumnMapping mapping : columnMappings) {
+            if (mapping.map(rs, rowValue, callSettersOnNulls)) {
+                foundValues = true;
+            }
+        }
+        return foundValues;
+    }
+
+    /**
+     * 只读取当前行的列值，不写入结果对象，用于读取和写入不在同一线程进行的场景
+     *
+     * @param rs 结果集，已定位到当前行
+     * @return 行缓冲区，按映射顺序保存经过TypeHandler转换的列值
+     */
+    public Object[] read(ResultSet rs) throws SQLException {
+        final Object[] row = new Object[columnMappings.length];
+        for (int i = 0; i < columnMappings.length; i++) {
+            row[i] = columnMappings[i].read(rs);
+        }
+        return row;
+    }
+
+    /**
+     * 把{@link #read(ResultSet)}读出的行缓冲区写入结果对象，不访问ResultSet，可以在任意线程调用
+     *
+     * @param row      行缓冲区
+     * @param rowValue 结果对象
+     * @return 是否有非null的值
+     */
+    public boolean apply(Object[] row, Object rowValue) {
+        boolean foundValues = false;
+        for (int i = 0; i < columnMappings.length; i++) {
+            if (columnMappings[i].apply(row[i], rowValue, callSettersOnNulls)) {
+                foundValues = true;
+            }
+        }
+        return foundValues;
+    }
+
+    private static class ColumnMapping {
+        protected final int columnIndex;
+        // 自定义TypeHandler按列名读取，内置TypeHandler为null
+        private final String column;
+        protected final String property;
+        private final TypeHandler<?> typeHandler;
+        private final boolean primitive;
+        // 类型为(Object, Object)void的setter，无法生成或列值可能需要拓宽转换时为null，由invoker反射调用
+        private final MethodHandle setter;
+        private final Invoker invoker;
+
+        private ColumnMapping(int columnIndex, String column, String property, TypeHandler<?> typeHandler, boolean primitive, MethodHandle setter, Invoker invoker) {
+            this.columnIndex = columnIndex;
+            this.column = column;
+            this.property = property;
+            this.typeHandler = typeHandler;
+            this.primitive = primitive;
+            this.setter = setter;
+            this.invoker = invoker;
+        }
+
+        /**
+         * 读取当前行的列值并写入结果对象
+         *
+         * @return 是否读到了非null的值
+         */
+        boolean map(ResultSet rs, Object target, boolean callSettersOnNulls) throws SQLException {
+            return apply(read(rs), target, callSettersOnNulls);
+        }
+
+        Object read(ResultSet rs) throws SQLException {
+            return column == null ? typeHandler.getResult(rs, columnIndex) : typeHandler.getResult(rs, column);
+        }
+
+        boolean apply(Object value, Object target, boolean callSettersOnNulls) {
+            if (value != null || (callSettersOnNulls && !primitive)) {
+                // gcode issue #377, call setter on nulls (value is not 'found')
+                set(target, value);
+            }
+            return value != null;
+        }
+
+        @UsesJava7
+        private void set(Object target, Object value) {
+            try {
+                if (setter != null) {
+                    setter.invokeExact(target, value);
+                } else {
+                    try {
+                        invoker.invoke(target, new Object[]{value});
+                    } catch (Throwable t) {
+                        throw ExceptionUtil.unwrapThrowable(t);
+                    }
+                }
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+        }
+
+        protected ReflectionException setFailed(Object target, Object value, Throwable t) {
+            return new ReflectionException("Could not set property '" + property + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+        }
+    }
+
+    // 以下三种映射用于int、long、double属性，列值不装箱，直接传给类型为(Object, 基本类型)void的setter。
+    // 基本类型属性不接受null，列值为NULL时与ColumnMapping一样跳过
+
+    private static final class IntColumnMapping extends ColumnMapping {
+        private final IntResultReader reader;
+        private final MethodHandle intSetter;
+
+        private IntColumnMapping(int columnIndex, String property, TypeHandler<?> typeHandler, MethodHandle intSetter, Invoker invoker) {
+            super(columnIndex, null, property, typeHandler, true, null, invoker);
+            this.reader = (IntResultReader) typeHandler;
+            this.intSetter = intSetter;
+        }
+
+        @Override
+        @UsesJava7
+        boolean map(ResultSet rs, Object target, boolean callSettersOnNulls) throws SQLException {
+            final int value = reader.getInt(rs, columnIndex);
+            if (value == 0 && rs.wasNull()) {
+                return false;
+            }
+            try {
+                intSetter.invokeExact(target, value);
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+            return true;
+        }
+
+        @Override
+        @UsesJava7
+        boolean apply(Object value, Object target, boolean callSettersOnNulls) {
+            if (value == null) {
+                return false;
+            }
+            final int primitiveValue = ((Integer) value).intValue();
+            try {
+                intSetter.invokeExact(target, primitiveValue);
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+            return true;
+        }
+    }
+
+    private static final class LongColumnMapping extends ColumnMapping {
+        private final LongResultReader reader;
+        private final MethodHandle longSetter;
+
+        private LongColumnMapping(int columnIndex, String property, TypeHandler<?> typeHandler, MethodHandle longSetter, Invoker invoker) {
+            super(columnIndex, null, property, typeHandler, true, null, invoker);
+            this.reader = (LongResultReader) typeHandler;
+            this.longSetter = longSetter;
+        }
+
+        @Override
+        @UsesJava7
+        boolean map(ResultSet rs, Object target, boolean callSettersOnNulls) throws SQLException {
+            final long value = reader.getLong(rs, columnIndex);
+            if (value == 0 && rs.wasNull()) {
+                return false;
+            }
+            try {
+                longSetter.invokeExact(target, value);
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+            return true;
+        }
+
+        @Override
+        @UsesJava7
+        boolean apply(Object value, Object target, boolean callSettersOnNulls) {
+            if (value == null) {
+                return false;
+            }
+            final long primitiveValue = ((Long) value).longValue();
+            try {
+                longSetter.invokeExact(target, primitiveValue);
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+            return true;
+        }
+    }
+
+    private static final class DoubleColumnMapping extends ColumnMapping {
+        private final DoubleResultReader reader;
+        private final MethodHandle doubleSetter;
+
+        private DoubleColumnMapping(int columnIndex, String property, TypeHandler<?> typeHandler, MethodHandle doubleSetter, Invoker invoker) {
+            super(columnIndex, null, property, typeHandler, true, null, invoker);
+            this.reader = (DoubleResultReader) typeHandler;
+            this.doubleSetter = doubleSetter;
+        }
+
+        @Override
+        @UsesJava7
+        boolean map(ResultSet rs, Object target, boolean callSettersOnNulls) throws SQLException {
+            final double value = reader.getDouble(rs, columnIndex);
+            if (value == 0 && rs.wasNull()) {
+                return false;
+            }
+            try {
+                doubleSetter.invokeExact(target, value);
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+            return true;
+        }
+
+        @Override
+        @UsesJava7
+        boolean apply(Object value, Object target, boolean callSettersOnNulls) {
+            if (value == null) {
+                return false;
+            }
+            final double primitiveValue = ((Double) value).doubleValue();
+            try {
+                doubleSetter.invokeExact(target, primitiveValue);
+            } catch (Throwable t) {
+                throw setFailed(target, value, t);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 收集列与属性的映射关系，生成CompiledRowMapper
+     */
+    public static class Builder {
+
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+        private static final MethodType INT_SETTER_TYPE = MethodType.methodType(void.class, Object.class, int.class);
+        private static final MethodType LONG_SETTER_TYPE = MethodType.methodType(void.class, Object.class, long.class);
+        private static final MethodType DOUBLE_SETTER_TYPE = MethodType.methodType(void.class, Object.class, double.class);
+
+        private final Reflector reflector;
+        private final List<String> columnNames;
+        private final boolean callSettersOnNulls;
+        // 是否直接写字段而不调用setter
+        private final boolean directFieldMapping;
+        // 是否对声明了IndexedResultReader的TypeHandler按列下标读取
+        private final boolean columnIndexReadEnabled;
+        private final List<ColumnMapping> columnMappings = new ArrayList<>();
+        // 存在无法编译的映射时为false
+        private boolean compilable = true;
+
+        public Builder(Reflector reflector, List<String> columnNames, boolean callSettersOnNulls) {
+            this(reflector, columnNames, callSettersOnNulls, false);
+        }
+
+        public Builder(Reflector reflector, List<String> columnNames, boolean callSettersOnNulls, boolean directFieldMapping) {
+            this(reflector, columnNames, callSettersOnNulls, directFieldMapping, false);
+        }
+
+        public Builder(Reflector reflector, List<String> columnNames, boolean callSettersOnNulls, boolean directFieldMapping,
+                       boolean columnIndexReadEnabled) {
+            this.reflector = reflector;
+            this.columnNames = columnNames;
+            this.callSettersOnNulls = callSettersOnNulls;
+            this.directFieldMapping = directFieldMapping;
+            this.columnIndexReadEnabled = columnIndexReadEnabled;
+        }
+
+        /**
+         * 添加一个列到属性的映射，嵌套属性或没有setter的属性会使整个映射器无法编译
+         *
+         * @param column      列名
+         * @param property    属性名
+         * @param typeHandler 读取列值的TypeHandler
+         * @return 当前Builder
+         */
+        public Builder add(String column, String property, TypeHandler<?> typeHandler) {
+            int columnIndex = indexOf(column);
+            if (columnIndex < 0 || property.indexOf('.') >= 0 || property.indexOf('[') >= 0 || !reflector.hasSetter(property)) {
+                compilable = false;
+                return this;
+            }
+            Class<?> setterType = reflector.getSetterType(property);
+            Invoker invoker = directFieldMapping ? fieldInvoker(property, setterType) : null;
+            if (invoker == null) {
+                invoker = reflector.getSetInvoker(property);
+            }
+            boolean readsByIndex = columnIndexReadEnabled && ResultSetWrapper.isIndexedResultReader(typeHandler);
+            ColumnMapping mapping = readsByIndex ? primitiveMapping(columnIndex, property, setterType, typeHandler, invoker) : null;
+            if (mapping == null) {
+                String columnName = readsByIndex ? null : column;
+                MethodHandle setter = acceptsResult(setterType, typeHandler) ? unreflect(invoker, SETTER_TYPE) : null;
+                mapping = new ColumnMapping(columnIndex, columnName, property, typeHandler, setterType.isPrimitive(), setter, invoker);
+            }
+            columnMappings.add(mapping);
+            return this;
+        }
+
+        // 属性是int、long、double且TypeHandler能按基本类型读取时生成不装箱的映射，否则返回null
+        private static ColumnMapping primitiveMapping(int columnIndex, String property, Class<?> setterType, TypeHandler<?> typeHandler, Invoker invoker) {
+            if (setterType == int.class && typeHandler instanceof IntResultReader) {
+                MethodHandle setter = unreflect(invoker, INT_SETTER_TYPE);
+                return setter == null ? null : new IntColumnMapping(columnIndex, property, typeHandler, setter, invoker);
+            } else if (setterType == long.class && typeHandler instanceof LongResultReader) {
+                MethodHandle setter = unreflect(invoker, LONG_SETTER_TYPE);
+                return setter == null ? null : new LongColumnMapping(columnIndex, property, typeHandler, setter, invoker);
+            } else if (setterType == double.class && typeHandler instanceof DoubleResultReader) {
+                MethodHandle setter = unreflect(invoker, DOUBLE_SETTER_TYPE);
+                return setter == null ? null : new DoubleColumnMapping(columnIndex, property, typeHandler, setter, invoker);
+            }
+            return null;
+        }
+
+        /**
+         * MethodHandle只做引用转换和拆箱，不做拓宽转换（如Integer写入long属性），这类情况只能通过反射调用。
+         * TypeHandler声明的Java类型可以直接赋给属性时才使用MethodHandle，无法确定Java类型时同样使用反射
+         */
+        private static boolean acceptsResult(Class<?> setterType, TypeHandler<?> typeHandler) {
+            if (!(typeHandler instanceof TypeReference)) {
+                return false;
+            }
+            Type resultType = ((TypeReference<?>) typeHandler).getRawType();
+            return resultType instanceof Class
+                    && MethodType.methodType(setterType).wrap().returnType().isAssignableFrom((Class<?>) resultType);
+        }
+
+        // 与属性同名、同类型的非static非final字段，子类的字段优先；找不到时返回null，仍调用setter
+        private SetFieldInvoker fieldInvoker(String property, Class<?> setterType) {
+            for (Class<?> type = reflector.getType(); type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (field.getName().equals(property)) {
+                        final int modifiers = field.getModifiers();
+                        return Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.getType() != setterType
+                                ? null : new SetFieldInvoker(field);
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return 编译后的行映射器，存在无法编译的映射时返回null
+         */
+        public CompiledRowMapper build() {
+            return compilable ? new CompiledRowMapper(reflector.getType(), columnMappings, callSettersOnNulls) : null;
+        }
+
+        // 与ResultSet.findColumn一致，取第一个名称匹配的列，下标从1开始
+        private int indexOf(String column) {
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (columnNames.get(i).equalsIgnoreCase(column)) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private static MethodHandle unreflect(Invoker invoker, MethodType type) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                // AmbiguousMethodInvoker调用时需要抛出异常，不能绕过；绑定后的Invoker同样从Method或Field生成
+                if (invoker instanceof MethodInvoker && !(invoker instanceof AmbiguousMethodInvoker)) {
+                    Method method = ((MethodInvoker) invoker).getMethod();
+                    if (Reflector.canControlMemberAccessible()) {
+                        method.setAccessible(true);
+                    }
+                    return lookup.unreflect(method).asType(type);
+                } else if (invoker instanceof SetFieldInvoker) {
+                    Field field = ((SetFieldInvoker) invoker).getField();
+                    if (Reflector.canControlMemberAccessible()) {
+                        field.setAccessible(true);
+                    }
+                    return lookup.unreflectSetter(field).asType(type);
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                // 无法访问时退回到反射调用
+            }
+            return null;
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
@@ -32,8 +33,13 @@ import org.apache.ibatis.executor.result.ResultMapException;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
+import org.apache.ibatis.reflection.wrapper.MapWrapper;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.session.*;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -69,36 +75,104 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     private final ReflectorFactory reflectorFactory;
 
     // nested resultmaps
-    private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+    // 按行键去重的嵌套结果对象，resultOrdered时在父对象完成后立即清空
+    private final Map<RowKey, Object> nestedResultObjects = new HashMap<>();
     private final Map<String, Object> ancestorObjects = new HashMap<>();
     private Object previousRowValue;
+    // 每个集合属性最近一次创建的集合，它的大小作为下一个集合的容量提示
+    private final Map<ResultMapping, Collection<?>> lastNestedCollections = new IdentityHashMap<>();
 
     // multiple resultsets
     private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
     private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
-    // Cached Automappings
-    private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+    // 当前结果集在语句的全部结果集中的序号，与语句id一起作为共享元数据的key
+    private int resultSetIndex;
+
+    // compiled row mappers
+    // 当前结果集上已解析的行映射器，结构为Map<ResultMap的id:列前缀, 行映射器>，值为null表示该ResultMap无法编译
+    private final Map<String, CompiledRowMapper> compiledRowMappers = new HashMap<>();
+    private ResultSetWrapper compiledRowMappersRsw;
+    // 本次处理中用到的鉴别器分派表，key依次为列前缀和ResultMap
+    private final Map<String, Map<ResultMap, DiscriminatorDispatcher>> discriminatorDispatchers = new HashMap<>();
+
+    // batched nested selects
+    // 只有结果会被聚合成列表返回时才开启批量加载，自定义ResultHandler和Cursor会在对象填充完成前拿到对象
+    private boolean batchNestedQueries;
+    private final Map<ResultMapping, PendingBatchLoad> pendingBatchLoads = new IdentityHashMap<>();
+
+    // resolved constructors
+    // 最近一次创建结果对象时对ResultMap的决策，同一结果集中连续映射同一ResultMap的行直接复用
+    private ResultObjectPlan resultObjectPlan;
 
     // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
     private boolean useConstructorMappings;
 
+    /**
+     * 一个ResultMap在某个结果集上创建结果对象的方式，只在ResultMap或结果集变化时重新计算，不随行变化
+     */
+    private static final class ResultObjectPlan {
+        private final ResultMap resultMap;
+        private final ResultSetWrapper rsw;
+        // 结果对象是否直接由TypeHandler读取
+        private final boolean hasTypeHandler;
+        // 解析好的构造器，为null时交给ObjectFactory创建
+        private final ResultObjectConstructor constructor;
+        // 在行之间复用的构造器参数数组，使用期间为null
+        private Object[] constructorArgs;
+
+        private ResultObjectPlan(ResultMap resultMap, ResultSetWrapper rsw, boolean hasTypeHandler, ResultObjectConstructor constructor) {
+            this.resultMap = resultMap;
+            this.rsw = rsw;
+            this.hasTypeHandler = hasTypeHandler;
+            this.constructor = constructor;
+        }
+    }
+
     private static class PendingRelation {
         public MetaObject metaObject;
         public ResultMapping propertyMapping;
     }
 
-    private static class UnMappedColumnAutoMapping {
+    /**
+     * 记录某个批量嵌套查询映射收集到的所有父对象及其关联键
+     */
+    private static class PendingBatchLoad {
+        private final ResultMapping propertyMapping;
+        // 去重后的关联键，结构为Map<关联键的字符串形式, 关联键>
+        private final Map<String, Object> keys = new LinkedHashMap<>();
+        // 等待填充的父对象，结构为Map<关联键的字符串形式, List<父对象的MetaObject>>
+        private final Map<String, List<MetaObject>> parents = new HashMap<>();
+
+        PendingBatchLoad(ResultMapping propertyMapping) {
+            this.propertyMapping = propertyMapping;
+        }
+    }
+
+    // 自动映射规则记录在ResultSetWrapper的元数据上，可能在同一语句的多次执行间共享
+    static class UnMappedColumnAutoMapping {
         private final String column;
+        private final int columnIndex;
         private final String property;
         private final TypeHandler<?> typeHandler;
         private final boolean primitive;
+        // 创建规则时结果对象的类型及属性在其Reflector中的下标，类型一致时按下标直接赋值
+        private final Class<?> beanType;
+        private final int propertyIndex;
 
-        public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+        public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
+            this(column, columnIndex, property, typeHandler, primitive, null, -1);
+        }
+
+        public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive,
+                                         Class<?> beanType, int propertyIndex) {
             this.column = column;
+            this.columnIndex = columnIndex;
             this.property = property;
             this.typeHandler = typeHandler;
             this.primitive = primitive;
+            this.beanType = beanType;
+            this.propertyIndex = propertyIndex;
         }
     }
 
@@ -168,6 +242,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
         // 用于记录每个ResultSet映射出来的Java对象
         final List<Object> multipleResults = new ArrayList<>();
+        // 结果会被聚合成列表时，才能把嵌套查询推迟到所有结果集处理完之后批量执行
+        batchNestedQueries = resultHandler == null;
 
         // 可能存在多结果集，此变量用于结果集计数
         int resultSetCount = 0;
@@ -212,6 +288,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                 resultSetCount++;
             }
         }
+        // 批量执行收集到的嵌套查询，并将结果分配给各个父对象
+        loadPendingBatches();
 
         return collapseSingleResultList(multipleResults);
     }
@@ -248,7 +326,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                 }
             }
         }
-        return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+        resultSetIndex = 0;
+        return rs != null ? wrapResultSet(rs) : null;
     }
 
     private ResultSetWrapper getNextResultSet(Statement stmt) {
@@ -261,7 +340,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                     if (rs == null) {
                         return getNextResultSet(stmt);
                     } else {
-                        return new ResultSetWrapper(rs, configuration);
+                        resultSetIndex++;
+                        return wrapResultSet(rs);
                     }
                 }
             }
@@ -271,6 +351,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         return null;
     }
 
+    private ResultSetWrapper wrapResultSet(ResultSet rs) throws SQLException {
+        return new ResultSetWrapper(rs, configuration, mappedStatement.getId() + "#" + resultSetIndex);
+    }
+
     private void closeResultSet(ResultSet rs) {
         try {
             if (rs != null) {
@@ -283,6 +367,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
     private void cleanUpAfterHandlingResultSet() {
         nestedResultObjects.clear();
+        lastNestedCollections.clear();
     }
 
     private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -339,8 +424,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
      * @throws SQLException
      */
     public void handleRowValues(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
-        // 包含嵌套映射的处理流程
-        if (resultMap.hasNestedResultMaps()) {
+        // 结果类型为ColumnarResult时，整个结果集映射为一个按列存放的对象
+        if (resultMap.getType() == ColumnarResult.class) {
+            handleRowValuesForColumnarResult(rsw, resultMap, resultHandler, rowBounds, parentMapping);
+        } else if (resultMap.hasNestedResultMaps()) { // 包含嵌套映射的处理流程
             // 前置校验
             ensureNoRowBounds();
             checkResultHandler();
@@ -378,6 +465,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
      */
     private void handleRowValuesForSimpleResultMap(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping)
             throws SQLException {
+        if (parentMapping == null && configuration.isParallelRowMappingEnabled()) {
+            final ParallelRowMapper parallelRowMapper = getParallelRowMapper(rsw, resultMap);
+            if (parallelRowMapper != null) {
+                handleRowValuesInParallel(rsw, parallelRowMapper, resultHandler, rowBounds);
+                return;
+            }
+        }
         DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
         // 当前要处理的结果集
         ResultSet resultSet = rsw.getResultSet();
@@ -394,6 +488,87 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
     }
 
+    /**
+     * 并行映射，当前线程把一批行的列值读入行缓冲区后交给线程池映射，随即读取下一批，
+     * 上一批映射完成后按原顺序交给ResultHandler
+     */
+    private void handleRowValuesInParallel(ResultSetWrapper rsw, ParallelRowMapper parallelRowMapper, ResultHandler<?> resultHandler, RowBounds rowBounds)
+            throws SQLException {
+        final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+        final ResultSet resultSet = rsw.getResultSet();
+        final CompiledRowMapper rowMapper = parallelRowMapper.getRowMapper();
+        final int batchSize = Math.max(1, configuration.getParallelRowMappingBatchSize());
+        skipRows(resultSet, rowBounds);
+        int remaining = rowBounds.getLimit();
+        boolean hasMoreRows = true;
+        ParallelRowMapper.Batch pending = null;
+        while (true) {
+            ParallelRowMapper.Batch next = null;
+            if (hasMoreRows && remaining > 0 && !resultContext.isStopped()) {
+                final Object[][] rows = new Object[Math.min(batchSize, remaining)][];
+                int size = 0;
+                while (size < rows.length && !resultSet.isClosed() && resultSet.next()) {
+                    rows[size++] = rowMapper.read(resultSet);
+                }
+                remaining -= size;
+                hasMoreRows = size == rows.length;
+                if (size > 0) {
+                    next = parallelRowMapper.submit(rows, size);
+                }
+            }
+            if (pending != null) {
+                for (Object rowValue : pending.join()) {
+                    if (!shouldProcessMoreRows(resultContext, rowBounds)) {
+                        break;
+                    }
+                    storeObject(resultHandler, resultContext, rowValue, null, resultSet);
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            pending = next;
+        }
+    }
+
+    /**
+     * 只有由简单属性组成、没有鉴别器、通过默认构造方法创建结果对象的ResultMap才能并行映射
+     *
+     * @return 并行行映射器，不能并行映射时返回null
+     */
+    private ParallelRowMapper getParallelRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+        final Class<?> resultType = resultMap.getType();
+        if (resultMap.getDiscriminator() != null || hasTypeHandlerForResultObject(rsw, resultType)
+                || !resultMap.getConstructorResultMappings().isEmpty()
+                || !(resultType.isInterface() || reflectorFactory.findForClass(resultType).hasDefaultConstructor())) {
+            return null;
+        }
+        final CompiledRowMapper rowMapper = getCompiledRowMapper(rsw, resultMap, null, objectFactory.create(resultType));
+        return rowMapper == null ? null : new ParallelRowMapper(rowMapper, objectFactory, resultType,
+                configuration.isReturnInstanceForEmptyRow(), configuration.getRowMappingPool());
+    }
+
+    /**
+     * 按列映射，每列的值直接写入ColumnarResult中对应的数组，不创建行对象
+     */
+    private void handleRowValuesForColumnarResult(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping)
+            throws SQLException {
+        if (parentMapping != null || resultMap.hasNestedResultMaps() || resultMap.getDiscriminator() != null) {
+            throw new ExecutorException("Result type " + ColumnarResult.class.getSimpleName() + " of '" + resultMap.getId()
+                    + "' cannot be used with nested result maps, discriminators or multiple result sets.");
+        }
+        final ColumnarResult columnarResult = new ColumnarResult(rsw);
+        final ResultSet resultSet = rsw.getResultSet();
+        skipRows(resultSet, rowBounds);
+        int rows = 0;
+        while (rows < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+            columnarResult.addRow(resultSet);
+            rows++;
+        }
+        columnarResult.complete();
+        storeObject(resultHandler, new DefaultResultContext<>(), columnarResult, null, resultSet);
+    }
+
     /**
      * 记录映射完成的Java对象
      *
@@ -466,7 +641,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         final ResultLoaderMap lazyLoader = new ResultLoaderMap();
         // 根据ResultMap的type属性值创建映射的结果对象
         Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
-        if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
+        if (rowValue != null && !getResultObjectPlan(rsw, resultMap).hasTypeHandler) {
+            final CompiledRowMapper rowMapper = configuration.isCompiledRowMappingEnabled() || isDirectFieldMapping(resultMap)
+                    ? getCompiledRowMapper(rsw, resultMap, columnPrefix, rowValue) : null;
+            if (rowMapper != null) {
+                // 编译后的行映射器按列下标取值并直接调用setter
+                boolean foundValues = rowMapper.map(rsw.getResultSet(), rowValue) || this.useConstructorMappings;
+                return foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+            }
             // 根据对象得到其元对象
             final MetaObject metaObject = configuration.newMetaObject(rowValue);
             boolean foundValues = this.useConstructorMappings;
@@ -489,7 +671,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     // GET VALUE FROM ROW FOR NESTED RESULT MAP
     //
 
-    private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+    private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
         final String resultMapId = resultMap.getId();
         Object rowValue = partialObject;
         if (rowValue != null) {
@@ -500,7 +682,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         } else {
             final ResultLoaderMap lazyLoader = new ResultLoaderMap();
             rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
-            if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
+            if (rowValue != null && !getResultObjectPlan(rsw, resultMap).hasTypeHandler) {
                 final MetaObject metaObject = configuration.newMetaObject(rowValue);
                 boolean foundValues = this.useConstructorMappings;
                 if (shouldApplyAutomaticMappings(resultMap, true)) {
@@ -513,7 +695,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                 foundValues = lazyLoader.size() > 0 || foundValues;
                 rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
             }
-            if (combinedKey != CacheKey.NULL_CACHE_KEY) {
+            if (combinedKey != RowKey.NULL_ROW_KEY) {
                 nestedResultObjects.put(combinedKey, rowValue);
             }
         }
@@ -543,19 +725,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
     private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
             throws SQLException {
-        final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         boolean foundValues = false;
         final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-        for (ResultMapping propertyMapping : propertyMappings) {
-            String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+        // 列下标每个结果集只解析一次，0表示结果集中没有该列
+        final int[] columnIndexes = rsw.getColumnIndexes(propertyMappings, columnPrefix);
+        for (int i = 0; i < propertyMappings.size(); i++) {
+            final ResultMapping propertyMapping = propertyMappings.get(i);
+            int columnIndex = columnIndexes[i];
             if (propertyMapping.getNestedResultMapId() != null) {
                 // the user added a column attribute to a nested result map, ignore it
-                column = null;
+                columnIndex = 0;
             }
             if (propertyMapping.isCompositeResult()
-                    || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+                    || columnIndex > 0
                     || propertyMapping.getResultSet() != null) {
-                Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+                Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix, columnIndex);
                 // issue #541 make property optional
                 final String property = propertyMapping.getProperty();
                 if (property == null) {
@@ -569,15 +753,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                 }
                 if (value != null || (configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
                     // gcode issue #377, call setter on nulls (value is not 'found')
-                    metaObject.setValue(property, value);
+                    metaObject.setValue(propertyMapping.getPropertyPath(), value);
                 }
             }
         }
         return foundValues;
     }
 
-    private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-            throws SQLException {
+    private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix,
+                                           int columnIndex) throws SQLException {
         if (propertyMapping.getNestedQueryId() != null) {
             return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
         } else if (propertyMapping.getResultSet() != null) {
@@ -585,16 +769,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             return DEFERRED;
         } else {
             final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
-            final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-            return typeHandler.getResult(rs, column);
+            return getColumnValue(rs, typeHandler, columnIndex, prependPrefix(propertyMapping.getColumn(), columnPrefix));
         }
     }
 
     private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
         final String mapKey = resultMap.getId() + ":" + columnPrefix;
-        List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+        List<UnMappedColumnAutoMapping> autoMapping = rsw.getAutoMappings(mapKey);
         if (autoMapping == null) {
             autoMapping = new ArrayList<>();
+            final BeanWrapper beanWrapper = getBeanWrapper(metaObject);
             final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
             for (String columnName : unmappedColumnNames) {
                 String propertyName = columnName;
@@ -615,7 +799,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                     final Class<?> propertyType = metaObject.getSetterType(property);
                     if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
                         final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-                        autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+                        autoMapping.add(beanWrapper == null
+                                ? new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive())
+                                : new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive(),
+                                metaObject.getOriginalObject().getClass(), beanWrapper.propertyIndex(property)));
                     } else {
                         configuration.getAutoMappingUnknownColumnBehavior()
                                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -625,29 +812,127 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                             .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
                 }
             }
-            autoMappingsCache.put(mapKey, autoMapping);
+            rsw.putAutoMappings(mapKey, autoMapping);
         }
         return autoMapping;
     }
 
+    //
+    // COMPILED ROW MAPPERS
+    //
+
+    private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix, Object rowValue) throws SQLException {
+        if (rsw != compiledRowMappersRsw) {
+            compiledRowMappers.clear();
+            compiledRowMappersRsw = rsw;
+        }
+        final String mapKey = resultMap.getId() + ":" + columnPrefix;
+        CompiledRowMapper rowMapper = compiledRowMappers.get(mapKey);
+        if (rowMapper == null && !compiledRowMappers.containsKey(mapKey)) {
+            rowMapper = isCompilable(resultMap, rowValue) ? compileRowMapper(rsw, resultMap, columnPrefix, rowValue) : null;
+            compiledRowMappers.put(mapKey, rowMapper);
+        }
+        return rowMapper;
+    }
+
+    // ResultMap的directFieldMapping属性优先于全局配置
+    private boolean isDirectFieldMapping(ResultMap resultMap) {
+        final Boolean directFieldMapping = resultMap.getDirectFieldMapping();
+        return directFieldMapping != null ? directFieldMapping : configuration.isDirectFieldMappingEnabled();
+    }
+
+    /**
+     * 只编译由简单属性组成的ResultMap，嵌套查询、嵌套结果映射、构造方法映射、多结果集以及Map等需要特殊包装的对象仍走MetaObject
+     */
+    private boolean isCompilable(ResultMap resultMap, Object rowValue) {
+        if (resultMap.hasNestedQueries() || resultMap.hasNestedResultMaps() || !resultMap.getConstructorResultMappings().isEmpty()
+                || rowValue instanceof Map || rowValue instanceof Collection || rowValue instanceof ObjectWrapper
+                || configuration.getObjectWrapperFactory().hasWrapperFor(rowValue)) {
+            return false;
+        }
+        for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+            if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix, Object rowValue) throws SQLException {
+        // 共享的结果集元数据已经对应一种列布局，只需再比较结果类型，不必拼接列布局
+        final String mapKey = resultMap.getId() + ":" + columnPrefix;
+        CompiledRowMapper rowMapper = rsw.getCompiledRowMapper(mapKey);
+        if (rowMapper != null && rowMapper.getType() == rowValue.getClass()) {
+            return rowMapper;
+        }
+        // 自动映射使用的TypeHandler取决于列的JDBC类型和Java类型，它们都是列布局的一部分
+        final String layoutKey = mapKey + ":" + rowValue.getClass().getName() + ":"
+                + rsw.getColumnNames() + rsw.getJdbcTypes() + rsw.getClassNames();
+        rowMapper = configuration.getCompiledRowMapper(layoutKey);
+        if (rowMapper == null) {
+            final CompiledRowMapper.Builder builder = new CompiledRowMapper.Builder(reflectorFactory.findForClass(rowValue.getClass()),
+                    rsw.getColumnNames(), configuration.isCallSettersOnNulls(), isDirectFieldMapping(resultMap), configuration.isColumnIndexReadEnabled());
+            if (shouldApplyAutomaticMappings(resultMap, false)) {
+                final MetaObject metaObject = configuration.newMetaObject(rowValue);
+                for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix)) {
+                    builder.add(mapping.column, mapping.property, mapping.typeHandler);
+                }
+            }
+            final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+            for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+                final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+                if (propertyMapping.getProperty() != null && column != null
+                        && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+                    builder.add(column, propertyMapping.getProperty(), propertyMapping.getTypeHandler());
+                }
+            }
+            rowMapper = builder.build();
+            if (rowMapper != null) {
+                configuration.addCompiledRowMapper(layoutKey, rowMapper);
+            }
+        }
+        if (rowMapper != null) {
+            rsw.putCompiledRowMapper(mapKey, rowMapper);
+        }
+        return rowMapper;
+    }
+
     private boolean applyAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
         List<UnMappedColumnAutoMapping> autoMapping = createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
         boolean foundValues = false;
         if (!autoMapping.isEmpty()) {
-            for (UnMappedColumnAutoMapping mapping : autoMapping) {
-                final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+            final BeanWrapper beanWrapper = getBeanWrapper(metaObject);
+            final Class<?> beanType = beanWrapper == null ? null : metaObject.getOriginalObject().getClass();
+            final CompactRowMap compactRow = metaObject.getOriginalObject() instanceof CompactRowMap
+                    && metaObject.getObjectWrapper().getClass() == MapWrapper.class ? (CompactRowMap) metaObject.getOriginalObject() : null;
+            final int[] slots = compactRow == null ? null : getAutoMappingSlots(compactRow.getLayout(), autoMapping);
+            for (int i = 0; i < autoMapping.size(); i++) {
+                final UnMappedColumnAutoMapping mapping = autoMapping.get(i);
+                final Object value = getColumnValue(rsw.getResultSet(), mapping.typeHandler, mapping.columnIndex, mapping.column);
                 if (value != null) {
                     foundValues = true;
                 }
                 if (value != null || (configuration.isCallSettersOnNulls() && !mapping.primitive)) {
                     // gcode issue #377, call setter on nulls (value is not 'found')
-                    metaObject.setValue(mapping.property, value);
+                    if (slots != null && slots[i] >= 0) {
+                        compactRow.set(slots[i], value);
+                    } else if (mapping.propertyIndex >= 0 && mapping.beanType == beanType) {
+                        beanWrapper.set(mapping.propertyIndex, value);
+                    } else {
+                        metaObject.setValue(mapping.property, value);
+                    }
                 }
             }
         }
         return foundValues;
     }
 
+    // 只有普通JavaBean才能按属性下标赋值，Map和自定义ObjectWrapper仍按属性名处理
+    private BeanWrapper getBeanWrapper(MetaObject metaObject) {
+        final ObjectWrapper objectWrapper = metaObject.getObjectWrapper();
+        return objectWrapper.getClass() == BeanWrapper.class ? (BeanWrapper) objectWrapper : null;
+    }
+
     // MULTIPLE RESULT SETS
     // 将结果对象绑定到父级结果上
 
@@ -705,34 +990,36 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
     private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
         this.useConstructorMappings = false; // reset previous mapping result
+        final ResultObjectPlan plan = getResultObjectPlan(rsw, resultMap);
+        if (plan.constructor != null) {
+            final Object resultObject = createUsingResultObjectConstructor(rsw, resultMap, plan, columnPrefix);
+            this.useConstructorMappings = resultObject != null; // set current mapping result
+            return resultObject;
+        }
         final List<Class<?>> constructorArgTypes = new ArrayList<>();
         final List<Object> constructorArgs = new ArrayList<>();
-        Object resultObject = createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
-        if (resultObject != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-            final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-            for (ResultMapping propertyMapping : propertyMappings) {
-                // issue gcode #109 && issue #149
-                if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
-                    resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
-                    break;
-                }
-            }
+        Object resultObject = createResultObject(rsw, resultMap, plan.hasTypeHandler, constructorArgTypes, constructorArgs, columnPrefix);
+        // issue gcode #109 && issue #149
+        if (resultObject != null && !plan.hasTypeHandler && hasLazyNestedQuery(resultMap)) {
+            resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
         }
         this.useConstructorMappings = resultObject != null && !constructorArgTypes.isEmpty(); // set current mapping result
         return resultObject;
     }
 
-    private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix)
+    private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, boolean hasTypeHandler, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix)
             throws SQLException {
 
         // 从resultMap中获取返回值类型
         final Class<?> resultType = resultMap.getType();
         final MetaClass metaType = MetaClass.forClass(resultType, reflectorFactory);
         final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
-        if (hasTypeHandlerForResultObject(rsw, resultType)) {
+        if (hasTypeHandler) {
             return createPrimitiveResultObject(rsw, resultMap, columnPrefix);
         } else if (!constructorMappings.isEmpty()) {
             return createParameterizedResultObject(rsw, resultType, constructorMappings, constructorArgTypes, constructorArgs, columnPrefix);
+        } else if (resultType == Map.class && configuration.isCompactMapResultsEnabled() && !hasLazyNestedQuery(resultMap)) {
+            return new CompactRowMap(getRowMapLayout(rsw, resultMap, columnPrefix));
         } else if (resultType.isInterface() || metaType.hasDefaultConstructor()) {
             return objectFactory.create(resultType);
         } else if (shouldApplyAutomaticMappings(resultMap, false)) {
@@ -741,33 +1028,190 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         throw new ExecutorException("Do not know how to create an instance of " + resultType);
     }
 
+    // 含延迟加载的嵌套查询时结果对象需要被代理。代理需要用参数类型和参数值列表重新创建对象，CompactRowMap也无法被代理
+    private boolean hasLazyNestedQuery(ResultMap resultMap) {
+        for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+            if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取紧凑Map结果的键布局。Map的自动映射直接以去掉前缀的列名作为键，因此布局由未映射的列名和显式映射的属性组成，
+     * 带.或[]的名称会创建嵌套对象，不放入布局
+     */
+    private CompactRowMap.Layout getRowMapLayout(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+        final String mapKey = resultMap.getId() + ":" + columnPrefix;
+        CompactRowMap.Layout layout = rsw.getRowMapLayout(mapKey);
+        if (layout == null) {
+            final Set<String> keys = new LinkedHashSet<>();
+            for (String columnName : rsw.getUnmappedColumnNames(resultMap, columnPrefix)) {
+                if (columnPrefix == null || columnPrefix.isEmpty()) {
+                    addRowMapKey(keys, columnName);
+                } else if (columnName.toUpperCase(Locale.ENGLISH).startsWith(columnPrefix)) {
+                    addRowMapKey(keys, columnName.substring(columnPrefix.length()));
+                }
+            }
+            for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+                if (propertyMapping.getProperty() != null) {
+                    addRowMapKey(keys, propertyMapping.getProperty());
+                }
+            }
+            layout = new CompactRowMap.Layout(keys);
+            rsw.putRowMapLayout(mapKey, layout);
+        }
+        return layout;
+    }
+
+    private void addRowMapKey(Set<String> keys, String name) {
+        if (name.indexOf('.') < 0 && name.indexOf('[') < 0) {
+            keys.add(name);
+        }
+    }
+
+    // 自动映射规则在布局中的位置，不在布局中的为-1
+    private int[] getAutoMappingSlots(CompactRowMap.Layout layout, List<UnMappedColumnAutoMapping> autoMapping) {
+        int[] slots = layout.getAutoMappingSlots(autoMapping);
+        if (slots == null) {
+            slots = new int[autoMapping.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = layout.indexOf(autoMapping.get(i).property);
+            }
+            layout.setAutoMappingSlots(autoMapping, slots);
+        }
+        return slots;
+    }
+
     Object createParameterizedResultObject(ResultSetWrapper rsw, Class<?> resultType, List<ResultMapping> constructorMappings,
                                            List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix) {
         boolean foundValues = false;
-        for (ResultMapping constructorMapping : constructorMappings) {
-            final Class<?> parameterType = constructorMapping.getJavaType();
-            final String column = constructorMapping.getColumn();
-            final Object value;
-            try {
-                if (constructorMapping.getNestedQueryId() != null) {
-                    value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
-                } else if (constructorMapping.getNestedResultMapId() != null) {
-                    final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
-                    value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
-                } else {
-                    final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-                    value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
-                }
-            } catch (ResultMapException | SQLException e) {
-                throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
-            }
-            constructorArgTypes.add(parameterType);
+        final int[] columnIndexes = rsw.getColumnIndexes(constructorMappings, columnPrefix);
+        for (int i = 0; i < constructorMappings.size(); i++) {
+            final ResultMapping constructorMapping = constructorMappings.get(i);
+            final Object value = getConstructorMappingValue(rsw, constructorMapping, columnIndexes[i], columnPrefix);
+            constructorArgTypes.add(constructorMapping.getJavaType());
             constructorArgs.add(value);
             foundValues = value != null || foundValues;
         }
         return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
     }
 
+    private Object getConstructorMappingValue(ResultSetWrapper rsw, ResultMapping constructorMapping, int columnIndex, String columnPrefix) {
+        try {
+            if (constructorMapping.getNestedQueryId() != null) {
+                return getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
+            } else if (constructorMapping.getNestedResultMapId() != null) {
+                final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
+                return getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
+            } else {
+                final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
+                return getColumnValue(rsw.getResultSet(), typeHandler, columnIndex, prependPrefix(constructorMapping.getColumn(), columnPrefix));
+            }
+        } catch (ResultMapException | SQLException e) {
+            throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
+        }
+    }
+
+    //
+    // RESOLVED CONSTRUCTORS
+    // 默认ObjectFactory下，构造器按ResultMap解析一次，每行只填充参数数组
+    //
+
+    /**
+     * 获取ResultMap在当前结果集上创建结果对象的方式。连续的行映射同一个ResultMap时只比较引用，
+     * 切换ResultMap或结果集时才重新判断是否存在TypeHandler并查找构造器
+     */
+    private ResultObjectPlan getResultObjectPlan(ResultSetWrapper rsw, ResultMap resultMap) {
+        ResultObjectPlan plan = resultObjectPlan;
+        if (plan == null || plan.resultMap != resultMap || plan.rsw != rsw) {
+            final boolean hasTypeHandler = hasTypeHandlerForResultObject(rsw, resultMap.getType());
+            plan = new ResultObjectPlan(resultMap, rsw, hasTypeHandler, hasTypeHandler ? null : getResultObjectConstructor(resultMap));
+            resultObjectPlan = plan;
+        }
+        return plan;
+    }
+
+    private ResultObjectConstructor getResultObjectConstructor(ResultMap resultMap) {
+        // 自定义ObjectFactory需要收到每一次create调用
+        if (objectFactory.getClass() != DefaultObjectFactory.class) {
+            return null;
+        }
+        if (resultMap.getConstructorResultMappings().isEmpty() && !shouldApplyAutomaticMappings(resultMap, false)) {
+            return null;
+        }
+        ResultObjectConstructor resultObjectConstructor = configuration.getResultObjectConstructor(resultMap.getId());
+        if (resultObjectConstructor == null) {
+            resultObjectConstructor = resolveResultObjectConstructor(resultMap);
+            configuration.addResultObjectConstructor(resultMap.getId(), resultObjectConstructor);
+        }
+        return resultObjectConstructor == ResultObjectConstructor.UNSUPPORTED ? null : resultObjectConstructor;
+    }
+
+    private ResultObjectConstructor resolveResultObjectConstructor(ResultMap resultMap) {
+        final Class<?> resultType = resultMap.getType();
+        if (resultType.isInterface()) {
+            return ResultObjectConstructor.UNSUPPORTED;
+        }
+        if (hasLazyNestedQuery(resultMap)) {
+            return ResultObjectConstructor.UNSUPPORTED;
+        }
+        try {
+            final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
+            if (!constructorMappings.isEmpty()) {
+                final Class<?>[] parameterTypes = new Class<?>[constructorMappings.size()];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = constructorMappings.get(i).getJavaType();
+                }
+                return ResultObjectConstructor.of(resultType.getDeclaredConstructor(parameterTypes));
+            }
+            // 有默认构造器时不按构造器映射，没有唯一或标注了@AutomapConstructor的构造器时需要按列类型匹配
+            if (MetaClass.forClass(resultType, reflectorFactory).hasDefaultConstructor()) {
+                return ResultObjectConstructor.UNSUPPORTED;
+            }
+            final Constructor<?> constructor = findDefaultConstructor(resultType.getDeclaredConstructors());
+            return constructor == null ? ResultObjectConstructor.UNSUPPORTED : ResultObjectConstructor.of(constructor);
+        } catch (Exception e) {
+            // 交给ObjectFactory处理，报告与之前一致的错误
+            return ResultObjectConstructor.UNSUPPORTED;
+        }
+    }
+
+    private Object createUsingResultObjectConstructor(ResultSetWrapper rsw, ResultMap resultMap, ResultObjectPlan plan, String columnPrefix)
+            throws SQLException {
+        final ResultObjectConstructor resultObjectConstructor = plan.constructor;
+        final Class<?>[] parameterTypes = resultObjectConstructor.getParameterTypes();
+        // 参数数组在行之间复用；构造器参数中嵌套了同一ResultMap时，内层会拿不到缓存的数组而新建一个
+        Object[] args = plan.constructorArgs;
+        plan.constructorArgs = null;
+        if (args == null) {
+            args = new Object[parameterTypes.length];
+        }
+        try {
+            boolean foundValues = false;
+            final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
+            if (!constructorMappings.isEmpty()) {
+                final int[] columnIndexes = rsw.getColumnIndexes(constructorMappings, columnPrefix);
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = getConstructorMappingValue(rsw, constructorMappings.get(i), columnIndexes[i], columnPrefix);
+                    foundValues = args[i] != null || foundValues;
+                }
+            } else {
+                for (int i = 0; i < args.length; i++) {
+                    final String columnName = rsw.getColumnNames().get(i);
+                    final TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterTypes[i], columnName);
+                    args[i] = getColumnValue(rsw.getResultSet(), typeHandler, i + 1, columnName);
+                    foundValues = args[i] != null || foundValues;
+                }
+            }
+            return foundValues ? resultObjectConstructor.newInstance(args) : null;
+        } finally {
+            Arrays.fill(args, null);
+            plan.constructorArgs = args;
+        }
+    }
+
     private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
         final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
         final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
@@ -789,7 +1233,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             Class<?> parameterType = constructor.getParameterTypes()[i];
             String columnName = rsw.getColumnNames().get(i);
             TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-            Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+            Object value = getColumnValue(rsw.getResultSet(), typeHandler, i + 1, columnName);
             constructorArgTypes.add(parameterType);
             constructorArgs.add(value);
             foundValues = value != null || foundValues;
@@ -826,15 +1270,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     private Object createPrimitiveResultObject(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
         final Class<?> resultType = resultMap.getType();
         final String columnName;
+        final int columnIndex;
         if (!resultMap.getResultMappings().isEmpty()) {
             final List<ResultMapping> resultMappingList = resultMap.getResultMappings();
             final ResultMapping mapping = resultMappingList.get(0);
             columnName = prependPrefix(mapping.getColumn(), columnPrefix);
+            columnIndex = rsw.getColumnIndexes(resultMappingList, columnPrefix)[0];
         } else {
             columnName = rsw.getColumnNames().get(0);
+            columnIndex = 1;
         }
         final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-        return typeHandler.getResult(rsw.getResultSet(), columnName);
+        return getColumnValue(rsw.getResultSet(), typeHandler, columnIndex, columnName);
     }
 
     //
@@ -861,6 +1308,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             throws SQLException {
         final String nestedQueryId = propertyMapping.getNestedQueryId();
         final String property = propertyMapping.getProperty();
+        if (batchNestedQueries && propertyMapping.isBatched()) {
+            return addPendingBatchLoad(rs, metaResultObject, propertyMapping, columnPrefix);
+        }
         final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
         final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
         final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
@@ -885,6 +1335,72 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         return value;
     }
 
+    //
+    // BATCHED NESTED QUERY
+    // 批量嵌套查询，将1+N次查询合并为2次
+    //
+
+    /**
+     * 记录当前行的关联键和父对象，嵌套查询会在结果集处理完之后统一执行
+     *
+     * @param rs               结果集
+     * @param metaResultObject 父对象的MetaObject
+     * @param propertyMapping  批量嵌套查询的映射
+     * @param columnPrefix     列名前缀
+     * @return 关联键为null时返回null，否则返回DEFERRED
+     * @throws SQLException
+     */
+    private Object addPendingBatchLoad(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, String columnPrefix) throws SQLException {
+        // issue #353 & #560 do not execute nested query if key is null
+        final Object key = prepareSimpleKeyParameter(rs, propertyMapping, null, columnPrefix);
+        if (key == null) {
+            return null;
+        }
+        final String normalizedKey = String.valueOf(key);
+        final PendingBatchLoad batch = pendingBatchLoads.computeIfAbsent(propertyMapping, PendingBatchLoad::new);
+        batch.keys.putIfAbsent(normalizedKey, key);
+        batch.parents.computeIfAbsent(normalizedKey, k -> new ArrayList<>()).add(metaResultObject);
+        return DEFERRED;
+    }
+
+    /**
+     * 对每个批量嵌套查询映射，使用收集到的所有关联键执行一次嵌套查询，
+     * 然后根据子对象中batchKey属性的值，将子对象分配给对应的父对象
+     *
+     * @throws SQLException
+     */
+    private void loadPendingBatches() throws SQLException {
+        if (pendingBatchLoads.isEmpty()) {
+            return;
+        }
+        final ResultExtractor resultExtractor = new ResultExtractor(configuration, objectFactory);
+        for (PendingBatchLoad batch : pendingBatchLoads.values()) {
+            final ResultMapping propertyMapping = batch.propertyMapping;
+            final MappedStatement nestedQuery = configuration.getMappedStatement(propertyMapping.getNestedQueryId());
+            // 关联键列表以collection/list参数的形式传入，嵌套查询可以通过<foreach>拼接IN列表
+            final Object parameterObject = ParamNameResolver.wrapToMapIfCollection(new ArrayList<>(batch.keys.values()), null);
+            final List<Object> children = executor.query(nestedQuery, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+            final Map<String, List<Object>> childrenByKey = new HashMap<>();
+            for (Object child : children) {
+                if (child != null) {
+                    final Object childKey = configuration.newMetaObject(child).getValue(propertyMapping.getBatchKey());
+                    childrenByKey.computeIfAbsent(String.valueOf(childKey), k -> new ArrayList<>()).add(child);
+                }
+            }
+            for (Map.Entry<String, List<MetaObject>> entry : batch.parents.entrySet()) {
+                final List<Object> matched = childrenByKey.getOrDefault(entry.getKey(), Collections.emptyList());
+                for (MetaObject parent : entry.getValue()) {
+                    // 每个父对象使用独立的列表，避免多个父对象共享同一个集合实例
+                    final Object value = resultExtractor.extractObjectFromList(new ArrayList<>(matched), propertyMapping.getJavaType());
+                    if (value != null || (configuration.isCallSettersOnNulls() && !parent.getSetterType(propertyMapping.getProperty()).isPrimitive())) {
+                        parent.setValue(propertyMapping.getPropertyPath(), value);
+                    }
+                }
+            }
+        }
+        pendingBatchLoads.clear();
+    }
+
     private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
         if (resultMapping.isCompositeResult()) {
             return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
@@ -940,51 +1456,35 @@ public class DefaultResultSetHandler implements ResultSetHandler {
      * @throws SQLException
      */
     public ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultMap resultMap, String columnPrefix) throws SQLException {
-        // 用于维护处理过的鉴别器的唯一标识
-        Set<String> pastDiscriminators = new HashSet<>();
         // 获取ResultMap中的Discriminator对象，这是通过<resultMap>标签中的<discriminator>标签解析得到的
-        Discriminator discriminator = resultMap.getDiscriminator();
-        // 如果存在<discriminator>标签
-        while (discriminator != null) {
-            // 获得条件判断的结果，使用该结果值进行鉴别器的鉴别
-            final Object value = getDiscriminatorValue(rs, discriminator, columnPrefix);
-            // 根据上述值确定要使用的ResultMap的唯一标识
-            final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
-            // 从接下来的case中查找分支
-            if (configuration.hasResultMap(discriminatedMapId)) {
-                // 从全局配置对象Configuration中获取对应的ResultMap对象
-                resultMap = configuration.getResultMap(discriminatedMapId);
-                // 记录当前Discriminator对象
-                Discriminator lastDiscriminator = discriminator;
-                // 获取ResultMap对象中的Discriminator
-                discriminator = resultMap.getDiscriminator();
-                // 检测Discriminator是否出现了环形引用
-                if (discriminator == lastDiscriminator || !pastDiscriminators.add(discriminatedMapId)) {
-                    break;
-                }
-            } else {
-                break;
+        if (resultMap.getDiscriminator() == null) {
+            return resultMap;
+        }
+        // 通过分派表按鉴别列的值查找最终要使用的ResultMap，嵌套的鉴别器和环形引用已在分派表中处理
+        return getDiscriminatorDispatcher(resultMap, columnPrefix).resolve(rs, resultMap);
+    }
+
+    private DiscriminatorDispatcher getDiscriminatorDispatcher(ResultMap resultMap, String columnPrefix) {
+        // 按列前缀和ResultMap两级查找，每一行不需要拼接key
+        final Map<ResultMap, DiscriminatorDispatcher> dispatchers = discriminatorDispatchers.computeIfAbsent(columnPrefix, k -> new IdentityHashMap<>());
+        DiscriminatorDispatcher dispatcher = dispatchers.get(resultMap);
+        if (dispatcher == null) {
+            final String dispatcherKey = resultMap.getId() + ":" + columnPrefix;
+            dispatcher = configuration.getDiscriminatorDispatcher(dispatcherKey);
+            if (dispatcher == null) {
+                configuration.addDiscriminatorDispatcher(dispatcherKey,
+                        new DiscriminatorDispatcher(configuration, resultMap.getDiscriminator(), columnPrefix));
+                dispatcher = configuration.getDiscriminatorDispatcher(dispatcherKey);
             }
+            dispatchers.put(resultMap, dispatcher);
         }
-        // 返回最终要使用的ResultMap
-        return resultMap;
+        return dispatcher;
     }
 
-    /**
-     * 获取鉴别器的鉴别条件的结果
-     *
-     * @param rs            数据库查询获得的结果集
-     * @param discriminator 鉴别器
-     * @param columnPrefix  属性的父级前缀
-     * @return 计算出鉴别器的value对应的结果值
-     * @throws SQLException
-     */
-    private Object getDiscriminatorValue(ResultSet rs, Discriminator discriminator, String columnPrefix) throws SQLException {
-        final ResultMapping resultMapping = discriminator.getResultMapping();
-        // 要鉴别的字符按的类型处理器
-        final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
-        // 通过prependPrefix()得到列名，然后取出列的值
-        return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
+    // 开启columnIndexReadEnabled时按列下标读取列值；结果集中没有该列时仍按列名读取，保持原有的报错信息，未声明IndexedResultReader的TypeHandler也按列名读取
+    private Object getColumnValue(ResultSet rs, TypeHandler<?> typeHandler, int columnIndex, String column) throws SQLException {
+        return columnIndex > 0 && configuration.isColumnIndexReadEnabled() && ResultSetWrapper.isIndexedResultReader(typeHandler)
+                ? typeHandler.getResult(rs, columnIndex) : typeHandler.getResult(rs, column);
     }
 
     private String prependPrefix(String columnName, String prefix) {
@@ -1005,7 +1505,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         Object rowValue = previousRowValue;
         while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
             final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-            final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+            final RowKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
             Object partialObject = nestedResultObjects.get(rowKey);
             // issue #577 && #542
             if (mappedStatement.isResultOrdered()) {
@@ -1033,7 +1533,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     // NESTED RESULT MAP (JOIN MAPPING)
     //
 
-    private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+    private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, RowKey parentRowKey, boolean newObject) {
         boolean foundValues = false;
         for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
             final String nestedResultMapId = resultMapping.getNestedResultMapId();
@@ -1052,8 +1552,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                             continue;
                         }
                     }
-                    final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-                    final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+                    final RowKey combinedKey = createRowKey(nestedResultMap, rsw, columnPrefix).combine(parentRowKey);
                     Object rowValue = nestedResultObjects.get(combinedKey);
                     boolean knownValue = rowValue != null;
                     instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -1114,37 +1613,27 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     // UNIQUE RESULT KEY
     //
 
-    private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-        final CacheKey cacheKey = new CacheKey();
-        cacheKey.update(resultMap.getId());
+    private RowKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+        final Object[] values;
+        final boolean found;
         List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
         if (resultMappings.isEmpty()) {
             if (Map.class.isAssignableFrom(resultMap.getType())) {
-                createRowKeyForMap(rsw, cacheKey);
+                values = new Object[rsw.getColumnNames().size()];
+                found = createRowKeyForMap(rsw, values);
             } else {
-                createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
+                List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
+                values = new Object[unmappedColumnNames.size()];
+                found = createRowKeyForUnmappedProperties(resultMap, rsw, values, unmappedColumnNames, columnPrefix);
             }
         } else {
-            createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
+            values = new Object[resultMappings.size()];
+            found = createRowKeyForMappedProperties(rsw, values, resultMappings, columnPrefix);
         }
-        if (cacheKey.getUpdateCount() < 2) {
-            return CacheKey.NULL_CACHE_KEY;
-        }
-        return cacheKey;
-    }
-
-    private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-        if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-            CacheKey combinedKey;
-            try {
-                combinedKey = rowKey.clone();
-            } catch (CloneNotSupportedException e) {
-                throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
-            }
-            combinedKey.update(parentRowKey);
-            return combinedKey;
+        if (!found) {
+            return RowKey.NULL_ROW_KEY;
         }
-        return CacheKey.NULL_CACHE_KEY;
+        return new RowKey(resultMap.getId(), columnPrefix, values, null);
     }
 
     private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
@@ -1155,28 +1644,33 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         return resultMappings;
     }
 
-    private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
-        for (ResultMapping resultMapping : resultMappings) {
+    // 以下三个方法把标识列的值按位置写入values，返回是否有列参与了标识
+
+    private boolean createRowKeyForMappedProperties(ResultSetWrapper rsw, Object[] values, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+        boolean found = false;
+        final int[] columnIndexes = rsw.getColumnIndexes(resultMappings, columnPrefix);
+        for (int i = 0; i < resultMappings.size(); i++) {
+            final ResultMapping resultMapping = resultMappings.get(i);
             if (resultMapping.isSimple()) {
-                final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
                 final TypeHandler<?> th = resultMapping.getTypeHandler();
-                List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
                 // Issue #114
-                if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-                    final Object value = th.getResult(rsw.getResultSet(), column);
+                if (columnIndexes[i] > 0) {
+                    final Object value = getColumnValue(rsw.getResultSet(), th, columnIndexes[i], prependPrefix(resultMapping.getColumn(), columnPrefix));
                     if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-                        cacheKey.update(column);
-                        cacheKey.update(value);
+                        values[i] = value;
+                        found = true;
                     }
                 }
             }
         }
+        return found;
     }
 
-    private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+    private boolean createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, Object[] values, List<String> unmappedColumnNames, String columnPrefix) throws SQLException {
+        boolean found = false;
         final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
-        List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
-        for (String column : unmappedColumnNames) {
+        for (int i = 0; i < unmappedColumnNames.size(); i++) {
+            final String column = unmappedColumnNames.get(i);
             String property = column;
             if (columnPrefix != null && !columnPrefix.isEmpty()) {
                 // When columnPrefix is specified, ignore columns without the prefix.
@@ -1189,22 +1683,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
                 String value = rsw.getResultSet().getString(column);
                 if (value != null) {
-                    cacheKey.update(column);
-                    cacheKey.update(value);
+                    values[i] = value;
+                    found = true;
                 }
             }
         }
+        return found;
     }
 
-    private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
+    private boolean createRowKeyForMap(ResultSetWrapper rsw, Object[] values) throws SQLException {
+        boolean found = false;
         List<String> columnNames = rsw.getColumnNames();
-        for (String columnName : columnNames) {
-            final String value = rsw.getResultSet().getString(columnName);
+        for (int i = 0; i < columnNames.size(); i++) {
+            final String value = rsw.getResultSet().getString(columnNames.get(i));
             if (value != null) {
-                cacheKey.update(columnName);
-                cacheKey.update(value);
+                values[i] = value;
+                found = true;
             }
         }
+        return found;
     }
 
     private void linkObjects(MetaObject metaObject, ResultMapping resultMapping, Object rowValue) {
@@ -1213,13 +1710,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             final MetaObject targetMetaObject = configuration.newMetaObject(collectionProperty);
             targetMetaObject.add(rowValue);
         } else {
-            metaObject.setValue(resultMapping.getProperty(), rowValue);
+            metaObject.setValue(resultMapping.getPropertyPath(), rowValue);
         }
     }
 
     private Object instantiateCollectionPropertyIfAppropriate(ResultMapping resultMapping, MetaObject metaObject) {
         final String propertyName = resultMapping.getProperty();
-        Object propertyValue = metaObject.getValue(propertyName);
+        Object propertyValue = metaObject.getValue(resultMapping.getPropertyPath());
         if (propertyValue == null) {
             Class<?> type = resultMapping.getJavaType();
             if (type == null) {
@@ -1227,8 +1724,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
             }
             try {
                 if (objectFactory.isCollection(type)) {
-                    propertyValue = objectFactory.create(type);
-                    metaObject.setValue(propertyName, propertyValue);
+                    // 同一属性的集合通常大小相近，按上一个集合的大小预先分配容量
+                    final Collection<?> lastCollection = lastNestedCollections.get(resultMapping);
+                    final int expectedSize = lastCollection == null ? 0 : lastCollection.size();
+                    propertyValue = expectedSize > 0 ? objectFactory.create(type, expectedSize) : objectFactory.create(type);
+                    if (propertyValue instanceof Collection) {
+                        lastNestedCollections.put(resultMapping, (Collection<?>) propertyValue);
+                    }
+                    metaObject.setValue(resultMapping.getPropertyPath(), propertyValue);
                     return propertyValue;
                 }
             } catch (Exception e) {
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 鉴别器的分派表，对应一个带有鉴别器的ResultMap在一种列前缀下的解析过程。
+ * 以TypeHandler读出的列值为key缓存最终选中的ResultMap，每一行只需读取鉴别列并查一次表，
+ * 不再经过String.valueOf、Configuration中的ResultMap查找和用于检测环形引用的HashSet。
+ * 选中的ResultMap还有自己的鉴别器时，表项中保存下一级的分派表，环形引用在创建表项时一次性检测。
+ * 由Configuration按ResultMap的id和列前缀缓存，可以在线程间共享
+ */
+public final class DiscriminatorDispatcher {
+
+    // 单个分派表最多缓存的列值个数，超出后不再缓存，避免取值范围很大的鉴别列占用过多内存
+    private static final int MAX_CACHED_VALUES = 1024;
+    private static final Object NULL_VALUE = new Object();
+    // 没有匹配的case，继续使用当前的ResultMap
+    private static final Target NO_MATCH = new Target(null, null);
+
+    private final Configuration configuration;
+    private final Discriminator discriminator;
+    private final TypeHandler<?> typeHandler;
+    private final String column;
+    private final String columnPrefix;
+    // 到达当前分派表之前已经选中过的ResultMap的id
+    private final Set<String> pastDiscriminators;
+    private final Map<Object, Target> targets = new ConcurrentHashMap<>();
+
+    public DiscriminatorDispatcher(Configuration configuration, Discriminator discriminator, String columnPrefix) {
+        this(configuration, discriminator, columnPrefix, Collections.emptySet());
+    }
+
+    private DiscriminatorDispatcher(Configuration configuration, Discriminator discriminator, String columnPrefix, Set<String> pastDiscriminators) {
+        final ResultMapping resultMapping = discriminator.getResultMapping();
+        final String columnName = resultMapping.getColumn();
+        this.configuration = configuration;
+        this.discriminator = discriminator;
+        this.typeHandler = resultMapping.getTypeHandler();
+        this.column = columnName == null || columnName.isEmpty() || columnPrefix == null || columnPrefix.isEmpty()
+                ? columnName : columnPrefix + columnName;
+        this.columnPrefix = columnPrefix;
+        this.pastDiscriminators = pastDiscriminators;
+    }
+
+    /**
+     * 根据当前行的鉴别列决定实际使用的ResultMap
+     *
+     * @param rs        结果集，已定位到当前行
+     * @param resultMap 带有当前鉴别器的ResultMap
+     * @return 最终要使用的ResultMap
+     */
+    public ResultMap resolve(ResultSet rs, ResultMap resultMap) throws SQLException {
+        DiscriminatorDispatcher dispatcher = this;
+        while (dispatcher != null) {
+            final Target target = dispatcher.getTarget(dispatcher.typeHandler.getResult(rs, dispatcher.column));
+            if (target == NO_MATCH) {
+                break;
+            }
+            resultMap = target.resultMap;
+            dispatcher = target.next;
+        }
+        return resultMap;
+    }
+
+    private Target getTarget(Object value) {
+        final Object key = value == null ? NULL_VALUE : value;
+        Target target = targets.get(key);
+        if (target == null) {
+            final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
+            if (discriminatedMapId != null && !configuration.hasResultMap(discriminatedMapId)) {
+                // ResultMap可能还未解析完成，不缓存
+                return NO_MATCH;
+            }
+            target = discriminatedMapId == null ? NO_MATCH : createTarget(discriminatedMapId);
+            // 数组的equals比较的是引用，不能作为key
+            if (!key.getClass().isArray() && targets.size() < MAX_CACHED_VALUES) {
+                targets.putIfAbsent(key, target);
+            }
+        }
+        return target;
+    }
+
+    private Target createTarget(String discriminatedMapId) {
+        final ResultMap resultMap = configuration.getResultMap(discriminatedMapId);
+        final Discriminator nextDiscriminator = resultMap.getDiscriminator();
+        final Set<String> nextPastDiscriminators = new HashSet<>(pastDiscriminators);
+        // 与逐行解析一致，出现环形引用时停在选中的ResultMap上
+        if (nextDiscriminator == null || nextDiscriminator == discriminator || !nextPastDiscriminators.add(discriminatedMapId)) {
+            return new Target(resultMap, null);
+        }
+        return new Target(resultMap, new DiscriminatorDispatcher(configuration, nextDiscriminator, columnPrefix,
+                Collections.unmodifiableSet(nextPastDiscriminators)));
+    }
+
+    private static final class Target {
+        private final ResultMap resultMap;
+        // 选中的ResultMap自己的鉴别器，没有时为null
+        private final DiscriminatorDispatcher next;
+
+        private Target(ResultMap resultMap, DiscriminatorDispatcher next) {
+            this.resultMap = resultMap;
+            this.next = next;
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行行映射器，把读取线程读入行缓冲区的列值在ForkJoinPool中并行地创建为结果对象。
+ * 只用于由简单属性组成、通过默认构造方法创建结果对象的ResultMap，映射过程不访问ResultSet，
+ * 使用的{@link CompiledRowMapper}和ObjectFactory都可以在线程间共享
+ *
+ * @see org.apache.ibatis.session.Configuration#isParallelRowMappingEnabled()
+ */
+final class ParallelRowMapper {
+
+    // 单个任务至少映射的行数，更小的区间不再拆分
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final CompiledRowMapper rowMapper;
+    private final ObjectFactory objectFactory;
+    private final Class<?> resultType;
+    private final boolean returnInstanceForEmptyRow;
+    private final ForkJoinPool pool;
+
+    ParallelRowMapper(CompiledRowMapper rowMapper, ObjectFactory objectFactory, Class<?> resultType, boolean returnInstanceForEmptyRow, ForkJoinPool pool) {
+        this.rowMapper = rowMapper;
+        this.objectFactory = objectFactory;
+        this.resultType = resultType;
+        this.returnInstanceForEmptyRow = returnInstanceForEmptyRow;
+        this.pool = pool;
+    }
+
+    CompiledRowMapper getRowMapper() {
+        return rowMapper;
+    }
+
+    /**
+     * 提交一批行缓冲区，立即返回，读取线程可以继续读取下一批
+     *
+     * @param rows 行缓冲区
+     * @param size 有效的行数
+     * @return 映射中的批次
+     */
+    Batch submit(Object[][] rows, int size) {
+        final Object[] results = new Object[size];
+        return new Batch(results, pool.submit(new MapRowsTask(rows, results, 0, size)));
+    }
+
+    private Object mapRow(Object[] row) {
+        final Object rowValue = objectFactory.create(resultType);
+        final boolean foundValues = rowMapper.apply(row, rowValue);
+        return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+    }
+
+    /**
+     * 一批正在映射的行，结果与行缓冲区的顺序一致
+     */
+    static final class Batch {
+        private final Object[] results;
+        private final ForkJoinTask<?> task;
+
+        private Batch(Object[] results, ForkJoinTask<?> task) {
+            this.results = results;
+            this.task = task;
+        }
+
+        /**
+         * 等待映射完成，映射失败时抛出映射过程中的异常
+         *
+         * @return 按行顺序排列的结果对象
+         */
+        Object[] join() {
+            task.join();
+            return results;
+        }
+    }
+
+    private final class MapRowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[][] rows;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+
+        private MapRowsTask(Object[][] rows, Object[] results, int from, int to) {
+            this.rows = rows;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = mapRow(rows[i]);
+                    // 映射后不再需要行缓冲区
+                    rows[i] = null;
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new MapRowsTask(rows, results, from, middle), new MapRowsTask(rows, results, middle, to));
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * 按构造器创建结果对象时使用的构造器，每个ResultMap只解析一次。
+ * 构造器被转换成类型为(Object[])Object的MethodHandle，每行只需填充参数数组后调用，
+ * 不再为参数类型和参数值创建列表，也不再每行通过反射查找构造器
+ */
+public final class ResultObjectConstructor {
+
+    // ResultMap不能使用该方式创建结果对象时缓存的占位值，仍交给ObjectFactory创建
+    static final ResultObjectConstructor UNSUPPORTED = new ResultObjectConstructor(null, null);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Constructor<?> constructor;
+    private final Class<?>[] parameterTypes;
+    private final MethodHandle handle;
+
+    private ResultObjectConstructor(Constructor<?> constructor, MethodHandle handle) {
+        this.constructor = constructor;
+        this.parameterTypes = constructor == null ? null : constructor.getParameterTypes();
+        this.handle = handle;
+    }
+
+    /**
+     * @param constructor 构造器
+     * @return 构造器对应的ResultObjectConstructor，无法访问时返回UNSUPPORTED
+     */
+    static ResultObjectConstructor of(Constructor<?> constructor) {
+        try {
+            if (Reflector.canControlMemberAccessible()) {
+                constructor.setAccessible(true);
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+            return new ResultObjectConstructor(constructor, handle);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * @return 构造器的参数类型，不能修改
+     */
+    Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * 使用参数数组创建对象，调用结束后参数数组可以复用
+     *
+     * @param args 与构造器参数一一对应的参数值
+     * @return 新对象
+     */
+    Object newInstance(Object[] args) {
+        try {
+            return handle.invokeExact(args);
+        } catch (Throwable t) {
+            String argTypes = Arrays.stream(parameterTypes).map(Class::getSimpleName).collect(Collectors.joining(","));
+            String argValues = Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(","));
+            throw new ReflectionException("Error instantiating " + constructor.getDeclaringClass() + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + t, t);
+        }
+    }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.executor.resultset;
 
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.*;
 
@@ -24,6 +25,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Iwao AVE!
@@ -31,33 +33,51 @@ import java.util.*;
  */
 public class ResultSetWrapper {
 
+    // 直接声明了IndexedResultReader的TypeHandler才按列下标读取；自定义TypeHandler以往只需要实现按列名读取，继承来的声明不算
+    private static final ClassValue<Boolean> READS_BY_INDEX = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return Arrays.asList(type.getInterfaces()).contains(IndexedResultReader.class);
+        }
+    };
+
     // 被装饰的ResultSet类，本类在该类的功能上在做了一些扩展。
     private final ResultSet resultSet;
     // 类型处理器的注册表
     private final TypeHandlerRegistry typeHandlerRegistry;
-    // resultSet中各列对应的列名列表
-    private final List<String> columnNames = new ArrayList<>();
-    // resultSet中各列对应的Java类型列表
-    private final List<String> classNames = new ArrayList<>();
-    // resultSet中各列对应的JDBC类型列表
-    private final List<JdbcType> jdbcTypes = new ArrayList<>();
-    // 类型与类型处理器映射表，结构为Map<列名, Map<Java类型, 类型处理器>>
-    private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
-    // 记录了所有的有映射关系的列，结构为Map<resultMap的id, List<对象映射的列名>>
-    private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
-    // 记录了所有的没有映射关系的列，结构为Map<resultMap的id, List<对象映射的列名>>
-    private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+    // 是否开启了按列下标读取
+    private final boolean columnIndexReadEnabled;
+    // 列信息以及在列信息上解析出的各种映射关系，开启resultSetMetadataCacheEnabled时在同一语句的多次执行间共享
+    private final CachedResultSetMetadata metadata;
+    // ResultMapping列表中各列的下标，结构为Map<ResultMapping列表, Map<列前缀, 列下标数组>>，0表示结果集中没有该列
+    private final Map<List<ResultMapping>, Map<String, int[]>> columnIndexesMap = new IdentityHashMap<>();
 
     public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
+        this(rs, configuration, null);
+    }
+
+    /**
+     * @param rs            结果集
+     * @param configuration 全局配置
+     * @param metadataKey   共享元数据的key，由语句id和结果集序号组成，为null时不共享
+     */
+    public ResultSetWrapper(ResultSet rs, Configuration configuration, String metadataKey) throws SQLException {
         super();
         this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        this.columnIndexReadEnabled = configuration.isColumnIndexReadEnabled();
         this.resultSet = rs;
         final ResultSetMetaData metaData = rs.getMetaData();
-        final int columnCount = metaData.getColumnCount();
-        for (int i = 1; i <= columnCount; i++) {
-            columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
-            jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
-            classNames.add(metaData.getColumnClassName(i));
+        final boolean useColumnLabel = configuration.isUseColumnLabel();
+        if (metadataKey != null && configuration.isResultSetMetadataCacheEnabled()) {
+            CachedResultSetMetadata cached = configuration.getCachedResultSetMetadata(metadataKey);
+            // 列数、列名或列类型发生变化（如表结构变更、动态SQL查询了不同的列）时重新读取
+            if (cached == null || !cached.matches(metaData, useColumnLabel)) {
+                cached = CachedResultSetMetadata.load(metaData, useColumnLabel);
+                configuration.putCachedResultSetMetadata(metadataKey, cached);
+            }
+            this.metadata = cached;
+        } else {
+            this.metadata = CachedResultSetMetadata.load(metaData, useColumnLabel);
         }
     }
 
@@ -66,18 +86,20 @@ public class ResultSetWrapper {
     }
 
     public List<String> getColumnNames() {
-        return this.columnNames;
+        return metadata.columnNames;
     }
 
     public List<String> getClassNames() {
-        return Collections.unmodifiableList(classNames);
+        return metadata.classNames;
     }
 
     public List<JdbcType> getJdbcTypes() {
-        return jdbcTypes;
+        return metadata.jdbcTypes;
     }
 
     public JdbcType getJdbcType(String columnName) {
+        final List<String> columnNames = metadata.columnNames;
+        final List<JdbcType> jdbcTypes = metadata.jdbcTypes;
         for (int i = 0; i < columnNames.size(); i++) {
             if (columnNames.get(i).equalsIgnoreCase(columnName)) {
                 return jdbcTypes.get(i);
@@ -86,6 +108,64 @@ public class ResultSetWrapper {
         return null;
     }
 
+    /**
+     * 获取列的下标，每个结果集只解析一次列名，之后可以按下标读取列值
+     *
+     * @param columnName 列名，不区分大小写
+     * @return 列下标，从1开始，结果集中没有该列时返回0
+     */
+    public int getColumnIndex(String columnName) {
+        if (columnName == null) {
+            return 0;
+        }
+        Integer index = metadata.columnIndexMap.get(columnName.toUpperCase(Locale.ENGLISH));
+        return index == null ? 0 : index;
+    }
+
+    /**
+     * 判断当前结果集能否用该TypeHandler按列下标读取列值
+     *
+     * @param typeHandler 类型处理器
+     * @return 开启了columnIndexReadEnabled并且TypeHandler直接声明了IndexedResultReader时返回true
+     */
+    boolean canReadByIndex(TypeHandler<?> typeHandler) {
+        return columnIndexReadEnabled && isIndexedResultReader(typeHandler);
+    }
+
+    /**
+     * 判断TypeHandler是否直接声明了{@link IndexedResultReader}
+     *
+     * @param typeHandler 类型处理器
+     * @return 是否可以按列下标读取
+     */
+    static boolean isIndexedResultReader(TypeHandler<?> typeHandler) {
+        return READS_BY_INDEX.get(typeHandler.getClass());
+    }
+
+    /**
+     * 获取一组ResultMapping对应的列下标，结果按ResultMapping列表和列前缀缓存
+     *
+     * @param resultMappings ResultMapping列表
+     * @param columnPrefix   列前缀
+     * @return 与resultMappings一一对应的列下标，0表示没有列或结果集中没有该列
+     */
+    public int[] getColumnIndexes(List<ResultMapping> resultMappings, String columnPrefix) {
+        Map<String, int[]> prefixedIndexes = columnIndexesMap.computeIfAbsent(resultMappings, k -> new HashMap<>());
+        int[] columnIndexes = prefixedIndexes.get(columnPrefix);
+        if (columnIndexes == null) {
+            columnIndexes = new int[resultMappings.size()];
+            for (int i = 0; i < columnIndexes.length; i++) {
+                String column = resultMappings.get(i).getColumn();
+                if (column != null && columnPrefix != null && !columnPrefix.isEmpty() && !column.isEmpty()) {
+                    column = columnPrefix + column;
+                }
+                columnIndexes[i] = getColumnIndex(column);
+            }
+            prefixedIndexes.put(columnPrefix, columnIndexes);
+        }
+        return columnIndexes;
+    }
+
     /**
      * Gets the type handler to use when reading the result set.
      * Tries to get from the TypeHandlerRegistry by searching for the property type.
@@ -96,22 +176,16 @@ public class ResultSetWrapper {
      * @return the type handler
      */
     public TypeHandler<?> getTypeHandler(Class<?> propertyType, String columnName) {
-        TypeHandler<?> handler = null;
-        Map<Class<?>, TypeHandler<?>> columnHandlers = typeHandlerMap.get(columnName);
-        if (columnHandlers == null) {
-            columnHandlers = new HashMap<>();
-            typeHandlerMap.put(columnName, columnHandlers);
-        } else {
-            handler = columnHandlers.get(propertyType);
-        }
+        Map<Class<?>, TypeHandler<?>> columnHandlers = metadata.typeHandlerMap.computeIfAbsent(columnName, k -> new ConcurrentHashMap<>());
+        TypeHandler<?> handler = columnHandlers.get(propertyType);
         if (handler == null) {
             JdbcType jdbcType = getJdbcType(columnName);
             handler = typeHandlerRegistry.getTypeHandler(propertyType, jdbcType);
             // Replicate logic of UnknownTypeHandler#resolveTypeHandler
             // See issue #59 comment 10
             if (handler == null || handler instanceof UnknownTypeHandler) {
-                final int index = columnNames.indexOf(columnName);
-                final Class<?> javaType = resolveClass(classNames.get(index));
+                final int index = metadata.columnNames.indexOf(columnName);
+                final Class<?> javaType = resolveClass(metadata.classNames.get(index));
                 if (javaType != null && jdbcType != null) {
                     handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
                 } else if (javaType != null) {
@@ -145,7 +219,7 @@ public class ResultSetWrapper {
         List<String> unmappedColumnNames = new ArrayList<>();
         final String upperColumnPrefix = columnPrefix == null ? null : columnPrefix.toUpperCase(Locale.ENGLISH);
         final Set<String> mappedColumns = prependPrefixes(resultMap.getMappedColumns(), upperColumnPrefix);
-        for (String columnName : columnNames) {
+        for (String columnName : metadata.columnNames) {
             final String upperColumnName = columnName.toUpperCase(Locale.ENGLISH);
             if (mappedColumns.contains(upperColumnName)) {
                 mappedColumnNames.add(upperColumnName);
@@ -153,28 +227,57 @@ public class ResultSetWrapper {
                 unmappedColumnNames.add(columnName);
             }
         }
-        mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
-        unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+        // 先写入未映射列，并发读取时只要已映射列存在，未映射列就一定存在
+        metadata.unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+        metadata.mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
     }
 
     public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-        List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+        List<String> mappedColumnNames = metadata.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
         if (mappedColumnNames == null) {
             loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-            mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+            mappedColumnNames = metadata.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
         }
         return mappedColumnNames;
     }
 
     public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-        List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+        List<String> unMappedColumnNames = metadata.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
         if (unMappedColumnNames == null) {
             loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-            unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+            unMappedColumnNames = metadata.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
         }
         return unMappedColumnNames;
     }
 
+    /**
+     * @param mapKey resultMap的id:列前缀
+     * @return 已解析的自动映射规则，尚未解析时返回null
+     */
+    List<DefaultResultSetHandler.UnMappedColumnAutoMapping> getAutoMappings(String mapKey) {
+        return metadata.autoMappingsMap.get(mapKey);
+    }
+
+    void putAutoMappings(String mapKey, List<DefaultResultSetHandler.UnMappedColumnAutoMapping> autoMappings) {
+        metadata.autoMappingsMap.put(mapKey, autoMappings);
+    }
+
+    CompactRowMap.Layout getRowMapLayout(String mapKey) {
+        return metadata.rowMapLayoutsMap.get(mapKey);
+    }
+
+    void putRowMapLayout(String mapKey, CompactRowMap.Layout layout) {
+        metadata.rowMapLayoutsMap.put(mapKey, layout);
+    }
+
+    CompiledRowMapper getCompiledRowMapper(String mapKey) {
+        return metadata.compiledRowMappersMap.get(mapKey);
+    }
+
+    void putCompiledRowMapper(String mapKey, CompiledRowMapper rowMapper) {
+        metadata.compiledRowMappersMap.put(mapKey, rowMapper);
+    }
+
     private String getMapKey(ResultMap resultMap, String columnPrefix) {
         return resultMap.getId() + ":" + columnPrefix;
     }
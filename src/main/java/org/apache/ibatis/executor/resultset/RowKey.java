@@ -0,0 +1,104 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+
+import java.util.Objects;
+
+/**
+ * 嵌套结果映射中用于对象去重的行键，由ResultMap的id、列前缀、唯一标识列的值以及父对象的行键组成。
+ * 与CacheKey不同，列值按列的位置存放在定长数组中（同一结果集中位置固定，因此不需要记录列名），
+ * 与父行键组合时只引用父行键，不复制列表
+ */
+final class RowKey {
+
+    // 没有任何标识列的值时使用，不会被缓存
+    static final RowKey NULL_ROW_KEY = new RowKey(null, null, new Object[0], null);
+
+    private final String resultMapId;
+    private final String columnPrefix;
+    // 按位置存放的标识列的值，结果集中没有的列或未参与标识的列为null
+    private final Object[] values;
+    private final RowKey parent;
+    private final int hashCode;
+
+    RowKey(String resultMapId, String columnPrefix, Object[] values, RowKey parent) {
+        this.resultMapId = resultMapId;
+        this.columnPrefix = columnPrefix;
+        this.values = values;
+        this.parent = parent;
+        int hash = Objects.hashCode(resultMapId);
+        hash = 31 * hash + Objects.hashCode(columnPrefix);
+        for (Object value : values) {
+            hash = 31 * hash + ArrayUtil.hashCode(value);
+        }
+        this.hashCode = 31 * hash + Objects.hashCode(parent);
+    }
+
+    /**
+     * @param parentRowKey 父对象的行键
+     * @return 与父行键组合后的行键，任一方为NULL_ROW_KEY时返回NULL_ROW_KEY
+     */
+    RowKey combine(RowKey parentRowKey) {
+        if (this == NULL_ROW_KEY || parentRowKey == NULL_ROW_KEY) {
+            return NULL_ROW_KEY;
+        }
+        return new RowKey(resultMapId, columnPrefix, values, parentRowKey);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof RowKey)) {
+            return false;
+        }
+        final RowKey other = (RowKey) object;
+        if (hashCode != other.hashCode || values.length != other.values.length
+                || !Objects.equals(resultMapId, other.resultMapId) || !Objects.equals(columnPrefix, other.columnPrefix)) {
+            return false;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (!ArrayUtil.equals(values[i], other.values[i])) {
+                return false;
+            }
+        }
+        return Objects.equals(parent, other.parent);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(resultMapId == null ? "null" : resultMapId);
+        if (columnPrefix != null) {
+            builder.append(':').append(columnPrefix);
+        }
+        for (Object value : values) {
+            builder.append(':').append(ArrayUtil.toString(value));
+        }
+        if (parent != null) {
+            builder.append(" <- ").append(parent);
+        }
+        return builder.toString();
+    }
+
+}
@@ -19,6 +19,8 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.pagination.Dialect;
+import org.apache.ibatis.executor.pagination.PaginationUtil;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
@@ -57,7 +59,6 @@ public abstract class BaseStatementHandler implements StatementHandler {
         this.configuration = mappedStatement.getConfiguration();
         this.executor = executor;
         this.mappedStatement = mappedStatement;
-        this.rowBounds = rowBounds;
 
         this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
         this.objectFactory = configuration.getObjectFactory();
@@ -68,7 +69,17 @@ public abstract class BaseStatementHandler implements StatementHandler {
             boundSql = mappedStatement.getBoundSql(parameterObject);
         }
 
+        // 配置了分页方言时，在数据库端分页，结果集处理器不再跳过行
+        Dialect dialect = configuration.getPaginationDialect();
+        if (dialect != null && PaginationUtil.isApplicable(mappedStatement, rowBounds)) {
+            boundSql = PaginationUtil.rewrite(configuration, dialect, boundSql, rowBounds);
+            rowBounds = RowBounds.DEFAULT;
+        } else {
+            PaginationUtil.checkClientSidePaging(rowBounds);
+        }
+
         this.boundSql = boundSql;
+        this.rowBounds = rowBounds;
 
         this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
         this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, rowBounds, parameterHandler, resultHandler, boundSql);
@@ -115,6 +126,8 @@ public abstract class BaseStatementHandler implements StatementHandler {
             stmt.setQueryTimeout(queryTimeout);
         }
         StatementUtil.applyTransactionTimeout(stmt, queryTimeout, transactionTimeout);
+        // 请求级别的截止时间，取剩余时间作为超时时间
+        StatementUtil.applyDeadline(stmt, executor == null ? null : executor.getDeadline());
     }
 
     protected void setFetchSize(Statement stmt) throws SQLException {
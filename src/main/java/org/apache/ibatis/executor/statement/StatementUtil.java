@@ -16,8 +16,11 @@
 package org.apache.ibatis.executor.statement;
 
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
 
+import org.apache.ibatis.session.Deadline;
+
 /**
  * Utility for {@link java.sql.Statement}.
  *
@@ -49,4 +52,30 @@ public class StatementUtil {
     }
   }
 
+  /**
+   * Apply the remaining budget of a deadline.
+   * <p>
+   * Lowers the query timeout of the statement to the remaining budget. JDBC only accepts whole seconds,
+   * so the budget is rounded up to the next second.
+   * </p>
+   * @param statement a target statement
+   * @param deadline a deadline, may be null
+   * @throws SQLException if the deadline is already exceeded, a database access error occurs,
+   *     or this method is called on a closed <code>Statement</code>
+   */
+  public static void applyDeadline(Statement statement, Deadline deadline) throws SQLException {
+    if (deadline == null) {
+      return;
+    }
+    long remainingMillis = deadline.getRemainingMillis();
+    if (remainingMillis <= 0) {
+      throw new SQLTimeoutException("Deadline exceeded before the statement could be executed.");
+    }
+    int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000);
+    int queryTimeout = statement.getQueryTimeout();
+    if (queryTimeout == 0 || remainingSeconds < queryTimeout) {
+      statement.setQueryTimeout(remainingSeconds);
+    }
+  }
+
 }
@@ -16,6 +16,7 @@
 package org.apache.ibatis.mapping;
 
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
@@ -72,6 +73,10 @@ public class BoundSql {
         return additionalParameters.containsKey(paramName);
     }
 
+    public boolean hasAdditionalParameter(PropertyPath path) {
+        return additionalParameters.containsKey(path.getRootName());
+    }
+
     public void setAdditionalParameter(String name, Object value) {
         metaParameters.setValue(name, value);
     }
@@ -79,4 +84,12 @@ public class BoundSql {
     public Object getAdditionalParameter(String name) {
         return metaParameters.getValue(name);
     }
+
+    public Object getAdditionalParameter(PropertyPath path) {
+        return metaParameters.getValue(path);
+    }
+
+    public Map<String, Object> getAdditionalParameters() {
+        return additionalParameters;
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -31,6 +32,7 @@ public class ParameterMapping {
     private Configuration configuration;
 
     private String property;
+    private PropertyPath propertyPath;
     private ParameterMode mode;
     private Class<?> javaType = Object.class;
     private JdbcType jdbcType;
@@ -136,6 +138,20 @@ public class ParameterMapping {
         return property;
     }
 
+    /**
+     * 预先解析的属性路径，第一次使用时解析，之后由该映射一直持有
+     *
+     * @return 属性路径，没有属性名时返回null
+     */
+    public PropertyPath getPropertyPath() {
+        PropertyPath path = propertyPath;
+        if (path == null && property != null) {
+            path = PropertyPath.parse(property);
+            propertyPath = path;
+        }
+        return path;
+    }
+
     /**
      * Used for handling output of callable statements.
      *
@@ -57,6 +57,8 @@ public class ResultMap {
     private boolean hasNestedQueries;
     // 是否启动自动映射
     private Boolean autoMapping;
+    // 是否直接写字段而不调用setter，为null时使用全局配置
+    private Boolean directFieldMapping;
 
     private ResultMap() {
     }
@@ -83,6 +85,11 @@ public class ResultMap {
             return this;
         }
 
+        public Builder directFieldMapping(Boolean directFieldMapping) {
+            resultMap.directFieldMapping = directFieldMapping;
+            return this;
+        }
+
         public Class<?> type() {
             return resultMap.type;
         }
@@ -266,4 +273,8 @@ public class ResultMap {
         return autoMapping;
     }
 
+    public Boolean getDirectFieldMapping() {
+        return directFieldMapping;
+    }
+
 }
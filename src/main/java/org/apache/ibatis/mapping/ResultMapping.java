@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -36,6 +37,7 @@ public class ResultMapping {
     // 以下属性是resultMap标签的子标签可能包括的所有属性
     // property，result、id标签对应属性名
     private String property;
+    private PropertyPath propertyPath;
     // 对应查询结果的列名称
     private String column;
     // 对应Java类型
@@ -58,6 +60,8 @@ public class ResultMapping {
     private String resultSet;
     private String foreignColumn;
     private boolean lazy;
+    // 批量嵌套查询时，子对象中保存父对象关联键的属性名。设置后嵌套查询会在整个结果集处理完后以IN列表的方式一次性执行
+    private String batchKey;
 
     ResultMapping() {
     }
@@ -145,12 +149,21 @@ public class ResultMapping {
             return this;
         }
 
+        public Builder batchKey(String batchKey) {
+            resultMapping.batchKey = batchKey;
+            return this;
+        }
+
         public ResultMapping build() {
             // lock down collections
             resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
             resultMapping.composites = Collections.unmodifiableList(resultMapping.composites);
             resolveTypeHandler();
             validate();
+            // 批量加载的结果在整个结果集处理完之后才会被填充，不会再使用延迟加载代理
+            if (resultMapping.batchKey != null) {
+                resultMapping.lazy = false;
+            }
             return resultMapping;
         }
 
@@ -180,6 +193,14 @@ public class ResultMapping {
                     throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
                 }
             }
+            if (resultMapping.batchKey != null) {
+                if (resultMapping.nestedQueryId == null) {
+                    throw new IllegalStateException("batchKey can only be used with a nested select in property " + resultMapping.property);
+                }
+                if (!resultMapping.composites.isEmpty()) {
+                    throw new IllegalStateException("batchKey does not support composite columns in property " + resultMapping.property);
+                }
+            }
         }
 
         private void resolveTypeHandler() {
@@ -200,6 +221,20 @@ public class ResultMapping {
         return property;
     }
 
+    /**
+     * 预先解析的属性路径，第一次使用时解析，之后由该映射一直持有
+     *
+     * @return 属性路径，没有属性名时返回null
+     */
+    public PropertyPath getPropertyPath() {
+        PropertyPath path = propertyPath;
+        if (path == null && property != null) {
+            path = PropertyPath.parse(property);
+            propertyPath = path;
+        }
+        return path;
+    }
+
     public String getColumn() {
         return column;
     }
@@ -264,6 +299,14 @@ public class ResultMapping {
         this.lazy = lazy;
     }
 
+    public String getBatchKey() {
+        return batchKey;
+    }
+
+    public boolean isBatched() {
+        return batchKey != null;
+    }
+
     public boolean isSimple() {
         return this.nestedResultMapId == null && this.nestedQueryId == null && this.resultSet == null;
     }
@@ -311,6 +354,7 @@ public class ResultMapping {
         sb.append(", resultSet='").append(resultSet).append('\'');
         sb.append(", foreignColumn='").append(foreignColumn).append('\'');
         sb.append(", lazy=").append(lazy);
+        sb.append(", batchKey='").append(batchKey).append('\'');
         sb.append('}');
         return sb.toString();
     }
@@ -56,11 +56,21 @@ public class DefaultReflectorFactory implements ReflectorFactory {
         // 如果允许缓存，就从reflectorMap获取返回，如果里面没有就创建一个然后返回，这样下次使用就可以从reflectorMap中拿，提高速度
         if (classCacheEnabled) {
             // synchronized (type) removed see issue #461
-            return reflectorMap.computeIfAbsent(type, Reflector::new);
+            return reflectorMap.computeIfAbsent(type, this::newReflector);
         } else {
             // 如果不允许缓存，就新建一个
-            return new Reflector(type);
+            return newReflector(type);
         }
     }
 
+    /**
+     * 创建Reflector，子类可以覆盖以改变Invoker的实现
+     *
+     * @param type Reflector解析的类型
+     * @return 新的Reflector
+     */
+    protected Reflector newReflector(Class<?> type) {
+        return new Reflector(type);
+    }
+
 }
@@ -183,6 +183,32 @@ public class MetaClass {
         return reflector.getSetInvoker(name);
     }
 
+    /**
+     * 获取属性下标，只需解析一次，之后通过下标读写属性，不再按属性名查找
+     *
+     * @param name 属性名，嵌套属性和带索引的属性没有下标
+     * @return 属性下标，不存在时返回-1
+     */
+    public int propertyIndex(String name) {
+        return reflector.getPropertyIndex(name);
+    }
+
+    public String getPropertyName(int propertyIndex) {
+        return reflector.getPropertyName(propertyIndex);
+    }
+
+    public Invoker getGetInvoker(int propertyIndex) {
+        return reflector.getGetInvoker(propertyIndex);
+    }
+
+    public Invoker getSetInvoker(int propertyIndex) {
+        return reflector.getSetInvoker(propertyIndex);
+    }
+
+    public Class<?> getSetterType(int propertyIndex) {
+        return reflector.getSetterType(propertyIndex);
+    }
+
     /**
      * 真正处理order.deliveryAddress.customer.name表达式的方法
      * 递归获取每一级的属性
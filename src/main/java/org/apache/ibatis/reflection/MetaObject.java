@@ -16,6 +16,8 @@
 package org.apache.ibatis.reflection;
 
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.reflection.wrapper.*;
 
@@ -29,6 +31,8 @@ import java.util.Map;
  */
 public class MetaObject {
 
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
     // 被包装的原始对象
     private final Object originalObject;
     // 下面这些为了 便于进行各种反射操作
@@ -149,6 +153,122 @@ public class MetaObject {
         }
     }
 
+    /**
+     * 按预先解析的属性路径取值，结果与{@link #getValue(String)}一致，但不再逐次拆分属性名，
+     * 普通JavaBean的中间对象也不再包装为MetaObject
+     *
+     * @param path 属性路径
+     */
+    public Object getValue(PropertyPath path) {
+        Object value = getSegmentValue(objectWrapper, originalObject, path.getSegment(0), objectFactory, objectWrapperFactory, reflectorFactory);
+        for (int i = 1; i < path.size() && value != null; i++) {
+            value = getSegmentValue(null, value, path.getSegment(i), objectFactory, objectWrapperFactory, reflectorFactory);
+        }
+        return value;
+    }
+
+    /**
+     * 不创建MetaObject直接按属性路径读取对象的值，结果与forObject(object, ...).getValue(path)一致。
+     * 普通JavaBean逐段调用属性路径缓存的getter，Map直接按键取值，只有遇到索引、集合或自定义包装器时才包装对应的对象，
+     * 适合参数绑定这类每次执行只读取几个属性的场景
+     *
+     * @param object 对象，为null时返回null
+     * @param path   属性路径
+     */
+    public static Object getValue(Object object, PropertyPath path, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
+        Object value = object;
+        for (int i = 0; i < path.size() && value != null; i++) {
+            value = getSegmentValue(null, value, path.getSegment(i), objectFactory, objectWrapperFactory, reflectorFactory);
+        }
+        return value;
+    }
+
+    /**
+     * 按预先解析的属性路径赋值，结果与{@link #setValue(String, Object)}一致
+     *
+     * @param path  属性路径
+     * @param value 属性值
+     */
+    public void setValue(PropertyPath path, Object value) {
+        MetaObject metaObject = this;
+        final int last = path.size() - 1;
+        for (int i = 0; i < last; i++) {
+            final PropertyPath.Segment segment = path.getSegment(i);
+            final Object child = getSegmentValue(metaObject.objectWrapper, metaObject.originalObject, segment, objectFactory, objectWrapperFactory, reflectorFactory);
+            if (child == null) {
+                if (value == null) {
+                    // don't instantiate child path if value is null
+                    return;
+                }
+                metaObject = metaObject.objectWrapper.instantiatePropertyValue(segment.getPath(), segment.getTokenizer(), objectFactory);
+            } else {
+                metaObject = MetaObject.forObject(child, objectFactory, objectWrapperFactory, reflectorFactory);
+            }
+        }
+        final PropertyPath.Segment segment = path.getSegment(last);
+        if (segment.getIndex() == null && metaObject.objectWrapper.getClass() == BeanWrapper.class) {
+            setBeanProperty(segment, metaObject.originalObject, value, reflectorFactory);
+        } else {
+            metaObject.objectWrapper.set(segment.getTokenizer(), value);
+        }
+    }
+
+    // wrapper为null时object是中间对象，按MetaObject构造方法的规则判断它的包装方式
+    private static Object getSegmentValue(ObjectWrapper wrapper, Object object, PropertyPath.Segment segment,
+                                          ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
+        if (segment.getIndex() == null) {
+            if (wrapper == null) {
+                if (!(object instanceof ObjectWrapper) && !objectWrapperFactory.hasWrapperFor(object)) {
+                    if (object instanceof Map) {
+                        // 与MapWrapper一致
+                        return ((Map<?, ?>) object).get(segment.getName());
+                    }
+                    if (!(object instanceof Collection)) {
+                        return getBeanProperty(segment, object, reflectorFactory);
+                    }
+                }
+            } else if (wrapper.getClass() == BeanWrapper.class) {
+                return getBeanProperty(segment, object, reflectorFactory);
+            } else if (wrapper.getClass() == MapWrapper.class) {
+                return ((Map<?, ?>) object).get(segment.getName());
+            }
+        }
+        if (wrapper == null) {
+            wrapper = MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory).objectWrapper;
+        }
+        return wrapper.get(segment.getTokenizer());
+    }
+
+    // 与BeanWrapper的读写及异常信息一致，Invoker由属性路径缓存
+    private static Object getBeanProperty(PropertyPath.Segment segment, Object object, ReflectorFactory reflectorFactory) {
+        try {
+            Invoker method = segment.getGetInvoker(object.getClass(), reflectorFactory);
+            try {
+                return method.invoke(object, NO_ARGUMENTS);
+            } catch (Throwable t) {
+                throw ExceptionUtil.unwrapThrowable(t);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ReflectionException("Could not get property '" + segment.getName() + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+        }
+    }
+
+    private static void setBeanProperty(PropertyPath.Segment segment, Object object, Object value, ReflectorFactory reflectorFactory) {
+        try {
+            Invoker method = segment.getSetInvoker(object.getClass(), reflectorFactory);
+            Object[] params = {value};
+            try {
+                method.invoke(object, params);
+            } catch (Throwable t) {
+                throw ExceptionUtil.unwrapThrowable(t);
+            }
+        } catch (Throwable t) {
+            throw new ReflectionException("Could not set property '" + segment.getName() + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+        }
+    }
+
     public MetaObject metaObjectForProperty(String name) {
         Object value = getValue(name);
         return MetaObject.forObject(value, objectFactory, objectWrapperFactory, reflectorFactory);
@@ -0,0 +1,31 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+/**
+ * 创建绑定了Invoker的Reflector的工厂。getter/setter通过LambdaMetafactory绑定为Function/BiConsumer，
+ * 无法访问的方法和字段绑定为MethodHandle，都无法绑定时仍使用反射，
+ * 每次属性读写都不再经过Method.invoke和Field.get/set。
+ * 通过&lt;reflectorFactory type="org.apache.ibatis.reflection.MethodHandleReflectorFactory"/&gt;启用
+ */
+public class MethodHandleReflectorFactory extends DefaultReflectorFactory {
+
+    @Override
+    protected Reflector newReflector(Class<?> type) {
+        return new Reflector(type, true);
+    }
+
+}
@@ -16,6 +16,7 @@
 package org.apache.ibatis.reflection;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.MapperMethod.FixedParamMap;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -54,6 +55,13 @@ public class ParamNameResolver {
     // 方法入参是否有@Param修饰
     private boolean hasParamAnnotation;
 
+    // 多个参数或使用@Param时ParamMap的布局，包括参数名和param1、param2等通用参数名
+    private final FixedParamMap.Layout paramLayout;
+    // 唯一参数为集合或数组时包装用的布局
+    private final FixedParamMap.Layout collectionLayout;
+    private final FixedParamMap.Layout listLayout;
+    private final FixedParamMap.Layout arrayLayout;
+
     /**
      * 构造方法，会解析参数列表信息
      *
@@ -100,6 +108,46 @@ public class ParamNameResolver {
             map.put(paramIndex, name);
         }
         names = Collections.unmodifiableSortedMap(map);
+        if (hasParamAnnotation || names.size() > 1) {
+            paramLayout = createParamLayout();
+            collectionLayout = listLayout = arrayLayout = null;
+        } else {
+            paramLayout = null;
+            final String actualParamName = useActualParamName && names.size() == 1 ? names.get(0) : null;
+            collectionLayout = createCollectionLayout(actualParamName, "collection");
+            listLayout = createCollectionLayout(actualParamName, "collection", "list");
+            arrayLayout = createCollectionLayout(actualParamName, "array");
+        }
+    }
+
+    /**
+     * 按getNamedParams以往放入ParamMap的顺序记录参数名与实参下标，同名的参数后者覆盖前者
+     */
+    private FixedParamMap.Layout createParamLayout() {
+        final Map<String, Integer> argIndexes = new LinkedHashMap<>();
+        int i = 0;
+        for (Map.Entry<Integer, String> entry : names.entrySet()) {
+            argIndexes.put(entry.getValue(), entry.getKey());
+            // ensure not to overwrite parameter named with @Param
+            final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
+            if (!names.containsValue(genericParamName)) {
+                argIndexes.put(genericParamName, entry.getKey());
+            }
+            i++;
+        }
+        return new FixedParamMap.Layout(argIndexes);
+    }
+
+    // 包装后的实参数组只有一个元素，所有键都指向它
+    private static FixedParamMap.Layout createCollectionLayout(String actualParamName, String... keys) {
+        final Map<String, Integer> argIndexes = new LinkedHashMap<>();
+        for (String key : keys) {
+            argIndexes.put(key, 0);
+        }
+        if (actualParamName != null) {
+            argIndexes.put(actualParamName, 0);
+        }
+        return new FixedParamMap.Layout(argIndexes);
     }
 
     private String getActualParamName(Method method, int paramIndex) {
@@ -138,26 +186,18 @@ public class ParamNameResolver {
         if (args == null || paramCount == 0) {
             return null;
         } else if (!hasParamAnnotation && paramCount == 1) {
-            // 只有一个且没有被@Param修饰的，直接返回实参的映射
+            // 只有一个且没有被@Param修饰的，直接返回实参的映射，集合和数组按预先计算的布局包装
             Object value = args[names.firstKey()];
-            return wrapToMapIfCollection(value, useActualParamName ? names.get(0) : null);
+            if (value instanceof Collection) {
+                return new FixedParamMap(value instanceof List ? listLayout : collectionLayout, new Object[]{value});
+            } else if (value != null && value.getClass().isArray()) {
+                return new FixedParamMap(arrayLayout, new Object[]{value});
+            }
+            return value;
         } else {
             // 被@Param修饰或有多个非特殊参数
-            final Map<String, Object> param = new ParamMap<>();
-            int i = 0;
-            for (Map.Entry<Integer, String> entry : names.entrySet()) {
-                // 将参数名和实参的映射存到ParamMap
-                param.put(entry.getValue(), args[entry.getKey()]);
-                // add generic param names (param1, param2, ...)
-                // 同时为参数创建“param1，param2”格式的默认参数名，也存进ParamMap
-                final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
-                // ensure not to overwrite parameter named with @Param
-                if (!names.containsValue(genericParamName)) {
-                    param.put(genericParamName, args[entry.getKey()]);
-                }
-                i++;
-            }
-            return param;
+            // 参数名和“param1，param2”格式的默认参数名都按预先计算的布局映射到实参下标
+            return new FixedParamMap(paramLayout, args);
         }
     }
 
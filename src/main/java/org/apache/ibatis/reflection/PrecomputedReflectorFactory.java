@@ -0,0 +1,45 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+/**
+ * 优先使用预先生成的元数据创建Reflector的工厂。
+ * classpath中存在{@link ReflectorMetadataGenerator}生成的资源时直接按记录的成员创建Reflector，
+ * 省去启动和首次请求时对领域类的反射扫描；没有元数据或者元数据已经过期的类仍按反射解析。
+ * 通过&lt;reflectorFactory type="org.apache.ibatis.reflection.PrecomputedReflectorFactory"/&gt;启用
+ */
+public class PrecomputedReflectorFactory extends DefaultReflectorFactory {
+
+    private final boolean bindInvokers;
+
+    public PrecomputedReflectorFactory() {
+        this(false);
+    }
+
+    /**
+     * @param bindInvokers 是否同时绑定Invoker，参见{@link MethodHandleReflectorFactory}
+     */
+    public PrecomputedReflectorFactory(boolean bindInvokers) {
+        this.bindInvokers = bindInvokers;
+    }
+
+    @Override
+    protected Reflector newReflector(Class<?> type) {
+        final ReflectorMetadata metadata = ReflectorMetadata.find(type);
+        return metadata == null ? new Reflector(type, bindInvokers) : new Reflector(metadata, bindInvokers);
+    }
+
+}
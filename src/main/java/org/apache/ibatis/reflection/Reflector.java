@@ -53,18 +53,55 @@ public class Reflector {
     // 大小写无关的属性映射表。键为属性名全大写，值为属性名
     private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
 
+    // 属性下标映射表，可读、可写属性的并集按名称排序后依次编号
+    private final Map<String, Integer> propertyIndexes = new HashMap<>();
+    // 下标对应的属性名
+    private final String[] indexedPropertyNames;
+    // 按下标存放的getter/setter及类型，没有对应getter/setter的位置为null
+    private final Invoker[] indexedGetInvokers;
+    private final Invoker[] indexedSetInvokers;
+    private final Class<?>[] indexedGetTypes;
+    private final Class<?>[] indexedSetTypes;
+
     //    构造方法，通过传入一个类型来实现，是该类的入口
     public Reflector(Class<?> clazz) {
+        this(clazz, false);
+    }
+
+    /**
+     * @param clazz        被解析的类
+     * @param bindInvokers 是否把getter/setter绑定为LambdaMetafactory生成的对象或MethodHandle，
+     *                     无法绑定的成员仍使用基于反射的Invoker
+     */
+    public Reflector(Class<?> clazz, boolean bindInvokers) {
+        this(clazz, null, bindInvokers);
+    }
+
+    /**
+     * 根据预先生成的元数据创建Reflector，不再扫描类的方法、字段和泛型信息
+     *
+     * @param metadata     {@link ReflectorMetadata}
+     * @param bindInvokers 是否绑定Invoker，含义同{@link #Reflector(Class, boolean)}
+     */
+    public Reflector(ReflectorMetadata metadata, boolean bindInvokers) {
+        this(metadata.getType(), metadata, bindInvokers);
+    }
+
+    private Reflector(Class<?> clazz, ReflectorMetadata metadata, boolean bindInvokers) {
 //        记录当前对象管理的类型
         type = clazz;
+        if (metadata != null) {
+            addMetadata(metadata);
+        } else {
 //        设置默认构造方法
-        addDefaultConstructor(clazz);
+            addDefaultConstructor(clazz);
 //        设置getter方法
-        addGetMethods(clazz);
+            addGetMethods(clazz);
 //        设置setter方法
-        addSetMethods(clazz);
+            addSetMethods(clazz);
 //        处理没有getter/setter的属性
-        addFields(clazz);
+            addFields(clazz);
+        }
 //        保存有getter方法的属性的名称
         readablePropertyNames = getMethods.keySet().toArray(new String[0]);
 //        保存有setter方法的属性的名称
@@ -76,6 +113,67 @@ public class Reflector {
         for (String propName : writablePropertyNames) {
             caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
         }
+        if (bindInvokers) {
+            getMethods.replaceAll((name, invoker) -> bindInvoker(invoker));
+            setMethods.replaceAll((name, invoker) -> bindInvoker(invoker));
+        }
+//        为每个属性分配下标，热点路径可以按下标直接读取数组，不再查找HashMap
+        final Set<String> propertyNames = new TreeSet<>(getMethods.keySet());
+        propertyNames.addAll(setMethods.keySet());
+        indexedPropertyNames = propertyNames.toArray(new String[0]);
+        indexedGetInvokers = new Invoker[indexedPropertyNames.length];
+        indexedSetInvokers = new Invoker[indexedPropertyNames.length];
+        indexedGetTypes = new Class<?>[indexedPropertyNames.length];
+        indexedSetTypes = new Class<?>[indexedPropertyNames.length];
+        for (int i = 0; i < indexedPropertyNames.length; i++) {
+            final String propName = indexedPropertyNames[i];
+            propertyIndexes.put(propName, i);
+            indexedGetInvokers[i] = getMethods.get(propName);
+            indexedSetInvokers[i] = setMethods.get(propName);
+            indexedGetTypes[i] = getTypes.get(propName);
+            indexedSetTypes[i] = setTypes.get(propName);
+        }
+    }
+
+    /**
+     * 把基于反射的Invoker替换为绑定后的实现，方法优先使用LambdaMetafactory，其次使用MethodHandle；
+     * AmbiguousMethodInvoker调用时需要抛出异常，保持不变
+     */
+    private static Invoker bindInvoker(Invoker invoker) {
+        Invoker bound = null;
+        if (invoker.getClass() == MethodInvoker.class) {
+            final Method method = ((MethodInvoker) invoker).getMethod();
+            bound = LambdaMethodInvoker.bind(method);
+            if (bound == null) {
+                bound = MethodHandleMethodInvoker.bind(method);
+            }
+        } else if (invoker.getClass() == GetFieldInvoker.class) {
+            bound = MethodHandleGetFieldInvoker.bind(((GetFieldInvoker) invoker).getField());
+        } else if (invoker.getClass() == SetFieldInvoker.class) {
+            bound = MethodHandleSetFieldInvoker.bind(((SetFieldInvoker) invoker).getField());
+        }
+        return bound == null ? invoker : bound;
+    }
+
+    /**
+     * 按元数据填充getter/setter映射表，元数据中的类型已经在生成时解析过泛型
+     */
+    private void addMetadata(ReflectorMetadata metadata) {
+        defaultConstructor = metadata.getDefaultConstructor();
+        for (ReflectorMetadata.Property property : metadata.getProperties()) {
+            final Member getter = property.getGetter();
+            if (getter != null) {
+                getMethods.put(property.getName(), getter instanceof Method
+                        ? new MethodInvoker((Method) getter) : new GetFieldInvoker((Field) getter));
+                getTypes.put(property.getName(), property.getGetterType());
+            }
+            final Member setter = property.getSetter();
+            if (setter != null) {
+                setMethods.put(property.getName(), setter instanceof Method
+                        ? new MethodInvoker((Method) setter) : new SetFieldInvoker((Field) setter));
+                setTypes.put(property.getName(), property.getSetterType());
+            }
+        }
     }
 
     /**
@@ -532,4 +630,66 @@ public class Reflector {
     public String findPropertyName(String name) {
         return caseInsensitivePropertyMap.get(name.toUpperCase(Locale.ENGLISH));
     }
+
+    /**
+     * 获取属性的下标，下标在同一个Reflector内稳定，可与{@link #getGetInvoker(int)}等方法配合使用
+     *
+     * @param propertyName 属性名，不支持嵌套属性和索引
+     * @return 属性下标，属性不存在时返回-1
+     */
+    public int getPropertyIndex(String propertyName) {
+        Integer index = propertyIndexes.get(propertyName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return 已分配下标的属性数量
+     */
+    public int getPropertyCount() {
+        return indexedPropertyNames.length;
+    }
+
+    public String getPropertyName(int index) {
+        return indexedPropertyNames[index];
+    }
+
+    public Invoker getSetInvoker(int index) {
+        Invoker method = indexedSetInvokers[index];
+        if (method == null) {
+            throw new ReflectionException("There is no setter for property named '" + indexedPropertyNames[index] + "' in '" + type + "'");
+        }
+        return method;
+    }
+
+    public Invoker getGetInvoker(int index) {
+        Invoker method = indexedGetInvokers[index];
+        if (method == null) {
+            throw new ReflectionException("There is no getter for property named '" + indexedPropertyNames[index] + "' in '" + type + "'");
+        }
+        return method;
+    }
+
+    public Class<?> getSetterType(int index) {
+        Class<?> clazz = indexedSetTypes[index];
+        if (clazz == null) {
+            throw new ReflectionException("There is no setter for property named '" + indexedPropertyNames[index] + "' in '" + type + "'");
+        }
+        return clazz;
+    }
+
+    public Class<?> getGetterType(int index) {
+        Class<?> clazz = indexedGetTypes[index];
+        if (clazz == null) {
+            throw new ReflectionException("There is no getter for property named '" + indexedPropertyNames[index] + "' in '" + type + "'");
+        }
+        return clazz;
+    }
+
+    public boolean hasSetter(int index) {
+        return indexedSetInvokers[index] != null;
+    }
+
+    public boolean hasGetter(int index) {
+        return indexedGetInvokers[index] != null;
+    }
 }
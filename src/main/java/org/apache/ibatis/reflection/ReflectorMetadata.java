@@ -0,0 +1,334 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 预先计算好的Reflector元数据，记录每个属性对应的getter/setter成员及解析泛型后的类型。
+ * 构建时由{@link ReflectorMetadataGenerator}写入classpath下的资源文件，
+ * 运行时由{@link PrecomputedReflectorFactory}读取，按成员签名直接定位方法和字段，
+ * 不再扫描类的全部方法、字段，也不再经过TypeParameterResolver解析泛型。
+ * 资源中记录了生成时类的成员签名摘要，类在生成之后发生变化时不使用元数据，仍按反射解析
+ */
+public final class ReflectorMetadata {
+
+    /**
+     * 元数据资源文件的目录，文件名为类的全限定名加.properties
+     */
+    public static final String RESOURCE_PREFIX = "META-INF/mybatis/reflector/";
+
+    private static final String METHOD = "method:";
+    private static final String FIELD = "field:";
+    private static final String SIGNATURE = "signature";
+
+    private static final Log log = LogFactory.getLog(ReflectorMetadata.class);
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> primitive : new Class<?>[]{boolean.class, byte.class, char.class, short.class,
+                int.class, long.class, float.class, double.class, void.class}) {
+            PRIMITIVE_TYPES.put(primitive.getName(), primitive);
+        }
+    }
+
+    private final Class<?> type;
+    private final Constructor<?> defaultConstructor;
+    private final Map<String, Property> properties;
+
+    private ReflectorMetadata(Class<?> type, Constructor<?> defaultConstructor, Map<String, Property> properties) {
+        this.type = type;
+        this.defaultConstructor = defaultConstructor;
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * 从基于反射创建的Reflector中提取元数据
+     *
+     * @param reflector 未绑定Invoker的Reflector
+     * @return 元数据，存在有歧义的getter/setter或Invoker不是反射实现时返回null，这样的类运行时仍按反射解析
+     */
+    public static ReflectorMetadata of(Reflector reflector) {
+        final Map<String, Property> properties = new LinkedHashMap<>();
+        for (int i = 0; i < reflector.getPropertyCount(); i++) {
+            final Member getter = reflector.hasGetter(i) ? toMember(reflector.getGetInvoker(i)) : null;
+            final Member setter = reflector.hasSetter(i) ? toMember(reflector.getSetInvoker(i)) : null;
+            if ((reflector.hasGetter(i) && getter == null) || (reflector.hasSetter(i) && setter == null)) {
+                return null;
+            }
+            final String name = reflector.getPropertyName(i);
+            properties.put(name, new Property(name,
+                    getter, getter == null ? null : reflector.getGetterType(i),
+                    setter, setter == null ? null : reflector.getSetterType(i)));
+        }
+        return new ReflectorMetadata(reflector.getType(),
+                reflector.hasDefaultConstructor() ? reflector.getDefaultConstructor() : null, properties);
+    }
+
+    private static Member toMember(Invoker invoker) {
+        // AmbiguousMethodInvoker调用时要抛出异常，无法用成员签名还原
+        if (invoker.getClass() == MethodInvoker.class) {
+            return ((MethodInvoker) invoker).getMethod();
+        } else if (invoker.getClass() == GetFieldInvoker.class) {
+            return ((GetFieldInvoker) invoker).getField();
+        } else if (invoker.getClass() == SetFieldInvoker.class) {
+            return ((SetFieldInvoker) invoker).getField();
+        }
+        return null;
+    }
+
+    /**
+     * 查找类对应的元数据资源
+     *
+     * @param type 类型
+     * @return 元数据，classpath中没有对应的资源或者资源与类当前的成员不一致时返回null
+     */
+    public static ReflectorMetadata find(Class<?> type) {
+        final ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null) {
+            // JDK自带的类不会生成元数据
+            return null;
+        }
+        try (InputStream in = classLoader.getResourceAsStream(resourceName(type))) {
+            if (in == null) {
+                return null;
+            }
+            final Properties metadata = new Properties();
+            metadata.load(in);
+            if (!signature(type).equals(metadata.getProperty(SIGNATURE))) {
+                // 类在生成元数据之后增加、删除或修改了成员，元数据可能遗漏属性
+                log.warn("Reflector metadata for " + type + " is out of date, falling back to reflection. Regenerate it.");
+                return null;
+            }
+            return load(type, metadata);
+        } catch (IOException e) {
+            throw new ReflectionException("Could not read reflector metadata for " + type + ".  Cause: " + e, e);
+        }
+    }
+
+    /**
+     * @param type 类型
+     * @return 类型对应的元数据资源路径
+     */
+    public static String resourceName(Class<?> type) {
+        return RESOURCE_PREFIX + type.getName() + ".properties";
+    }
+
+    /**
+     * 从资源文件的内容还原元数据，成员按记录的签名逐个定位
+     *
+     * @param type     类型
+     * @param metadata {@link #toProperties()}生成的内容
+     * @return 元数据
+     */
+    public static ReflectorMetadata load(Class<?> type, Properties metadata) {
+        if (!type.getName().equals(metadata.getProperty("type"))) {
+            throw new ReflectionException("Reflector metadata for " + type + " was generated for '" + metadata.getProperty("type") + "'.");
+        }
+        final ClassLoader classLoader = type.getClassLoader();
+        try {
+            final Constructor<?> defaultConstructor = Boolean.parseBoolean(metadata.getProperty("defaultConstructor"))
+                    ? type.getDeclaredConstructor() : null;
+            final Map<String, Property> properties = new LinkedHashMap<>();
+            final String names = metadata.getProperty("properties", "");
+            for (String name : names.isEmpty() ? new String[0] : names.split(",")) {
+                final Member getter = resolveMember(metadata.getProperty("getter." + name), classLoader);
+                final Member setter = resolveMember(metadata.getProperty("setter." + name), classLoader);
+                properties.put(name, new Property(name,
+                        getter, getter == null ? null : classForName(metadata.getProperty("getterType." + name), classLoader),
+                        setter, setter == null ? null : classForName(metadata.getProperty("setterType." + name), classLoader)));
+            }
+            return new ReflectorMetadata(type, defaultConstructor, properties);
+        } catch (ReflectiveOperationException e) {
+            throw new ReflectionException("Reflector metadata for " + type + " does not match the class, regenerate it.  Cause: " + e, e);
+        }
+    }
+
+    /**
+     * 转换为资源文件的内容
+     */
+    public Properties toProperties() {
+        final Properties metadata = new Properties();
+        metadata.setProperty("type", type.getName());
+        metadata.setProperty(SIGNATURE, signature(type));
+        metadata.setProperty("defaultConstructor", String.valueOf(defaultConstructor != null));
+        metadata.setProperty("properties", String.join(",", properties.keySet()));
+        for (Property property : properties.values()) {
+            if (property.getter != null) {
+                metadata.setProperty("getter." + property.name, toString(property.getter));
+                metadata.setProperty("getterType." + property.name, property.getterType.getName());
+            }
+            if (property.setter != null) {
+                metadata.setProperty("setter." + property.name, toString(property.setter));
+                metadata.setProperty("setterType." + property.name, property.setterType.getName());
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * 计算类的成员签名摘要，包括类及其父类（不含Object）声明的方法和字段，以及实现的接口中的方法，
+     * 这些正是Reflector扫描的范围。格式为成员数量:签名的哈希值
+     *
+     * @param type 类型
+     * @return 签名摘要
+     */
+    public static String signature(Class<?> type) {
+        // 排序后计算，与getDeclaredMethods等返回的顺序无关；跳过编译器或代码覆盖率工具生成的合成成员
+        final Set<String> members = new TreeSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                addSignature(members, method);
+            }
+            for (Field field : current.getDeclaredFields()) {
+                addSignature(members, field);
+            }
+            for (Class<?> anInterface : current.getInterfaces()) {
+                for (Method method : anInterface.getMethods()) {
+                    addSignature(members, method);
+                }
+            }
+        }
+        int hash = 0;
+        for (String member : members) {
+            hash = 31 * hash + member.hashCode();
+        }
+        return members.size() + ":" + Integer.toHexString(hash);
+    }
+
+    private static void addSignature(Set<String> members, Member member) {
+        if (!member.isSynthetic()) {
+            members.add(member instanceof Method ? ((Method) member).toGenericString() : ((Field) member).toGenericString());
+        }
+    }
+
+    // 方法记录为method:声明类#方法名(参数类型,...)，字段记录为field:声明类#字段名
+    private static String toString(Member member) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(member instanceof Method ? METHOD : FIELD)
+                .append(member.getDeclaringClass().getName()).append('#').append(member.getName());
+        if (member instanceof Method) {
+            sb.append('(');
+            final Class<?>[] parameterTypes = ((Method) member).getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                sb.append(i == 0 ? "" : ",").append(parameterTypes[i].getName());
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    private static Member resolveMember(String value, ClassLoader classLoader) throws ReflectiveOperationException {
+        if (value == null) {
+            return null;
+        }
+        final boolean method = value.startsWith(METHOD);
+        final String signature = value.substring(method ? METHOD.length() : FIELD.length());
+        final int hash = signature.indexOf('#');
+        final Class<?> declaringClass = classForName(signature.substring(0, hash), classLoader);
+        if (!method) {
+            return declaringClass.getDeclaredField(signature.substring(hash + 1));
+        }
+        final int paren = signature.indexOf('(', hash);
+        final String parameters = signature.substring(paren + 1, signature.length() - 1);
+        final String[] parameterNames = parameters.isEmpty() ? new String[0] : parameters.split(",");
+        final Class<?>[] parameterTypes = new Class<?>[parameterNames.length];
+        for (int i = 0; i < parameterNames.length; i++) {
+            parameterTypes[i] = classForName(parameterNames[i], classLoader);
+        }
+        return declaringClass.getDeclaredMethod(signature.substring(hash + 1, paren), parameterTypes);
+    }
+
+    private static Class<?> classForName(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        final Class<?> primitive = PRIMITIVE_TYPES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, classLoader);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return 无参构造方法，不存在时返回null
+     */
+    public Constructor<?> getDefaultConstructor() {
+        return defaultConstructor;
+    }
+
+    public Collection<Property> getProperties() {
+        return properties.values();
+    }
+
+    /**
+     * 单个属性的元数据，getter/setter为{@link Method}或{@link Field}，不存在时为null
+     */
+    public static final class Property {
+        private final String name;
+        private final Member getter;
+        private final Class<?> getterType;
+        private final Member setter;
+        private final Class<?> setterType;
+
+        private Property(String name, Member getter, Class<?> getterType, Member setter, Class<?> setterType) {
+            this.name = name;
+            this.getter = getter;
+            this.getterType = getterType;
+            this.setter = setter;
+            this.setterType = setterType;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Member getGetter() {
+            return getter;
+        }
+
+        public Class<?> getGetterType() {
+            return getterType;
+        }
+
+        public Member getSetter() {
+            return setter;
+        }
+
+        public Class<?> getSetterType() {
+            return setterType;
+        }
+    }
+}
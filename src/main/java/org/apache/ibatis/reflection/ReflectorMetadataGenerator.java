@@ -0,0 +1,200 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 构建时生成Reflector元数据的工具，把生成的资源打包进应用后由{@link PrecomputedReflectorFactory}读取。
+ * 同时生成GraalVM native-image需要的reflect-config.json和resource-config.json，
+ * 登记元数据用到的构造方法、getter/setter和字段。
+ * 可以在构建中通过exec-maven-plugin调用：
+ * <pre>
+ * java org.apache.ibatis.reflection.ReflectorMetadataGenerator target/classes com.example.domain com.example.dto.OrderDto
+ * </pre>
+ * 第一个参数是输出目录，其余参数是类名或包名，包会连同子包一起扫描
+ */
+public class ReflectorMetadataGenerator {
+
+    /**
+     * native-image配置的输出目录
+     */
+    public static final String NATIVE_IMAGE_CONFIG_DIRECTORY = "META-INF/native-image/org.mybatis/reflector/";
+
+    private static final Log log = LogFactory.getLog(ReflectorMetadataGenerator.class);
+
+    private final File outputDirectory;
+    // 按名称排序，保证重复构建的输出一致
+    private final Map<String, Set<String>> reflectMethods = new TreeMap<>();
+    private final Map<String, Set<String>> reflectFields = new TreeMap<>();
+
+    public ReflectorMetadataGenerator(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: ReflectorMetadataGenerator <outputDirectory> <class or package>...");
+        }
+        final Set<Class<?>> types = new LinkedHashSet<>();
+        for (String name : Arrays.asList(args).subList(1, args.length)) {
+            types.addAll(resolveTypes(name));
+        }
+        final ReflectorMetadataGenerator generator = new ReflectorMetadataGenerator(new File(args[0]));
+        final int generated = generator.generate(types);
+        generator.writeNativeImageConfig();
+        if (log.isDebugEnabled()) {
+            log.debug("Generated reflector metadata for " + generated + " of " + types.size() + " classes.");
+        }
+    }
+
+    private static Collection<Class<?>> resolveTypes(String name) throws ClassNotFoundException {
+        try {
+            return Arrays.asList(Resources.classForName(name));
+        } catch (ClassNotFoundException e) {
+            final ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+            resolverUtil.find(new ResolverUtil.IsA(Object.class), name);
+            if (resolverUtil.getClasses().isEmpty()) {
+                throw e;
+            }
+            return new ArrayList<>(resolverUtil.getClasses());
+        }
+    }
+
+    /**
+     * 为指定的类生成元数据资源
+     *
+     * @param types 类型
+     * @return 实际生成的数量，接口、注解以及存在有歧义的getter/setter的类会被跳过
+     */
+    public int generate(Collection<Class<?>> types) throws IOException {
+        int generated = 0;
+        for (Class<?> type : types) {
+            if (type.isInterface() || type.isAnnotation() || type.isAnonymousClass() || type.isSynthetic()) {
+                continue;
+            }
+            final ReflectorMetadata metadata = ReflectorMetadata.of(new Reflector(type));
+            if (metadata != null) {
+                write(ReflectorMetadata.resourceName(type), toString(metadata));
+                register(metadata);
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    private static String toString(ReflectorMetadata metadata) throws IOException {
+        // Properties.store会写入时间戳且不保证顺序，这里去掉注释行后按键排序
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metadata.toProperties().store(out, null);
+        final Set<String> lines = new TreeSet<>();
+        for (String line : new String(out.toByteArray(), StandardCharsets.ISO_8859_1).split("\\r?\\n")) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                lines.add(line);
+            }
+        }
+        return String.join("\n", lines) + "\n";
+    }
+
+    private void register(ReflectorMetadata metadata) {
+        final Constructor<?> defaultConstructor = metadata.getDefaultConstructor();
+        reflectMethods.computeIfAbsent(metadata.getType().getName(), k -> new TreeSet<>());
+        if (defaultConstructor != null) {
+            reflectMethods.get(metadata.getType().getName()).add(methodEntry("<init>", defaultConstructor.getParameterTypes()));
+        }
+        for (ReflectorMetadata.Property property : metadata.getProperties()) {
+            register(property.getGetter());
+            register(property.getSetter());
+            if (property.getGetterType() != null && !property.getGetterType().isPrimitive()) {
+                reflectMethods.computeIfAbsent(property.getGetterType().getName(), k -> new TreeSet<>());
+            }
+            if (property.getSetterType() != null && !property.getSetterType().isPrimitive()) {
+                reflectMethods.computeIfAbsent(property.getSetterType().getName(), k -> new TreeSet<>());
+            }
+        }
+    }
+
+    private void register(Member member) {
+        if (member == null) {
+            return;
+        }
+        final String declaringClass = member.getDeclaringClass().getName();
+        reflectMethods.computeIfAbsent(declaringClass, k -> new TreeSet<>());
+        if (member instanceof Method) {
+            reflectMethods.get(declaringClass).add(methodEntry(member.getName(), ((Method) member).getParameterTypes()));
+        } else {
+            reflectFields.computeIfAbsent(declaringClass, k -> new TreeSet<>())
+                    .add("{\"name\":\"" + member.getName() + "\",\"allowWrite\":true}");
+        }
+    }
+
+    private static String methodEntry(String name, Class<?>[] parameterTypes) {
+        final StringBuilder sb = new StringBuilder("{\"name\":\"").append(name).append("\",\"parameterTypes\":[");
+        for (int i = 0; i < parameterTypes.length; i++) {
+            sb.append(i == 0 ? "" : ",").append('"').append(parameterTypes[i].getName()).append('"');
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * 写入native-image的反射和资源配置，包含之前所有{@link #generate(Collection)}调用涉及的类
+     */
+    public void writeNativeImageConfig() throws IOException {
+        final List<String> entries = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : reflectMethods.entrySet()) {
+            final StringBuilder sb = new StringBuilder("  {\"name\":\"").append(entry.getKey()).append('"');
+            if (!entry.getValue().isEmpty()) {
+                sb.append(",\"methods\":[").append(String.join(",", entry.getValue())).append(']');
+            }
+            final Set<String> fields = reflectFields.get(entry.getKey());
+            if (fields != null) {
+                sb.append(",\"fields\":[").append(String.join(",", fields)).append(']');
+            }
+            entries.add(sb.append('}').toString());
+        }
+        write(NATIVE_IMAGE_CONFIG_DIRECTORY + "reflect-config.json", "[\n" + String.join(",\n", entries) + "\n]\n");
+        write(NATIVE_IMAGE_CONFIG_DIRECTORY + "resource-config.json",
+                "{\"resources\":{\"includes\":[{\"pattern\":\"\\\\Q" + ReflectorMetadata.RESOURCE_PREFIX + "\\\\E.*\"}]}}\n");
+    }
+
+    private void write(String resourceName, String content) throws IOException {
+        final File file = new File(outputDirectory, resourceName);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+}
@@ -17,6 +17,9 @@ package org.apache.ibatis.reflection;
 
 import java.lang.reflect.*;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Iwao AVE!
@@ -24,6 +27,15 @@ import java.util.Arrays;
  */
 public class TypeParameterResolver {
 
+    // 按srcType缓存的解析结果。缓存挂在srcType的Class上，随类一起回收，不会让已卸载的类加载器无法回收。
+    // 由父类加载器加载的类（如JDK的类）持有缓存会反过来使本类的类加载器无法回收，这些类不缓存
+    private static final ClassValue<ResolvedTypes> resolvedTypes = new ClassValue<ResolvedTypes>() {
+        @Override
+        protected ResolvedTypes computeValue(Class<?> type) {
+            return isVisibleFrom(type.getClassLoader()) ? new ResolvedTypes() : null;
+        }
+    };
+
     /**
      * Resolve field type.
      *
@@ -34,9 +46,17 @@ public class TypeParameterResolver {
      * 推解析srcType类型的field属性的泛型
      */
     public static Type resolveFieldType(Field field, Type srcType) {
-        Type fieldType = field.getGenericType();
-        Class<?> declaringClass = field.getDeclaringClass();
-        return resolveType(fieldType, srcType, declaringClass);
+        ResolvedTypes cache = srcType instanceof Class ? resolvedTypes.get((Class<?>) srcType) : null;
+        Type resolved = cache == null ? null : cache.types.get(field);
+        if (resolved == null) {
+            Type fieldType = field.getGenericType();
+            Class<?> declaringClass = field.getDeclaringClass();
+            resolved = resolveType(fieldType, srcType, declaringClass);
+            if (cache != null) {
+                resolved = cache.putType(field, resolved);
+            }
+        }
+        return resolved;
     }
 
     /**
@@ -49,12 +69,20 @@ public class TypeParameterResolver {
      * 解析srcType类型的method方法的返回类型的泛型
      */
     public static Type resolveReturnType(Method method, Type srcType) {
-        // 获取这个方法真正的返回类型
-        Type returnType = method.getGenericReturnType();
-        // 获取申明这个方法的具体的类的类型
-        Class<?> declaringClass = method.getDeclaringClass();
-        // 一般返回值就是returnType, resolveType()针对泛型带有泛型的情况做处理
-        return resolveType(returnType, srcType, declaringClass);
+        ResolvedTypes cache = srcType instanceof Class ? resolvedTypes.get((Class<?>) srcType) : null;
+        Type resolved = cache == null ? null : cache.types.get(method);
+        if (resolved == null) {
+            // 获取这个方法真正的返回类型
+            Type returnType = method.getGenericReturnType();
+            // 获取申明这个方法的具体的类的类型
+            Class<?> declaringClass = method.getDeclaringClass();
+            // 一般返回值就是returnType, resolveType()针对泛型带有泛型的情况做处理
+            resolved = resolveType(returnType, srcType, declaringClass);
+            if (cache != null) {
+                resolved = cache.putType(method, resolved);
+            }
+        }
+        return resolved;
     }
 
     /**
@@ -68,13 +96,22 @@ public class TypeParameterResolver {
      * 解析scrType的method方法的参数的泛型
      */
     public static Type[] resolveParamTypes(Method method, Type srcType) {
-        Type[] paramTypes = method.getGenericParameterTypes();
-        Class<?> declaringClass = method.getDeclaringClass();
-        Type[] result = new Type[paramTypes.length];
-        for (int i = 0; i < paramTypes.length; i++) {
-            result[i] = resolveType(paramTypes[i], srcType, declaringClass);
+        ResolvedTypes cache = srcType instanceof Class ? resolvedTypes.get((Class<?>) srcType) : null;
+        Type[] resolved = cache == null ? null : cache.paramTypes.get(method);
+        if (resolved == null) {
+            Type[] paramTypes = method.getGenericParameterTypes();
+            Class<?> declaringClass = method.getDeclaringClass();
+            resolved = new Type[paramTypes.length];
+            for (int i = 0; i < paramTypes.length; i++) {
+                resolved[i] = resolveType(paramTypes[i], srcType, declaringClass);
+            }
+            if (cache != null) {
+                Type[] existing = cache.paramTypes.putIfAbsent(method, resolved);
+                resolved = existing == null ? resolved : existing;
+            }
         }
-        return result;
+        // 缓存的数组是共享的，返回副本
+        return resolved.clone();
     }
 
     /**
@@ -279,10 +316,45 @@ public class TypeParameterResolver {
         return noChange ? parentType : new ParameterizedTypeImpl((Class<?>) parentType.getRawType(), null, newParentArgs);
     }
 
+    // 本类的类加载器是否是给定类加载器本身或它的祖先
+    private static boolean isVisibleFrom(ClassLoader classLoader) {
+        final ClassLoader ownClassLoader = TypeParameterResolver.class.getClassLoader();
+        if (ownClassLoader == null) {
+            return true;
+        }
+        for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+            if (cl == ownClassLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private TypeParameterResolver() {
         super();
     }
 
+    /**
+     * 一个srcType下的解析结果
+     */
+    private static final class ResolvedTypes {
+        // 字段类型或方法返回类型
+        private final ConcurrentMap<Member, Type> types = new ConcurrentHashMap<>();
+        // 方法参数类型
+        private final ConcurrentMap<Method, Type[]> paramTypes = new ConcurrentHashMap<>();
+        // 解析出的参数化类型的规范实例，同一srcType下内容相同的参数化类型共用一个对象
+        private final ConcurrentMap<ParameterizedType, ParameterizedType> canonicalTypes = new ConcurrentHashMap<>();
+
+        Type putType(Member member, Type type) {
+            if (type instanceof ParameterizedType) {
+                ParameterizedType canonical = canonicalTypes.putIfAbsent((ParameterizedType) type, (ParameterizedType) type);
+                type = canonical == null ? type : canonical;
+            }
+            Type existing = types.putIfAbsent(member, type);
+            return existing == null ? type : existing;
+        }
+    }
+
     static class ParameterizedTypeImpl implements ParameterizedType {
         private Class<?> rawType;
 
@@ -299,7 +371,8 @@ public class TypeParameterResolver {
 
         @Override
         public Type[] getActualTypeArguments() {
-            return actualTypeArguments;
+            // 实例会被共享，返回副本
+            return actualTypeArguments.clone();
         }
 
         @Override
@@ -316,6 +389,25 @@ public class TypeParameterResolver {
         public String toString() {
             return "ParameterizedTypeImpl [rawType=" + rawType + ", ownerType=" + ownerType + ", actualTypeArguments=" + Arrays.toString(actualTypeArguments) + "]";
         }
+
+        // 与JDK的ParameterizedType实现保持一致
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType that = (ParameterizedType) o;
+            return rawType.equals(that.getRawType()) && Objects.equals(ownerType, that.getOwnerType())
+                    && Arrays.equals(actualTypeArguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ rawType.hashCode();
+        }
     }
 
     static class WildcardTypeImpl implements WildcardType {
@@ -331,12 +423,29 @@ public class TypeParameterResolver {
 
         @Override
         public Type[] getLowerBounds() {
-            return lowerBounds;
+            return lowerBounds.clone();
         }
 
         @Override
         public Type[] getUpperBounds() {
-            return upperBounds;
+            return upperBounds.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WildcardType)) {
+                return false;
+            }
+            WildcardType that = (WildcardType) o;
+            return Arrays.equals(lowerBounds, that.getLowerBounds()) && Arrays.equals(upperBounds, that.getUpperBounds());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
         }
     }
 
@@ -352,5 +461,21 @@ public class TypeParameterResolver {
         public Type getGenericComponentType() {
             return genericComponentType;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GenericArrayType)) {
+                return false;
+            }
+            return Objects.equals(genericComponentType, ((GenericArrayType) o).getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(genericComponentType);
+        }
     }
 }
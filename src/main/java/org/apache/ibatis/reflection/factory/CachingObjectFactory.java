@@ -0,0 +1,244 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.factory;
+
+import org.apache.ibatis.lang.UsesJava8;
+import org.apache.ibatis.reflection.Reflector;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 缓存构造方法的ObjectFactory。DefaultObjectFactory每创建一个对象都要查找构造方法，必要时还要修改访问权限，
+ * 这里每个类型只查找一次：public的无参构造方法通过LambdaMetafactory绑定为Supplier，其他构造方法绑定为MethodHandle，
+ * 无法绑定时（找不到构造方法、抽象类等）交给DefaultObjectFactory处理，异常信息与其一致。
+ * 创建集合时还会按{@link #create(Class, int)}的容量提示预先分配空间。
+ * 通过&lt;objectFactory type="org.apache.ibatis.reflection.factory.CachingObjectFactory"/&gt;启用
+ */
+public class CachingObjectFactory extends DefaultObjectFactory {
+
+    private static final long serialVersionUID = 3216527380512419475L;
+
+    // 无法绑定的类型，交给DefaultObjectFactory处理
+    private static final Instantiator UNBOUND = args -> null;
+    private static final MethodType NO_ARG_TYPE = MethodType.methodType(Object.class);
+    private static final Class<?>[] NO_ARG_TYPES = new Class<?>[0];
+
+    // 类型 -> 无参构造方法
+    private transient ConcurrentMap<Class<?>, Instantiator> defaultConstructors = new ConcurrentHashMap<>();
+    // (类型, 参数类型) -> 有参构造方法
+    private transient ConcurrentMap<ConstructorKey, Instantiator> constructors = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+        final Instantiator instantiator;
+        final Object[] args;
+        if (constructorArgTypes == null || constructorArgs == null) {
+            Instantiator cached = defaultConstructors.get(type);
+            if (cached == null) {
+                cached = defaultConstructors.computeIfAbsent(type, this::bindDefaultConstructor);
+            }
+            instantiator = cached;
+            args = null;
+        } else {
+            final ConstructorKey key = new ConstructorKey(type, constructorArgTypes);
+            Instantiator cached = constructors.get(key);
+            if (cached == null) {
+                cached = constructors.computeIfAbsent(key, this::bindConstructor);
+            }
+            instantiator = cached;
+            args = constructorArgs.toArray();
+        }
+        if (instantiator == UNBOUND || args != null && args.length != constructorArgTypes.size()) {
+            return super.create(type, constructorArgTypes, constructorArgs);
+        }
+        try {
+            return (T) instantiator.newInstance(args);
+        } catch (Error e) {
+            // OutOfMemoryError、StackOverflowError等错误不包装为ReflectionException
+            throw e;
+        } catch (Throwable t) {
+            // 与Constructor.newInstance一致，构造方法抛出的异常包装为InvocationTargetException，异常信息与DefaultObjectFactory相同
+            throw instantiationException(resolveInterface(type), constructorArgTypes, constructorArgs, new InvocationTargetException(t));
+        }
+    }
+
+    /**
+     * 按容量提示创建集合，ArrayList、HashMap、HashSet等常用实现会预先分配空间，其他类型忽略提示
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T create(Class<T> type, int expectedSize) {
+        if (expectedSize > 0) {
+            final Class<?> classToCreate = resolveInterface(type);
+            if (classToCreate == ArrayList.class) {
+                return (T) new ArrayList<>(expectedSize);
+            } else if (classToCreate == HashMap.class) {
+                return (T) new HashMap<>(hashCapacity(expectedSize));
+            } else if (classToCreate == LinkedHashMap.class) {
+                return (T) new LinkedHashMap<>(hashCapacity(expectedSize));
+            } else if (classToCreate == HashSet.class) {
+                return (T) new HashSet<>(hashCapacity(expectedSize));
+            } else if (classToCreate == LinkedHashSet.class) {
+                return (T) new LinkedHashSet<>(hashCapacity(expectedSize));
+            }
+        }
+        return create(type);
+    }
+
+    // 按默认负载因子放下expectedSize个元素且不扩容的容量
+    private static int hashCapacity(int expectedSize) {
+        return expectedSize < (1 << 29) ? (int) (expectedSize / 0.75f) + 1 : Integer.MAX_VALUE;
+    }
+
+    private Instantiator bindDefaultConstructor(Class<?> type) {
+        final Class<?> classToCreate = resolveInterface(type);
+        if (!isInstantiable(classToCreate)) {
+            return UNBOUND;
+        }
+        try {
+            final Constructor<?> constructor = classToCreate.getDeclaredConstructor();
+            final Supplier<?> supplier = bindSupplier(constructor);
+            if (supplier != null) {
+                return args -> supplier.get();
+            }
+            return bindMethodHandle(constructor, NO_ARG_TYPES);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return UNBOUND;
+        }
+    }
+
+    private Instantiator bindConstructor(ConstructorKey key) {
+        final Class<?> classToCreate = resolveInterface(key.type);
+        if (!isInstantiable(classToCreate)) {
+            return UNBOUND;
+        }
+        try {
+            return bindMethodHandle(classToCreate.getDeclaredConstructor(key.argTypes), key.argTypes);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return UNBOUND;
+        }
+    }
+
+    private static Instantiator bindMethodHandle(Constructor<?> constructor, Class<?>[] argTypes) {
+        final MethodHandle handle = unreflect(constructor);
+        if (handle == null) {
+            return UNBOUND;
+        }
+        // 统一为(Object[])Object，调用时展开参数数组，无参构造方法的参数数组为null
+        final MethodHandle target = handle.asType(handle.type().generic()).asSpreader(Object[].class, argTypes.length);
+        return args -> (Object) target.invokeExact(args);
+    }
+
+    private static boolean isInstantiable(Class<?> type) {
+        return !type.isInterface() && !Modifier.isAbstract(type.getModifiers()) && !type.isPrimitive() && !type.isArray();
+    }
+
+    // 与DefaultObjectFactory一致，无法直接访问时尝试修改访问权限，仍无法访问时返回null
+    private static MethodHandle unreflect(Constructor<?> constructor) {
+        try {
+            if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) {
+                if (!Reflector.canControlMemberAccessible()) {
+                    return null;
+                }
+                constructor.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // public类的public无参构造方法绑定为Supplier，调用时是普通的接口调用
+    @UsesJava8
+    private static Supplier<?> bindSupplier(Constructor<?> constructor) {
+        final Class<?> type = constructor.getDeclaringClass();
+        if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(type.getModifiers()) || !isVisible(type)) {
+            return null;
+        }
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    NO_ARG_TYPE, lookup.unreflectConstructor(constructor), MethodType.methodType(type));
+            return (Supplier<?>) callSite.getTarget().invokeExact();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    // 生成的类定义在MyBatis的类加载器中，必须能通过它找到同一个类
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, CachingObjectFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        defaultConstructors = new ConcurrentHashMap<>();
+        constructors = new ConcurrentHashMap<>();
+    }
+
+    @FunctionalInterface
+    private interface Instantiator {
+        Object newInstance(Object[] args) throws Throwable;
+    }
+
+    private static final class ConstructorKey {
+        private final Class<?> type;
+        private final Class<?>[] argTypes;
+        private final int hashCode;
+
+        ConstructorKey(Class<?> type, List<Class<?>> argTypes) {
+            this.type = type;
+            this.argTypes = argTypes.toArray(new Class<?>[0]);
+            this.hashCode = type.hashCode() * 31 + Arrays.hashCode(this.argTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConstructorKey)) {
+                return false;
+            }
+            ConstructorKey that = (ConstructorKey) o;
+            return type == that.type && Arrays.equals(argTypes, that.argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+}
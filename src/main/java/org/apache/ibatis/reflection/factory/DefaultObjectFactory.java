@@ -98,16 +98,20 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
                 }
             }
         } catch (Exception e) {
-            // 收集所有参数类型
-            String argTypes = Optional.ofNullable(constructorArgTypes).orElseGet(Collections::emptyList)
-                    .stream().map(Class::getSimpleName).collect(Collectors.joining(","));
-            // 收集所有参数
-            String argValues = Optional.ofNullable(constructorArgs).orElseGet(Collections::emptyList)
-                    .stream().map(String::valueOf).collect(Collectors.joining(","));
-            throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+            throw instantiationException(type, constructorArgTypes, constructorArgs, e);
         }
     }
 
+    static ReflectionException instantiationException(Class<?> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Throwable e) {
+        // 收集所有参数类型
+        String argTypes = Optional.ofNullable(constructorArgTypes).orElseGet(Collections::emptyList)
+                .stream().map(Class::getSimpleName).collect(Collectors.joining(","));
+        // 收集所有参数
+        String argValues = Optional.ofNullable(constructorArgs).orElseGet(Collections::emptyList)
+                .stream().map(String::valueOf).collect(Collectors.joining(","));
+        return new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+    }
+
     /**
      * 当传入类型是接口时，找到一个符合该接口的实现，返回其实例。
      */
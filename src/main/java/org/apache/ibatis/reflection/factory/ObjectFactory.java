@@ -59,6 +59,20 @@ public interface ObjectFactory {
      */
     <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs);
 
+    /**
+     * Creates a new collection or map that is expected to hold the given number of elements.
+     * The default implementation ignores the hint.
+     *
+     * @param <T>          the generic type
+     * @param type         Object type
+     * @param expectedSize expected number of elements
+     * @return the t
+     * 创建预计容纳expectedSize个元素的集合，实现可以据此预先分配容量
+     */
+    default <T> T create(Class<T> type, int expectedSize) {
+        return create(type);
+    }
+
     /**
      * Returns true if this object can have a set of other objects.
      * It's main purpose is to support non-java.util.Collection objects like Scala collections.
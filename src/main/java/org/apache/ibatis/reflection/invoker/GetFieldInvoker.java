@@ -60,4 +60,8 @@ public class GetFieldInvoker implements Invoker {
     public Class<?> getType() {
         return field.getType();
     }
+
+    public Field getField() {
+        return field;
+    }
 }
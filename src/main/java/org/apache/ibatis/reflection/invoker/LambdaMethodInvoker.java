@@ -0,0 +1,105 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import org.apache.ibatis.lang.UsesJava8;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 通过LambdaMetafactory把getter/setter绑定为Function/BiConsumer的实现类，
+ * 调用时是普通的接口调用，JIT可以像手写代码一样内联，不再经过Method.invoke的参数检查和数组包装。
+ * 只能绑定MyBatis所在的类加载器可见的public类的public方法，其他方法由{@link MethodHandleMethodInvoker}处理
+ */
+public class LambdaMethodInvoker extends MethodInvoker {
+
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    private LambdaMethodInvoker(Method method, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        super(method);
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * 绑定getter或setter
+     *
+     * @param method 没有参数的getter或只有一个参数的setter
+     * @return 绑定后的Invoker，无法绑定时返回null
+     */
+    @SuppressWarnings("unchecked")
+    @UsesJava8
+    public static LambdaMethodInvoker bind(Method method) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())
+                || !isVisible(declaringClass) || method.getParameterCount() > 1) {
+            return null;
+        }
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle target = lookup.unreflect(method);
+            if (method.getParameterCount() == 0) {
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), target,
+                        MethodType.methodType(box(method.getReturnType()), declaringClass));
+                return new LambdaMethodInvoker(method, (Function<Object, Object>) callSite.getTarget().invokeExact(), null);
+            }
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), target,
+                    MethodType.methodType(void.class, declaringClass, box(method.getParameterTypes()[0])));
+            return new LambdaMethodInvoker(method, null, (BiConsumer<Object, Object>) callSite.getTarget().invokeExact());
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    // 生成的类定义在MyBatis的类加载器中，必须能通过它找到同一个类
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, LambdaMethodInvoker.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        try {
+            if (getter != null) {
+                return getter.apply(target);
+            }
+            setter.accept(target, args[0]);
+            return null;
+        } catch (Throwable t) {
+            // 与Method.invoke一致，方法抛出的异常包装为InvocationTargetException
+            throw new InvocationTargetException(t);
+        }
+    }
+}
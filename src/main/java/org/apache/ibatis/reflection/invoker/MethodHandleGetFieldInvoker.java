@@ -0,0 +1,67 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.Reflector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 把字段的读操作绑定为MethodHandle的Invoker，访问检查只在绑定时进行一次
+ */
+public class MethodHandleGetFieldInvoker extends GetFieldInvoker {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final MethodHandle getter;
+
+    private MethodHandleGetFieldInvoker(Field field, MethodHandle getter) {
+        super(field);
+        this.getter = getter;
+    }
+
+    /**
+     * @param field 字段
+     * @return 绑定后的Invoker，无法访问时返回null
+     */
+    public static MethodHandleGetFieldInvoker bind(Field field) {
+        try {
+            if (Reflector.canControlMemberAccessible()) {
+                field.setAccessible(true);
+            }
+            return new MethodHandleGetFieldInvoker(field, MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    @UsesJava7
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // 读取字段不会抛出受检异常
+            throw new IllegalStateException(t);
+        }
+    }
+}
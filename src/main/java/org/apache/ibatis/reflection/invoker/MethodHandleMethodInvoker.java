@@ -0,0 +1,82 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.Reflector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 把getter/setter绑定为MethodHandle的Invoker，用于LambdaMetafactory无法访问的方法，
+ * 访问检查只在绑定时进行一次
+ */
+public class MethodHandleMethodInvoker extends MethodInvoker {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    // 类型为(Object)Object的getter或(Object, Object)void的setter
+    private final MethodHandle handle;
+    private final boolean setter;
+
+    private MethodHandleMethodInvoker(Method method, MethodHandle handle, boolean setter) {
+        super(method);
+        this.handle = handle;
+        this.setter = setter;
+    }
+
+    /**
+     * 绑定getter或setter
+     *
+     * @param method 没有参数的getter或只有一个参数的setter
+     * @return 绑定后的Invoker，无法访问时返回null
+     */
+    public static MethodHandleMethodInvoker bind(Method method) {
+        if (method.getParameterCount() > 1) {
+            return null;
+        }
+        try {
+            if (Reflector.canControlMemberAccessible()) {
+                method.setAccessible(true);
+            }
+            final MethodHandle target = MethodHandles.lookup().unreflect(method);
+            final boolean setter = method.getParameterCount() == 1;
+            return new MethodHandleMethodInvoker(method, target.asType(setter ? SETTER_TYPE : GETTER_TYPE), setter);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    @UsesJava7
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        try {
+            if (setter) {
+                handle.invokeExact(target, args[0]);
+                return null;
+            }
+            return (Object) handle.invokeExact(target);
+        } catch (Throwable t) {
+            // 与Method.invoke一致，方法抛出的异常包装为InvocationTargetException
+            throw new InvocationTargetException(t);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.Reflector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 把字段的写操作绑定为MethodHandle的Invoker，访问检查只在绑定时进行一次。
+ * final字段无法生成setter的MethodHandle，仍由{@link SetFieldInvoker}通过反射写入
+ */
+public class MethodHandleSetFieldInvoker extends SetFieldInvoker {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle setter;
+    private final boolean primitive;
+
+    private MethodHandleSetFieldInvoker(Field field, MethodHandle setter) {
+        super(field);
+        this.setter = setter;
+        this.primitive = field.getType().isPrimitive();
+    }
+
+    /**
+     * @param field 字段
+     * @return 绑定后的Invoker，无法访问时返回null
+     */
+    public static MethodHandleSetFieldInvoker bind(Field field) {
+        try {
+            if (Reflector.canControlMemberAccessible()) {
+                field.setAccessible(true);
+            }
+            return new MethodHandleSetFieldInvoker(field, MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    @UsesJava7
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+        if (primitive && args[0] == null) {
+            // 与Field.set一致，基本类型字段写入null时抛出IllegalArgumentException，而不是拆箱时的NullPointerException
+            final Field field = getField();
+            throw new IllegalArgumentException("Can not set " + field.getType().getName() + " field "
+                    + field.getDeclaringClass().getName() + "." + field.getName() + " to null value");
+        }
+        try {
+            setter.invokeExact(target, args[0]);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // 写入字段不会抛出受检异常
+            throw new IllegalStateException(t);
+        }
+        return null;
+    }
+}
@@ -58,4 +58,8 @@ public class MethodInvoker implements Invoker {
     public Class<?> getType() {
         return type;
     }
+
+    public Method getMethod() {
+        return method;
+    }
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预先解析的属性路径，如user[uId].name会被拆分为user[uId]和name两段。
+ * 与每次访问都创建{@link PropertyTokenizer}并截取字符串不同，属性路径只在创建时解析一次，
+ * 每一段还缓存了最近一次访问的类对应的getter/setter，由ParameterMapping和ResultMapping持有，
+ * 通过{@link org.apache.ibatis.reflection.MetaObject#getValue(PropertyPath)}等方法使用。
+ * 对象不可变（Invoker缓存除外），可以在线程间共享
+ */
+public final class PropertyPath {
+
+    private final String fullName;
+    private final Segment[] segments;
+
+    private PropertyPath(String fullName, Segment[] segments) {
+        this.fullName = fullName;
+        this.segments = segments;
+    }
+
+    /**
+     * 解析属性路径
+     *
+     * @param fullName 属性表达式
+     * @return 属性路径
+     */
+    public static PropertyPath parse(String fullName) {
+        final List<Segment> segments = new ArrayList<>();
+        String remaining = fullName;
+        while (remaining != null) {
+            final PropertyTokenizer prop = new PropertyTokenizer(remaining);
+            segments.add(new Segment(remaining, prop));
+            remaining = prop.getChildren();
+        }
+        return new PropertyPath(fullName, segments.toArray(new Segment[0]));
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    /**
+     * @return 第一段的属性名，不含索引
+     */
+    public String getRootName() {
+        return segments[0].getName();
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    public Segment getSegment(int index) {
+        return segments[index];
+    }
+
+    @Override
+    public String toString() {
+        return fullName;
+    }
+
+    /**
+     * 属性路径中的一段
+     */
+    public static final class Segment {
+        // 从这一段开始的剩余路径，如user[uId].name中第一段为user[uId].name
+        private final String path;
+        private final String name;
+        private final String index;
+        // 不含后续路径的分词结果，交给ObjectWrapper使用
+        private final PropertyTokenizer tokenizer;
+        private volatile CachedInvoker getter;
+        private volatile CachedInvoker setter;
+
+        private Segment(String path, PropertyTokenizer prop) {
+            this.path = path;
+            this.name = prop.getName();
+            this.index = prop.getIndex();
+            this.tokenizer = new PropertyTokenizer(prop.getIndexedName());
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public PropertyTokenizer getTokenizer() {
+            return tokenizer;
+        }
+
+        /**
+         * 获取指定类中该属性的getter，同一个类连续访问时不再查找Reflector
+         *
+         * @param type             对象的类型
+         * @param reflectorFactory 反射工厂
+         * @return getter
+         */
+        public Invoker getGetInvoker(Class<?> type, ReflectorFactory reflectorFactory) {
+            final CachedInvoker cached = getter;
+            if (cached != null && cached.type == type) {
+                return cached.invoker;
+            }
+            final Invoker invoker = reflectorFactory.findForClass(type).getGetInvoker(name);
+            getter = new CachedInvoker(type, invoker);
+            return invoker;
+        }
+
+        /**
+         * 获取指定类中该属性的setter，同一个类连续访问时不再查找Reflector
+         *
+         * @param type             对象的类型
+         * @param reflectorFactory 反射工厂
+         * @return setter
+         */
+        public Invoker getSetInvoker(Class<?> type, ReflectorFactory reflectorFactory) {
+            final CachedInvoker cached = setter;
+            if (cached != null && cached.type == type) {
+                return cached.invoker;
+            }
+            final Invoker invoker = reflectorFactory.findForClass(type).getSetInvoker(name);
+            setter = new CachedInvoker(type, invoker);
+            return invoker;
+        }
+    }
+
+    private static final class CachedInvoker {
+        private final Class<?> type;
+        private final Invoker invoker;
+
+        private CachedInvoker(Class<?> type, Invoker invoker) {
+            this.type = type;
+            this.invoker = invoker;
+        }
+    }
+
+}
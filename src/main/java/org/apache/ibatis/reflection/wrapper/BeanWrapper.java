@@ -204,6 +204,56 @@ public class BeanWrapper extends BaseWrapper {
         return metaValue;
     }
 
+    /**
+     * 获取属性下标，配合{@link #get(int)}和{@link #set(int, Object)}使用
+     *
+     * @param name 属性名
+     * @return 属性下标，不存在或为嵌套属性时返回-1
+     */
+    public int propertyIndex(String name) {
+        return metaClass.propertyIndex(name);
+    }
+
+    /**
+     * 按下标读取属性值
+     *
+     * @param propertyIndex {@link #propertyIndex(String)}返回的下标
+     */
+    public Object get(int propertyIndex) {
+        try {
+            Invoker method = metaClass.getGetInvoker(propertyIndex);
+            try {
+                return method.invoke(object, NO_ARGUMENTS);
+            } catch (Throwable t) {
+                throw ExceptionUtil.unwrapThrowable(t);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ReflectionException("Could not get property '" + metaClass.getPropertyName(propertyIndex) + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+        }
+    }
+
+    /**
+     * 按下标设置属性值
+     *
+     * @param propertyIndex {@link #propertyIndex(String)}返回的下标
+     * @param value         属性值
+     */
+    public void set(int propertyIndex, Object value) {
+        try {
+            Invoker method = metaClass.getSetInvoker(propertyIndex);
+            Object[] params = {value};
+            try {
+                method.invoke(object, params);
+            } catch (Throwable t) {
+                throw ExceptionUtil.unwrapThrowable(t);
+            }
+        } catch (Throwable t) {
+            throw new ReflectionException("Could not set property '" + metaClass.getPropertyName(propertyIndex) + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+        }
+    }
+
     private Object getBeanProperty(PropertyTokenizer prop, Object object) {
         try {
             Invoker method = metaClass.getGetInvoker(prop.getName());
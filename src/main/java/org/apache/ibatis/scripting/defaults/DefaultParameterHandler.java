@@ -21,7 +21,7 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
-import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeException;
@@ -77,25 +77,26 @@ public class DefaultParameterHandler implements ParameterHandler {
         // 获取参数列表
         List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
         if (parameterMappings != null) {
+            // 参数对象本身是否有类型处理器，整个列表只判断一次
+            final boolean simpleParameter = parameterObject != null && typeHandlerRegistry.hasTypeHandler(parameterObject.getClass());
             for (int i = 0; i < parameterMappings.size(); i++) {
                 ParameterMapping parameterMapping = parameterMappings.get(i);
                 // ParamterMode.OUT是CallableStatement的输出参数，会单独注册，所以这里判断一下
                 if (parameterMapping.getMode() != ParameterMode.OUT) {
                     Object value;
                     // 获取属性名称
-                    String propertyName = parameterMapping.getProperty();
+                    PropertyPath propertyPath = parameterMapping.getPropertyPath();
                     // 获取实参值
-                    if (boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
-                        value = boundSql.getAdditionalParameter(propertyName);
+                    if (boundSql.hasAdditionalParameter(propertyPath)) { // issue #448 ask first for additional params
+                        value = boundSql.getAdditionalParameter(propertyPath);
                     } else if (parameterObject == null) {
                         value = null;
-                    } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                    } else if (simpleParameter) {
                         //参数对象是基本类型，则参数对象就是参数值
                         value = parameterObject;
                     } else {
-                        // 参数对象是复杂类型，取出参数对象对应的属性值
-                        MetaObject metaObject = configuration.newMetaObject(parameterObject);
-                        value = metaObject.getValue(propertyName);
+                        // 参数对象是复杂类型，按属性路径直接取出属性值，不再为每个参数创建MetaObject
+                        value = configuration.getPropertyValue(parameterObject, propertyPath);
                     }
                     // 获取该参数的TypeHandler
                     TypeHandler typeHandler = parameterMapping.getTypeHandler();
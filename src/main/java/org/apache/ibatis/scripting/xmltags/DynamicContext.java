@@ -56,15 +56,13 @@ public class DynamicContext {
         // 这里会根据传入进来的用来替换#{}的实参类型创建对应的ContextMap对象
         // 对于不是Map类型的实参，创建对象的MetaObject对象，封装成ContextMap。基于参数对象的元数据可以方便地引用参数对象的属性值，让我们在编写SQL语句的时候可以直接引用参数对象的属性
         if (parameterObject != null && !(parameterObject instanceof Map)) {
-            // 获取参数对象的元对象
-            MetaObject metaObject = configuration.newMetaObject(parameterObject);
             // 判断参数对象本身是否有对应的类型处理器
             boolean existsTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
-            // 存入上下文信息
-            bindings = new ContextMap(metaObject, existsTypeHandler);
+            // 存入上下文信息，参数对象的元对象在第一次用到时才创建
+            bindings = new ContextMap(configuration, parameterObject, existsTypeHandler);
         } else {
             // 对于Map类型的实参，创建一个空的ContextMap对象
-            bindings = new ContextMap(null, false);
+            bindings = new ContextMap(null, null, false);
         }
         //  参数对象放入上下文信息，对应的key是_parameter。因此在编写sql语句时，可以直接使用PARAMETER_OBJECT_KEY引用整个参数对象
         bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
@@ -98,11 +96,15 @@ public class DynamicContext {
      */
     static class ContextMap extends HashMap<String, Object> {
         private static final long serialVersionUID = 2977601501966151582L;
-        private final MetaObject parameterMetaObject;
+        private final Configuration configuration;
+        private final Object parameterObject;
         private final boolean fallbackParameterObject;
+        // 参数对象的元对象，大多数语句只用到绑定的变量，所以延迟创建
+        private MetaObject parameterMetaObject;
 
-        public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject) {
-            this.parameterMetaObject = parameterMetaObject;
+        public ContextMap(Configuration configuration, Object parameterObject, boolean fallbackParameterObject) {
+            this.configuration = configuration;
+            this.parameterObject = parameterObject;
             this.fallbackParameterObject = fallbackParameterObject;
         }
 
@@ -121,9 +123,14 @@ public class DynamicContext {
             }
 
             // 如果没有对应的key，尝试从参数对象的元对象中获取
-            if (parameterMetaObject == null) {
+            if (parameterObject == null) {
                 return null;
             }
+            MetaObject parameterMetaObject = this.parameterMetaObject;
+            if (parameterMetaObject == null) {
+                parameterMetaObject = configuration.newMetaObject(parameterObject);
+                this.parameterMetaObject = parameterMetaObject;
+            }
 
             if (fallbackParameterObject && !parameterMetaObject.hasGetter(strKey)) {
                 return parameterMetaObject.getOriginalObject();
@@ -35,7 +35,13 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.pagination.*;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.CachedResultSetMetadata;
+import org.apache.ibatis.executor.resultset.ColumnarResult;
+import org.apache.ibatis.executor.resultset.ResultObjectConstructor;
+import org.apache.ibatis.executor.resultset.CompiledRowMapper;
+import org.apache.ibatis.executor.resultset.DiscriminatorDispatcher;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
@@ -59,6 +65,7 @@ import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
@@ -74,6 +81,10 @@ import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 
 /**
@@ -108,6 +119,30 @@ public class Configuration {
     protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
     protected Integer defaultStatementTimeout;
     protected Integer defaultFetchSize;
+    // ReuseExecutor在物理连接上共享的Statement缓存大小，0表示不共享，Statement只在单个会话内复用
+    protected int sharedStatementCacheSize;
+    // 分页方言，配置后带RowBounds的查询在数据库端分页
+    protected Dialect paginationDialect;
+    // 分页查询时是否在另一个连接上并行执行计数语句
+    protected boolean parallelCountEnabled;
+    // 并行执行计数语句的线程池，未设置时按需创建
+    protected volatile ExecutorService countExecutorService;
+    // 是否为简单的ResultMap生成按列下标读取、直接调用setter的行映射器
+    protected boolean compiledRowMappingEnabled;
+    // 是否让编译后的行映射器直接写字段，不调用setter，ResultMap的directFieldMapping属性优先
+    protected boolean directFieldMappingEnabled;
+    // 是否在同一语句的多次执行间共享结果集的列信息和自动映射规则
+    protected boolean resultSetMetadataCacheEnabled;
+    // 是否对声明了IndexedResultReader的TypeHandler按列下标读取列值
+    protected boolean columnIndexReadEnabled;
+    // 是否对简单的ResultMap并行映射，读取线程把列值读入行缓冲区，ForkJoinPool并行创建结果对象
+    protected boolean parallelRowMappingEnabled;
+    // 并行映射时每批读取的行数
+    protected int parallelRowMappingBatchSize = 512;
+    // 并行映射使用的线程池，未设置时使用ForkJoinPool.commonPool()
+    protected ForkJoinPool rowMappingPool;
+    // resultType为map时是否使用按列共享键布局的紧凑Map
+    protected boolean compactMapResultsEnabled;
     protected ResultSetType defaultResultSetType;
     protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
     protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
@@ -152,6 +187,16 @@ public class Configuration {
     protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
             .conflictMessageProducer((savedValue, targetValue) ->
                     ". please check " + savedValue.getResource() + " and " + targetValue.getResource());
+    // 编译后的行映射器的缓存上限
+    private static final int MAX_COMPILED_ROW_MAPPERS = 1024;
+    // 编译后的行映射器，key由ResultMap的id、列前缀、结果类型和列布局组成
+    protected final Map<String, CompiledRowMapper> compiledRowMappers = new ConcurrentHashMap<>();
+    // 共享的结果集元数据，key由语句id和结果集序号组成
+    protected final Map<String, CachedResultSetMetadata> resultSetMetadataCache = new ConcurrentHashMap<>();
+    // 按ResultMap解析的结果对象构造器，key是ResultMap的id
+    protected final Map<String, ResultObjectConstructor> resultObjectConstructors = new ConcurrentHashMap<>();
+    // 鉴别器的分派表，key由ResultMap的id和列前缀组成
+    protected final Map<String, DiscriminatorDispatcher> discriminatorDispatchers = new ConcurrentHashMap<>();
     // 缓存
     protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
     // 结果映射 <resultMap>标签
@@ -199,6 +244,15 @@ public class Configuration {
 
         typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
+        typeAliasRegistry.registerAlias("H2Dialect", H2Dialect.class);
+        typeAliasRegistry.registerAlias("HsqldbDialect", HsqldbDialect.class);
+        typeAliasRegistry.registerAlias("DerbyDialect", DerbyDialect.class);
+        typeAliasRegistry.registerAlias("PostgreSqlDialect", PostgreSqlDialect.class);
+        typeAliasRegistry.registerAlias("MySqlDialect", MySqlDialect.class);
+        typeAliasRegistry.registerAlias("OracleDialect", OracleDialect.class);
+
+        typeAliasRegistry.registerAlias("ColumnarResult", ColumnarResult.class);
+
         typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
         typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
 
@@ -478,6 +532,198 @@ public class Configuration {
         this.defaultFetchSize = defaultFetchSize;
     }
 
+    /**
+     * Gets the size of the statement cache that {@link org.apache.ibatis.executor.ReuseExecutor} shares across sessions
+     * through the physical connection. 0 means statements are only reused within one session.
+     *
+     * @return the shared statement cache size
+     */
+    public int getSharedStatementCacheSize() {
+        return sharedStatementCacheSize;
+    }
+
+    /**
+     * Sets the shared statement cache size.
+     *
+     * @param sharedStatementCacheSize the maximum number of statements kept per physical connection
+     */
+    public void setSharedStatementCacheSize(int sharedStatementCacheSize) {
+        this.sharedStatementCacheSize = sharedStatementCacheSize;
+    }
+
+    /**
+     * Gets the dialect used to push {@link RowBounds} down to the database. null means rows are skipped on the client.
+     *
+     * @return the pagination dialect
+     */
+    public Dialect getPaginationDialect() {
+        return paginationDialect;
+    }
+
+    /**
+     * Sets the pagination dialect.
+     *
+     * @param paginationDialect the pagination dialect
+     */
+    public void setPaginationDialect(Dialect paginationDialect) {
+        this.paginationDialect = paginationDialect;
+    }
+
+    public boolean isParallelCountEnabled() {
+        return parallelCountEnabled;
+    }
+
+    /**
+     * Sets whether {@link SqlSession#selectPage} runs the count statement on a second connection while the page is queried.
+     * Sessions with uncommitted changes always count on their own connection.
+     *
+     * @param parallelCountEnabled whether to count in parallel
+     */
+    public void setParallelCountEnabled(boolean parallelCountEnabled) {
+        this.parallelCountEnabled = parallelCountEnabled;
+    }
+
+    /**
+     * Gets the executor service that runs parallel count statements. A pool of daemon threads is created on first use
+     * when none is set.
+     *
+     * @return the count executor service
+     */
+    public ExecutorService getCountExecutorService() {
+        ExecutorService executorService = countExecutorService;
+        if (executorService == null) {
+            synchronized (this) {
+                executorService = countExecutorService;
+                if (executorService == null) {
+                    executorService = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "mybatis-count");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    countExecutorService = executorService;
+                }
+            }
+        }
+        return executorService;
+    }
+
+    public void setCountExecutorService(ExecutorService countExecutorService) {
+        this.countExecutorService = countExecutorService;
+    }
+
+    public boolean isCompiledRowMappingEnabled() {
+        return compiledRowMappingEnabled;
+    }
+
+    /**
+     * Sets whether simple result maps are mapped by a {@link CompiledRowMapper} that reads columns by index and calls
+     * setters through method handles instead of going through {@link MetaObject}.
+     *
+     * @param compiledRowMappingEnabled whether to compile row mappers
+     */
+    public void setCompiledRowMappingEnabled(boolean compiledRowMappingEnabled) {
+        this.compiledRowMappingEnabled = compiledRowMappingEnabled;
+    }
+
+    public boolean isDirectFieldMappingEnabled() {
+        return directFieldMappingEnabled;
+    }
+
+    /**
+     * Sets whether simple result maps write columns directly to fields through method handles instead of calling
+     * setters. Result maps using it are mapped by a {@link CompiledRowMapper} even if compiled row mapping is disabled.
+     * A result map can override this with its {@code directFieldMapping} attribute.
+     *
+     * @param directFieldMappingEnabled whether to map columns directly to fields
+     */
+    public void setDirectFieldMappingEnabled(boolean directFieldMappingEnabled) {
+        this.directFieldMappingEnabled = directFieldMappingEnabled;
+    }
+
+    public boolean isResultSetMetadataCacheEnabled() {
+        return resultSetMetadataCacheEnabled;
+    }
+
+    /**
+     * Sets whether the column metadata of result sets, the type handlers resolved for their columns and the
+     * auto-mapping rules built on them are shared between executions of the same statement.
+     *
+     * @param resultSetMetadataCacheEnabled whether to share result set metadata
+     */
+    public void setResultSetMetadataCacheEnabled(boolean resultSetMetadataCacheEnabled) {
+        this.resultSetMetadataCacheEnabled = resultSetMetadataCacheEnabled;
+    }
+
+    public boolean isColumnIndexReadEnabled() {
+        return columnIndexReadEnabled;
+    }
+
+    /**
+     * Sets whether mapped columns are read by their index instead of their label.
+     * Only type handlers that declare {@link org.apache.ibatis.type.IndexedResultReader} themselves are read by index,
+     * all other type handlers keep reading by column label.
+     *
+     * @param columnIndexReadEnabled whether to read columns by index
+     */
+    public void setColumnIndexReadEnabled(boolean columnIndexReadEnabled) {
+        this.columnIndexReadEnabled = columnIndexReadEnabled;
+    }
+
+    public boolean isParallelRowMappingEnabled() {
+        return parallelRowMappingEnabled;
+    }
+
+    /**
+     * Sets whether simple result maps are mapped in parallel. The calling thread reads column values into row buffers
+     * batch by batch while the {@link #getRowMappingPool() row mapping pool} creates and populates the result objects.
+     * Results are still handed to the result handler in the order of the result set.
+     *
+     * @param parallelRowMappingEnabled whether to map rows in parallel
+     */
+    public void setParallelRowMappingEnabled(boolean parallelRowMappingEnabled) {
+        this.parallelRowMappingEnabled = parallelRowMappingEnabled;
+    }
+
+    public int getParallelRowMappingBatchSize() {
+        return parallelRowMappingBatchSize;
+    }
+
+    /**
+     * Sets how many rows are read into buffers before they are mapped in parallel.
+     *
+     * @param parallelRowMappingBatchSize the number of rows per batch
+     */
+    public void setParallelRowMappingBatchSize(int parallelRowMappingBatchSize) {
+        this.parallelRowMappingBatchSize = parallelRowMappingBatchSize;
+    }
+
+    /**
+     * Gets the pool that maps buffered rows in parallel, the common pool when none is set.
+     *
+     * @return the row mapping pool
+     */
+    public ForkJoinPool getRowMappingPool() {
+        return rowMappingPool == null ? ForkJoinPool.commonPool() : rowMappingPool;
+    }
+
+    public void setRowMappingPool(ForkJoinPool rowMappingPool) {
+        this.rowMappingPool = rowMappingPool;
+    }
+
+    public boolean isCompactMapResultsEnabled() {
+        return compactMapResultsEnabled;
+    }
+
+    /**
+     * Sets whether rows mapped to {@code java.util.Map} are created as compact maps. All rows of a result set share
+     * one key layout and each row only stores an array of values. The object factory is not consulted for such rows.
+     *
+     * @param compactMapResultsEnabled whether to create compact map results
+     */
+    public void setCompactMapResultsEnabled(boolean compactMapResultsEnabled) {
+        this.compactMapResultsEnabled = compactMapResultsEnabled;
+    }
+
     /**
      * Gets the default result set type.
      *
@@ -644,6 +890,17 @@ public class Configuration {
         return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory);
     }
 
+    /**
+     * 按属性路径读取对象的值，结果与newMetaObject(object).getValue(path)一致，但不创建MetaObject
+     *
+     * @param object 对象
+     * @param path   属性路径
+     * @return 属性值
+     */
+    public Object getPropertyValue(Object object, PropertyPath path) {
+        return MetaObject.getValue(object, path, objectFactory, objectWrapperFactory, reflectorFactory);
+    }
+
     /**
      * 插件参数映射处理器
      *
@@ -845,6 +1102,47 @@ public class Configuration {
         return mappedStatements.get(id);
     }
 
+    public CompiledRowMapper getCompiledRowMapper(String layoutKey) {
+        return compiledRowMappers.get(layoutKey);
+    }
+
+    /**
+     * 缓存编译后的行映射器。动态SQL可能产生很多不同的列布局，达到上限后不再缓存，
+     * 开启resultSetMetadataCacheEnabled时行映射器同时随结果集元数据缓存，不受此上限影响
+     */
+    public void addCompiledRowMapper(String layoutKey, CompiledRowMapper rowMapper) {
+        if (compiledRowMappers.size() < MAX_COMPILED_ROW_MAPPERS) {
+            compiledRowMappers.putIfAbsent(layoutKey, rowMapper);
+        }
+    }
+
+    public ResultObjectConstructor getResultObjectConstructor(String resultMapId) {
+        return resultObjectConstructors.get(resultMapId);
+    }
+
+    public void addResultObjectConstructor(String resultMapId, ResultObjectConstructor resultObjectConstructor) {
+        resultObjectConstructors.putIfAbsent(resultMapId, resultObjectConstructor);
+    }
+
+    public DiscriminatorDispatcher getDiscriminatorDispatcher(String dispatcherKey) {
+        return discriminatorDispatchers.get(dispatcherKey);
+    }
+
+    public void addDiscriminatorDispatcher(String dispatcherKey, DiscriminatorDispatcher discriminatorDispatcher) {
+        discriminatorDispatchers.putIfAbsent(dispatcherKey, discriminatorDispatcher);
+    }
+
+    public CachedResultSetMetadata getCachedResultSetMetadata(String metadataKey) {
+        return resultSetMetadataCache.get(metadataKey);
+    }
+
+    /**
+     * 缓存结果集元数据，列布局变化后重新读取的元数据会替换旧值
+     */
+    public void putCachedResultSetMetadata(String metadataKey, CachedResultSetMetadata metadata) {
+        resultSetMetadataCache.put(metadataKey, metadata);
+    }
+
     public Map<String, XNode> getSqlFragments() {
         return sqlFragments;
     }
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次请求中所有数据库操作的截止时间。
+ * 设置到SqlSession后，会随执行器传递给后续的查询、嵌套查询和延迟加载：每个Statement的超时时间取剩余时间，
+ * 剩余时间耗尽时执行器直接失败，不再访问数据库。
+ */
+public final class Deadline {
+
+    // 防止System.nanoTime()加上超时时间后溢出
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE >> 1;
+
+    // 基于System.nanoTime()的截止时间点
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 创建从当前时刻开始，经过指定时长后到期的截止时间
+     *
+     * @param timeout 时长
+     * @param unit    时长单位
+     * @return 截止时间
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        long timeoutNanos = Math.min(Math.max(unit.toNanos(timeout), 0L), MAX_TIMEOUT_NANOS);
+        return new Deadline(System.nanoTime() + timeoutNanos);
+    }
+
+    /**
+     * 获取剩余的毫秒数
+     *
+     * @return 剩余的毫秒数，已经到期时返回0
+     */
+    public long getRemainingMillis() {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        return remainingNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(remainingNanos) : 0L;
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remainingMillis=" + getRemainingMillis() + '}';
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.List;
+
+/**
+ * 分页查询的结果，包含当前页的记录和总行数
+ *
+ * @param <E> 记录类型
+ */
+public class Page<E> {
+
+    // 当前页的记录
+    private final List<E> records;
+    // 不分页时的总行数
+    private final long total;
+    // 当前页的分页条件
+    private final RowBounds rowBounds;
+
+    public Page(List<E> records, long total, RowBounds rowBounds) {
+        this.records = records;
+        this.total = total;
+        this.rowBounds = rowBounds;
+    }
+
+    public List<E> getRecords() {
+        return records;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public RowBounds getRowBounds() {
+        return rowBounds;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{offset=" + rowBounds.getOffset() + ", limit=" + rowBounds.getLimit() + ", total=" + total
+            + ", records=" + records + '}';
+    }
+
+}
@@ -16,6 +16,8 @@
 package org.apache.ibatis.session;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorPublishers;
 import org.apache.ibatis.executor.BatchResult;
 
 import java.io.Closeable;
@@ -77,6 +79,21 @@ public interface SqlSession extends Closeable {
      */
     <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds);
 
+    /**
+     * Retrieve a page of mapped objects within the specified row bounds, together with the total number of rows.
+     * The total is read by a count statement derived from the statement, which may run on a second connection
+     * when parallel counting is enabled.
+     * @param <E> the returned list element type
+     * @param statement Unique identifier matching the statement to use.
+     * @param parameter A parameter object to pass to the statement.
+     * @param rowBounds  Bounds to limit object retrieval
+     * @return Page of mapped objects
+     * @throws UnsupportedOperationException if this session does not support pages
+     */
+    default <E> Page<E> selectPage(String statement, Object parameter, RowBounds rowBounds) {
+        throw new UnsupportedOperationException("This session does not support pages");
+    }
+
     /**
      * The selectMap is a special case in that it is designed to convert a list
      * of results into a Map based on one of the properties in the resulting
@@ -144,6 +161,22 @@ public interface SqlSession extends Closeable {
      */
     <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+    /**
+     * Retrieve mapped objects through a publisher that reads rows from a cursor only as the subscriber requests them.
+     * The cursor is opened on the first request and closed when all rows are read, on error or on cancellation.
+     * Like {@link #selectCursor(String, Object, RowBounds)}, the session must stay open until the subscription ends.
+     * Since neither the session nor the cursor is thread safe, rows must be requested from the thread that created the publisher.
+     * @param <T> the returned publisher element type
+     * @param statement Unique identifier matching the statement to use.
+     * @param parameter A parameter object to pass to the statement.
+     * @param rowBounds  Bounds to limit object retrieval
+     * @return Publisher of mapped objects
+     */
+    default <T> CursorPublisher<T> selectPublisher(String statement, Object parameter, RowBounds rowBounds) {
+        // 游标注册在当前会话上，会话关闭时同样会被关闭
+        return CursorPublishers.fromCursor(() -> selectCursor(statement, parameter, rowBounds));
+    }
+
     /**
      * Retrieve a single row mapped from the statement key and parameter
      * using a {@code ResultHandler}.
@@ -268,6 +301,28 @@ public interface SqlSession extends Closeable {
      */
     void clearCache();
 
+    /**
+     * Sets a deadline for the following statements of this session.
+     * It also applies to nested queries and lazy loads. Each statement gets the remaining budget as its query timeout.
+     * A statement that would start after the deadline fails with a {@link java.sql.SQLTimeoutException}
+     * without touching the database.
+     *
+     * @param deadline the deadline, or null to remove it
+     * @throws UnsupportedOperationException if this session does not support deadlines
+     */
+    default void setDeadline(Deadline deadline) {
+        throw new UnsupportedOperationException("This session does not support deadlines");
+    }
+
+    /**
+     * Retrieves the deadline of this session.
+     *
+     * @return the deadline, or null if none is set
+     */
+    default Deadline getDeadline() {
+        return null;
+    }
+
     /**
      * Retrieves current configuration.
      * @return Configuration
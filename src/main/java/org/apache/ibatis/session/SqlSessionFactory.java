@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.session;
 
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorPublishers;
+
 import java.sql.Connection;
 
 /**
@@ -42,4 +45,18 @@ public interface SqlSessionFactory {
 
     Configuration getConfiguration();
 
+    /**
+     * 创建一个在订阅时打开新会话的发布者，结果读取完毕、出错或取消时会话随之关闭，无需调用方管理会话。
+     * 结果只能在创建发布者的线程上读取
+     *
+     * @param statement 语句id
+     * @param parameter 参数对象
+     * @param rowBounds 分页限制
+     * @param <T>       结果类型
+     * @return 发布者
+     */
+    default <T> CursorPublisher<T> openPublisher(String statement, Object parameter, RowBounds rowBounds) {
+        return CursorPublishers.withOwnSession(this, statement, parameter, rowBounds);
+    }
+
 }
@@ -16,6 +16,7 @@
 package org.apache.ibatis.session;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -225,6 +226,21 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
         return sqlSessionProxy.selectList(statement, parameter, rowBounds);
     }
 
+    @Override
+    public <T> CursorPublisher<T> selectPublisher(String statement, Object parameter, RowBounds rowBounds) {
+        final SqlSession sqlSession = localSqlSession.get();
+        if (sqlSession != null) {
+            return sqlSession.selectPublisher(statement, parameter, rowBounds);
+        }
+        // 非托管模式下代理会在调用结束后立即关闭会话，这里改为订阅时打开自己的会话
+        return openPublisher(statement, parameter, rowBounds);
+    }
+
+    @Override
+    public <E> Page<E> selectPage(String statement, Object parameter, RowBounds rowBounds) {
+        return sqlSessionProxy.selectPage(statement, parameter, rowBounds);
+    }
+
     @Override
     public void select(String statement, ResultHandler handler) {
         sqlSessionProxy.select(statement, handler);
@@ -293,6 +309,24 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
         sqlSession.clearCache();
     }
 
+    @Override
+    public void setDeadline(Deadline deadline) {
+        final SqlSession sqlSession = localSqlSession.get();
+        if (sqlSession == null) {
+            throw new SqlSessionException("Error:  Cannot set the deadline.  No managed session is started.");
+        }
+        sqlSession.setDeadline(deadline);
+    }
+
+    @Override
+    public Deadline getDeadline() {
+        final SqlSession sqlSession = localSqlSession.get();
+        if (sqlSession == null) {
+            throw new SqlSessionException("Error:  Cannot get the deadline.  No managed session is started.");
+        }
+        return sqlSession.getDeadline();
+    }
+
     @Override
     public void commit() {
         final SqlSession sqlSession = localSqlSession.get();
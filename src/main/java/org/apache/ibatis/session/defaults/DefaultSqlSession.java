@@ -22,22 +22,34 @@ import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.pagination.PaginationUtil;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.Page;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.transaction.Transaction;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The default implementation for {@link SqlSession}.
@@ -167,6 +179,127 @@ public class DefaultSqlSession implements SqlSession {
         }
     }
 
+    @Override
+    public <E> Page<E> selectPage(String statement, Object parameter, RowBounds rowBounds) {
+        ParallelCount parallelCount = null;
+        try {
+            MappedStatement ms = configuration.getMappedStatement(statement);
+            // 计数语句直接由查询语句生成，不注册到Configuration
+            MappedStatement countMs = PaginationUtil.buildCountStatement(ms);
+            Object param = wrapCollection(parameter);
+            // 会话中有未提交的修改时，其他连接看不到这些修改，只能在当前连接上计数
+            if (configuration.isParallelCountEnabled() && !dirty && configuration.getEnvironment() != null
+                && configuration.getEnvironment().getDataSource() != null) {
+                Deadline deadline = executor.getDeadline();
+                ParallelCount task = new ParallelCount();
+                task.future = configuration.getCountExecutorService().submit(() -> countOnNewConnection(countMs, param, deadline, task));
+                parallelCount = task;
+            }
+            List<E> records = executor.query(ms, param, rowBounds, Executor.NO_RESULT_HANDLER);
+            long total;
+            if (parallelCount == null || parallelCount.abandon()) {
+                // 计数任务还没拿到连接（连接池耗尽或线程池繁忙），不再等待，直接在当前连接上计数
+                total = count(executor, countMs, param);
+            } else {
+                total = parallelCount.get(countMs, executor.getDeadline());
+            }
+            return new Page<>(records, total, rowBounds);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw ExceptionFactory.wrapException("Error querying database.  Cause: " + cause, cause instanceof Exception ? (Exception) cause : e);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
+        } finally {
+            if (parallelCount != null) {
+                // 查询失败时结果不再需要，取消仍在运行的计数
+                parallelCount.cancel();
+            }
+            ErrorContext.instance().reset();
+        }
+    }
+
+    /**
+     * 在新的连接上执行计数语句，执行完即关闭连接。拿到连接时调用方已经放弃该任务的话，直接归还连接
+     */
+    private long countOnNewConnection(MappedStatement countMs, Object parameter, Deadline deadline, ParallelCount parallelCount) throws SQLException {
+        Environment environment = configuration.getEnvironment();
+        Transaction tx = environment.getTransactionFactory().newTransaction(environment.getDataSource(), null, false);
+        try {
+            tx.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            tx.close();
+            throw e;
+        }
+        if (!parallelCount.start()) {
+            tx.close();
+            return 0L;
+        }
+        Executor countExecutor = configuration.newExecutor(tx, ExecutorType.SIMPLE);
+        if (deadline != null) {
+            countExecutor.setDeadline(deadline);
+        }
+        try {
+            return count(countExecutor, countMs, parameter);
+        } finally {
+            countExecutor.close(false);
+            ErrorContext.instance().reset();
+        }
+    }
+
+    private static long count(Executor executor, MappedStatement countMs, Object parameter) throws SQLException {
+        List<Long> counts = executor.query(countMs, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        return counts.isEmpty() || counts.get(0) == null ? 0L : counts.get(0);
+    }
+
+    /**
+     * 并行计数任务。任务拿到连接后才真正开始计数，调用方查询完成时如果任务还没拿到连接就放弃它，改为在当前连接上计数，
+     * 这样多个调用方同时占满连接池时不会出现调用方等计数、计数等连接的情况
+     */
+    private static final class ParallelCount {
+        private static final int WAITING = 0;
+        private static final int RUNNING = 1;
+        private static final int ABANDONED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private Future<Long> future;
+
+        // 计数任务拿到连接后调用，返回false表示调用方已放弃
+        boolean start() {
+            return state.compareAndSet(WAITING, RUNNING);
+        }
+
+        // 调用方在任务开始前放弃任务，返回false表示任务已经开始计数
+        boolean abandon() {
+            if (state.compareAndSet(WAITING, ABANDONED)) {
+                future.cancel(true);
+                return true;
+            }
+            return false;
+        }
+
+        // 等待计数结果，设置了截止时间时最多等到截止时间
+        long get(MappedStatement countMs, Deadline deadline) throws Exception {
+            if (deadline == null) {
+                return future.get();
+            }
+            try {
+                return future.get(Math.max(deadline.getRemainingMillis(), 0L), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new SQLTimeoutException("Deadline exceeded while waiting for '" + countMs.getId() + "'.");
+            }
+        }
+
+        void cancel() {
+            state.compareAndSet(WAITING, ABANDONED);
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+
     @Override
     public void select(String statement, Object parameter, ResultHandler handler) {
         select(statement, parameter, RowBounds.DEFAULT, handler);
@@ -320,6 +453,16 @@ public class DefaultSqlSession implements SqlSession {
         executor.clearLocalCache();
     }
 
+    @Override
+    public void setDeadline(Deadline deadline) {
+        executor.setDeadline(deadline);
+    }
+
+    @Override
+    public Deadline getDeadline() {
+        return executor.getDeadline();
+    }
+
     private <T> void registerCursor(Cursor<T> cursor) {
         if (cursorList == null) {
             cursorList = new ArrayList<>();
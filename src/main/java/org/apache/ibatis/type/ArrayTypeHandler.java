@@ -36,7 +36,7 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * @author Clinton Begin
  */
-public class ArrayTypeHandler extends BaseTypeHandler<Object> {
+public class ArrayTypeHandler extends BaseTypeHandler<Object> implements IndexedResultReader {
 
   private static final ConcurrentHashMap<Class<?>, String> STANDARD_MAPPING;
 
@@ -24,7 +24,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class BigDecimalTypeHandler extends BaseTypeHandler<BigDecimal> {
+public class BigDecimalTypeHandler extends BaseTypeHandler<BigDecimal> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, BigDecimal parameter, JdbcType jdbcType)
@@ -27,7 +27,7 @@ import java.sql.SQLException;
  * @since 3.4.0
  * @author Kazuki Shimizu
  */
-public class BlobInputStreamTypeHandler extends BaseTypeHandler<InputStream> {
+public class BlobInputStreamTypeHandler extends BaseTypeHandler<InputStream> implements IndexedResultReader {
 
   /**
    * Set an {@link InputStream} into {@link PreparedStatement}.
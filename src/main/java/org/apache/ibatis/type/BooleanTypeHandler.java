@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class BooleanTypeHandler extends BaseTypeHandler<Boolean> {
+public class BooleanTypeHandler extends BaseTypeHandler<Boolean> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Boolean parameter, JdbcType jdbcType)
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class ByteArrayTypeHandler extends BaseTypeHandler<byte[]> {
+public class ByteArrayTypeHandler extends BaseTypeHandler<byte[]> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, byte[] parameter, JdbcType jdbcType)
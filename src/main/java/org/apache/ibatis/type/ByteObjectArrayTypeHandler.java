@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class ByteObjectArrayTypeHandler extends BaseTypeHandler<Byte[]> {
+public class ByteObjectArrayTypeHandler extends BaseTypeHandler<Byte[]> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Byte[] parameter, JdbcType jdbcType) throws SQLException {
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class ByteTypeHandler extends BaseTypeHandler<Byte> {
+public class ByteTypeHandler extends BaseTypeHandler<Byte> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Byte parameter, JdbcType jdbcType)
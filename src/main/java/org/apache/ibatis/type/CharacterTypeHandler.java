@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class CharacterTypeHandler extends BaseTypeHandler<Character> {
+public class CharacterTypeHandler extends BaseTypeHandler<Character> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Character parameter, JdbcType jdbcType) throws SQLException {
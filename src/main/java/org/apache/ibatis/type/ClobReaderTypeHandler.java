@@ -27,7 +27,7 @@ import java.sql.SQLException;
  * @since 3.4.0
  * @author Kazuki Shimizu
  */
-public class ClobReaderTypeHandler extends BaseTypeHandler<Reader> {
+public class ClobReaderTypeHandler extends BaseTypeHandler<Reader> implements IndexedResultReader {
 
   /**
    * Set a {@link Reader} into {@link PreparedStatement}.
@@ -24,7 +24,7 @@ import java.util.Date;
 /**
  * @author Clinton Begin
  */
-public class DateOnlyTypeHandler extends BaseTypeHandler<Date> {
+public class DateOnlyTypeHandler extends BaseTypeHandler<Date> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Date parameter, JdbcType jdbcType)
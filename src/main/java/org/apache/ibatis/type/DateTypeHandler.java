@@ -25,7 +25,7 @@ import java.util.Date;
 /**
  * @author Clinton Begin
  */
-public class DateTypeHandler extends BaseTypeHandler<Date> {
+public class DateTypeHandler extends BaseTypeHandler<Date> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Date parameter, JdbcType jdbcType)
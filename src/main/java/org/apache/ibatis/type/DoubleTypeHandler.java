@@ -20,10 +20,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.ibatis.executor.result.ResultMapException;
+
 /**
  * @author Clinton Begin
  */
-public class DoubleTypeHandler extends BaseTypeHandler<Double> {
+public class DoubleTypeHandler extends BaseTypeHandler<Double> implements DoubleResultReader, IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Double parameter, JdbcType jdbcType)
@@ -52,4 +54,13 @@ public class DoubleTypeHandler extends BaseTypeHandler<Double> {
     return result == 0 && cs.wasNull() ? null : result;
   }
 
+  @Override
+  public double getDouble(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getDouble(columnIndex);
+    } catch (Exception e) {
+      throw new ResultMapException("Error attempting to get column #" + columnIndex + " from result set.  Cause: " + e, e);
+    }
+  }
+
 }
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class FloatTypeHandler extends BaseTypeHandler<Float> {
+public class FloatTypeHandler extends BaseTypeHandler<Float> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Float parameter, JdbcType jdbcType)
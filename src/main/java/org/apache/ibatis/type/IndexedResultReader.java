@@ -0,0 +1,24 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+/**
+ * 标记按列下标读取与按列名读取结果一致的TypeHandler，即正确实现了getResult(ResultSet, int)。
+ * 开启columnIndexReadEnabled后，这类TypeHandler按列下标读取列值，省去每个单元格按列名查找列的开销。
+ * 只有直接声明本接口的类才会按列下标读取，子类只重写了按列名读取时不受影响。
+ */
+public interface IndexedResultReader {
+}
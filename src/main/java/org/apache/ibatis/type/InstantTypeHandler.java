@@ -26,7 +26,7 @@ import java.time.Instant;
  * @since 3.4.5
  * @author Tomas Rohovsky
  */
-public class InstantTypeHandler extends BaseTypeHandler<Instant> {
+public class InstantTypeHandler extends BaseTypeHandler<Instant> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Instant parameter, JdbcType jdbcType) throws SQLException {
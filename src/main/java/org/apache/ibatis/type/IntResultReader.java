@@ -0,0 +1,35 @@
+/**
+ * Copyright 2009-2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 按int读取列值的TypeHandler，结果映射的目标属性是int时直接使用，避免装箱成Integer再拆箱
+ */
+public interface IntResultReader {
+
+    /**
+     * 按列下标读取int值，列值为NULL时返回0，调用方需要通过ResultSet.wasNull()区分
+     *
+     * @param rs          结果集，已定位到当前行
+     * @param columnIndex 列的下标，从1开始
+     * @return 列值
+     */
+    int getInt(ResultSet rs, int columnIndex) throws SQLException;
+
+}
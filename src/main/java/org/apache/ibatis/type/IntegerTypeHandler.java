@@ -20,10 +20,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.ibatis.executor.result.ResultMapException;
+
 /**
  * @author Clinton Begin
  */
-public class IntegerTypeHandler extends BaseTypeHandler<Integer> {
+public class IntegerTypeHandler extends BaseTypeHandler<Integer> implements IntResultReader, IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Integer parameter, JdbcType jdbcType)
@@ -52,4 +54,13 @@ public class IntegerTypeHandler extends BaseTypeHandler<Integer> {
     int result = cs.getInt(columnIndex);
     return result == 0 && cs.wasNull() ? null : result;
   }
+
+  @Override
+  public int getInt(ResultSet rs, int columnIndex) throws SQLException {
+    try {
+      return rs.getInt(columnIndex);
+    } catch (Exception e) {
+      throw new ResultMapException("Error attempting to get column #" + columnIndex + " from result set.  Cause: " + e, e);
+    }
+  }
 }
@@ -25,7 +25,7 @@ import java.time.LocalDateTime;
  * @since 3.4.5
  * @author Tomas Rohovsky
  */
-public class LocalDateTimeTypeHandler extends BaseTypeHandler<LocalDateTime> {
+public class LocalDateTimeTypeHandler extends BaseTypeHandler<LocalDateTime> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, LocalDateTime parameter, JdbcType jdbcType)
@@ -25,7 +25,7 @@ import java.time.LocalTime;
  * @since 3.4.5
  * @author Tomas Rohovsky
  */
-public class LocalTimeTypeHandler extends BaseTypeHandler<LocalTime> {
+public class LocalTimeTypeHandler extends BaseTypeHandler<LocalTime> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, LocalTime parameter, JdbcType jdbcType)
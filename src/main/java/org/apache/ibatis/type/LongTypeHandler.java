@@ -20,13 +20,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.ibatis.executor.result.ResultMapException;
+
 /**
  * @author Clinton Begin
  * 处理Long类型的TypeHandler，内部就是通过调用PreparedStatement的方法实现的。
  * 其他的TypeHandler也是相似的逻辑
  * 泛型参数是Long表示其方法给出的就是Long类型的结果
  */
-public class LongTypeHandler extends BaseTypeHandler<Long> {
+public class LongTypeHandler extends BaseTypeHandler<Long> implements LongResultReader, IndexedResultReader {
 
     /**
      * 设置非空参数
@@ -85,4 +87,20 @@ public class LongTypeHandler extends BaseTypeHandler<Long> {
         long result = cs.getLong(columnIndex);
         return result == 0 && cs.wasNull() ? null : result;
     }
+
+    /**
+     * 不装箱地读取long值，列值为NULL时返回0，由调用方检查wasNull
+     *
+     * @param rs          ResultSet对象，返回的数据集
+     * @param columnIndex 列的索引
+     * @return 获取到的long类型的数据
+     */
+    @Override
+    public long getLong(ResultSet rs, int columnIndex) throws SQLException {
+        try {
+            return rs.getLong(columnIndex);
+        } catch (Exception e) {
+            throw new ResultMapException("Error attempting to get column #" + columnIndex + " from result set.  Cause: " + e, e);
+        }
+    }
 }
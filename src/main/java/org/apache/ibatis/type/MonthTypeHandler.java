@@ -26,7 +26,7 @@ import java.time.Month;
  * @since 3.4.5
  * @author Björn Raupach
  */
-public class MonthTypeHandler extends BaseTypeHandler<Month> {
+public class MonthTypeHandler extends BaseTypeHandler<Month> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Month month, JdbcType type) throws SQLException {
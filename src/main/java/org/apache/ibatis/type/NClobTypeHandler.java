@@ -25,7 +25,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class NClobTypeHandler extends BaseTypeHandler<String> {
+public class NClobTypeHandler extends BaseTypeHandler<String> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType)
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class NStringTypeHandler extends BaseTypeHandler<String> {
+public class NStringTypeHandler extends BaseTypeHandler<String> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType)
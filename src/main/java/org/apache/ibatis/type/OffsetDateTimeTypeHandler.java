@@ -25,7 +25,7 @@ import java.time.OffsetDateTime;
  * @since 3.4.5
  * @author Tomas Rohovsky
  */
-public class OffsetDateTimeTypeHandler extends BaseTypeHandler<OffsetDateTime> {
+public class OffsetDateTimeTypeHandler extends BaseTypeHandler<OffsetDateTime> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, OffsetDateTime parameter, JdbcType jdbcType)
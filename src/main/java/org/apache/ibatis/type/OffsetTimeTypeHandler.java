@@ -25,7 +25,7 @@ import java.time.OffsetTime;
  * @since 3.4.5
  * @author Tomas Rohovsky
  */
-public class OffsetTimeTypeHandler extends BaseTypeHandler<OffsetTime> {
+public class OffsetTimeTypeHandler extends BaseTypeHandler<OffsetTime> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, OffsetTime parameter, JdbcType jdbcType)
@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class ShortTypeHandler extends BaseTypeHandler<Short> {
+public class ShortTypeHandler extends BaseTypeHandler<Short> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Short parameter, JdbcType jdbcType)
@@ -24,7 +24,7 @@ import java.sql.SQLException;
 /**
  * @author Clinton Begin
  */
-public class SqlDateTypeHandler extends BaseTypeHandler<Date> {
+public class SqlDateTypeHandler extends BaseTypeHandler<Date> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Date parameter, JdbcType jdbcType)
@@ -24,7 +24,7 @@ import java.sql.Time;
 /**
  * @author Clinton Begin
  */
-public class SqlTimeTypeHandler extends BaseTypeHandler<Time> {
+public class SqlTimeTypeHandler extends BaseTypeHandler<Time> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Time parameter, JdbcType jdbcType)
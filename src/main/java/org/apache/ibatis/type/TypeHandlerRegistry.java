@@ -262,7 +262,7 @@ public final class TypeHandlerRegistry {
     @SuppressWarnings("unchecked")
     private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
         // 过滤掉ParamMap类型，因为ParamMap是MyBatis的内置类型，不应该被暴露使用
-        if (ParamMap.class.equals(type)) {
+        if (type instanceof Class && ParamMap.class.isAssignableFrom((Class<?>) type)) {
             return null;
         }
         // 根据类型获取对应的jdbcTypeHandlerMap，这个方法会检测结合中相应的TypeHandler是否已经初始化
@@ -30,7 +30,7 @@ import org.apache.ibatis.session.Configuration;
 /**
  * @author Clinton Begin
  */
-public class UnknownTypeHandler extends BaseTypeHandler<Object> {
+public class UnknownTypeHandler extends BaseTypeHandler<Object> implements IndexedResultReader {
 
   private static final ObjectTypeHandler OBJECT_TYPE_HANDLER = new ObjectTypeHandler();
   // TODO Rename to 'configuration' after removing the 'configuration' property(deprecated property) on parent class
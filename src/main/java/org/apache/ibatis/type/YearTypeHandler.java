@@ -25,7 +25,7 @@ import java.time.Year;
  * @since 3.4.5
  * @author Björn Raupach
  */
-public class YearTypeHandler extends BaseTypeHandler<Year> {
+public class YearTypeHandler extends BaseTypeHandler<Year> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Year year, JdbcType type) throws SQLException {
@@ -25,7 +25,7 @@ import java.time.ZonedDateTime;
  * @since 3.4.5
  * @author Tomas Rohovsky
  */
-public class ZonedDateTimeTypeHandler extends BaseTypeHandler<ZonedDateTime> {
+public class ZonedDateTimeTypeHandler extends BaseTypeHandler<ZonedDateTime> implements IndexedResultReader {
 
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, ZonedDateTime parameter, JdbcType jdbcType)
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import org.apache.ibatis.BaseDataTest;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+
+  @Test
+  void shouldEvictAndCloseLeastRecentlyUsedStatement() throws Exception {
+    StatementCache cache = new StatementCache(2);
+    Statement first = openStatement();
+    Statement second = openStatement();
+    Statement third = openStatement();
+    cache.put("first", first);
+    cache.put("second", second);
+    // touch first so that second becomes the eldest entry
+    assertSame(first, cache.get("first"));
+    cache.put("third", third);
+    assertEquals(2, cache.size());
+    assertNull(cache.get("second"));
+    verify(second).close();
+    verify(first, never()).close();
+    assertSame(third, cache.get("third"));
+  }
+
+  @Test
+  void shouldCloseEvictedStatementOnlyAfterRelease() throws Exception {
+    StatementCache cache = new StatementCache(1);
+    Statement cursorStatement = openStatement();
+    cache.put("cursor", cursorStatement);
+    cache.acquire(cursorStatement);
+    cache.put("other", openStatement());
+    assertNull(cache.get("cursor"));
+    verify(cursorStatement, never()).close();
+    cache.release(cursorStatement);
+    verify(cursorStatement).close();
+  }
+
+  @Test
+  void shouldNotHandOutStatementInUse() throws Exception {
+    StatementCache cache = new StatementCache(2);
+    Statement statement = openStatement();
+    cache.put("select", statement);
+    cache.acquire(statement);
+    assertNull(cache.get("select"));
+    cache.release(statement);
+    assertSame(statement, cache.get("select"));
+    verify(statement, never()).close();
+  }
+
+  @Test
+  void shouldDropClosedStatements() throws Exception {
+    StatementCache cache = new StatementCache(2);
+    Statement statement = openStatement();
+    cache.put("select", statement);
+    when(statement.isClosed()).thenReturn(true);
+    assertNull(cache.get("select"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldCloseAllStatementsOnClear() throws Exception {
+    StatementCache cache = new StatementCache(2);
+    Statement first = openStatement();
+    Statement second = openStatement();
+    cache.put("first", first);
+    cache.put("second", second);
+    cache.clear();
+    assertEquals(0, cache.size());
+    verify(first).close();
+    verify(second).close();
+  }
+
+  @Test
+  void shouldShareCacheAcrossCheckoutsOfSamePhysicalConnection() throws Exception {
+    PooledDataSource ds = BaseDataTest.createPooledDataSource(BaseDataTest.JPETSTORE_PROPERTIES);
+    try {
+      PreparedStatement statement;
+      StatementCache cache;
+      try (Connection conn = ds.getConnection()) {
+        cache = PooledDataSource.getStatementCache(conn, 10);
+        assertNotNull(cache);
+        statement = conn.prepareStatement("select 1 from INFORMATION_SCHEMA.SYSTEM_USERS");
+        cache.put("select", statement);
+      }
+      try (Connection conn = ds.getConnection()) {
+        assertSame(cache, PooledDataSource.getStatementCache(conn, 10));
+        assertSame(statement, cache.get("select"));
+      }
+      ds.forceCloseAll();
+      assertTrue(statement.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  private Statement openStatement() throws Exception {
+    Statement statement = mock(Statement.class);
+    Connection connection = mock(Connection.class);
+    when(statement.getConnection()).thenReturn(connection);
+    return statement;
+  }
+
+}
@@ -15,8 +15,21 @@
  */
 package org.apache.ibatis.executor;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Deadline;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 class ReuseExecutorTest extends BaseExecutorTest {
 
@@ -30,6 +43,31 @@ class ReuseExecutorTest extends BaseExecutorTest {
     super.shouldFetchPostWithBlogWithCompositeKey();
   }
 
+  @Test
+  void shouldResetQueryTimeoutOfReusedStatementAfterDeadline() throws Exception {
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.getConnection()).thenReturn(connection);
+    when(statement.getUpdateCount()).thenReturn(-1);
+    Transaction transaction = mock(Transaction.class);
+    when(transaction.getConnection()).thenReturn(connection);
+    MappedStatement selectStatement = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+    Executor executor = createExecutor(transaction);
+
+    executor.setDeadline(Deadline.after(1500, TimeUnit.MILLISECONDS));
+    executor.query(selectStatement, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    executor.setDeadline(null);
+    executor.clearLocalCache();
+    executor.query(selectStatement, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+
+    InOrder inOrder = inOrder(statement);
+    inOrder.verify(statement).setQueryTimeout(2000);
+    inOrder.verify(statement).setQueryTimeout(2);
+    // the reused statement must not keep the timeout lowered by the previous deadline
+    inOrder.verify(statement).setQueryTimeout(2000);
+  }
+
   @Override
   protected Executor createExecutor(Transaction transaction) {
     return new ReuseExecutor(config,transaction);
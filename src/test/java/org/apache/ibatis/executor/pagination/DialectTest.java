@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class DialectTest {
+
+  private static final String SQL = "select id from item order by id";
+
+  @Test
+  void shouldAppendLimitAndOffset() {
+    List<Object> parameters = new ArrayList<>();
+    assertEquals(SQL + " LIMIT ? OFFSET ?", new LimitOffsetDialect().getPagingSql(SQL, 20, 10, parameters));
+    assertEquals(Arrays.asList(10, 20), parameters);
+  }
+
+  @Test
+  void shouldUseMaxLimitWhenOnlyOffsetIsGiven() {
+    List<Object> parameters = new ArrayList<>();
+    assertEquals(SQL + " LIMIT ? OFFSET ?", new MySqlDialect().getPagingSql(SQL, 20, RowBounds.NO_ROW_LIMIT, parameters));
+    assertEquals(Arrays.asList(Integer.MAX_VALUE, 20), parameters);
+  }
+
+  @Test
+  void shouldOmitOffsetOnFirstPage() {
+    List<Object> parameters = new ArrayList<>();
+    assertEquals(SQL + " LIMIT ?", new H2Dialect().getPagingSql(SQL, RowBounds.NO_ROW_OFFSET, 10, parameters));
+    assertEquals(Arrays.asList(10), parameters);
+  }
+
+  @Test
+  void shouldAppendOffsetFetch() {
+    List<Object> parameters = new ArrayList<>();
+    assertEquals(SQL + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", new DerbyDialect().getPagingSql(SQL, 20, 10, parameters));
+    assertEquals(Arrays.asList(20, 10), parameters);
+
+    parameters.clear();
+    assertEquals(SQL + " FETCH FIRST ? ROWS ONLY", new DerbyDialect().getPagingSql(SQL, RowBounds.NO_ROW_OFFSET, 10, parameters));
+    assertEquals(Arrays.asList(10), parameters);
+  }
+
+  @Test
+  void shouldWrapWithRowNum() {
+    List<Object> parameters = new ArrayList<>();
+    assertEquals("SELECT * FROM (SELECT row_.*, ROWNUM rownum_ FROM (" + SQL + ") row_ WHERE ROWNUM <= ?) WHERE rownum_ > ?",
+        new OracleDialect().getPagingSql(SQL, 20, 10, parameters));
+    assertEquals(Arrays.asList(30L, 20), parameters);
+  }
+
+  @Test
+  void shouldSeekAfterLastKey() {
+    List<Object> parameters = new ArrayList<>();
+    assertEquals("SELECT * FROM (" + SQL + ") keyset_ WHERE keyset_.id > ? ORDER BY keyset_.id ASC",
+        new PostgreSqlDialect().getKeysetSql(SQL, "id", 42, false, parameters));
+    assertEquals(Arrays.asList(42), parameters);
+  }
+
+  @Test
+  void shouldRejectUnsafeKeyColumn() {
+    assertThrows(IllegalArgumentException.class, () -> new KeysetRowBounds("id; drop table item", 1, 10));
+  }
+
+}
@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class PaginationUtilTest {
+
+  @Test
+  void shouldDropTopLevelOrderBy() {
+    assertEquals("SELECT COUNT(*) FROM (select * from item where name = 'a' ) count_",
+        PaginationUtil.getCountSql("select * from item where name = 'a' ORDER  BY id desc"));
+  }
+
+  @Test
+  void shouldKeepOrderByInsideParenthesesAndQuotes() {
+    String sql = "select id, row_number() over (order by id) rn from item where name <> 'order by'";
+    assertEquals(sql, PaginationUtil.removeOrderBy(sql));
+  }
+
+  @Test
+  void shouldKeepOrderByFollowedByLimit() {
+    String sql = "select id from item order by id limit 10";
+    assertEquals(sql, PaginationUtil.removeOrderBy(sql));
+  }
+
+  @Test
+  void shouldNotMistakeIdentifiersForKeywords() {
+    assertEquals("select sort_order by_name from item ",
+        PaginationUtil.removeOrderBy("select sort_order by_name from item order by id"));
+  }
+
+}
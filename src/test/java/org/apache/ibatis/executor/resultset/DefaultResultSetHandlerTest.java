@@ -15,9 +15,17 @@
  */
 package org.apache.ibatis.executor.resultset;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -28,6 +36,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +53,7 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.IntegerTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.junit.jupiter.api.Assertions;
@@ -101,6 +111,49 @@ class DefaultResultSetHandlerTest {
     assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
   }
 
+  @Test
+  void shouldReadColumnsByIndexWhenEnabled() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    ms.getConfiguration().setColumnIndexReadEnabled(true);
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(100);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+    verify(rs, never()).getInt("CoLuMn1");
+  }
+
+  @Test
+  void shouldReadByIndexOnlyWithDeclaredIndexedResultReader() throws Exception {
+    when(rs.getMetaData()).thenReturn(rsmd);
+    final Configuration config = new Configuration();
+    final TypeHandler<Integer> builtIn = new IntegerTypeHandler();
+    // a subclass may override only the column label variant, so it has to declare the marker itself
+    final TypeHandler<Integer> subclass = new IntegerTypeHandler() {
+    };
+
+    assertTrue(ResultSetWrapper.isIndexedResultReader(builtIn));
+    assertFalse(ResultSetWrapper.isIndexedResultReader(subclass));
+    assertFalse(new ResultSetWrapper(rs, config).canReadByIndex(builtIn));
+    config.setColumnIndexReadEnabled(true);
+    assertTrue(new ResultSetWrapper(rs, config).canReadByIndex(builtIn));
+    assertFalse(new ResultSetWrapper(rs, config).canReadByIndex(subclass));
+  }
+
   @Test
   void shouldThrowExceptionWithColumnName() throws Exception {
     final MappedStatement ms = getMappedStatement();
@@ -118,6 +171,7 @@ class DefaultResultSetHandlerTest {
     when(resultMapping.getTypeHandler()).thenReturn(typeHandler);
     when(typeHandler.getResult(any(ResultSet.class), any(String.class))).thenThrow(new SQLException("exception"));
     List<ResultMapping> constructorMappings = Collections.singletonList(resultMapping);
+    when(rsw.getColumnIndexes(constructorMappings, null)).thenReturn(new int[1]);
 
     try {
       defaultResultSetHandler.createParameterizedResultObject(rsw, null/*resultType*/, constructorMappings,
@@ -129,6 +183,47 @@ class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  void shouldResolveColumnIndexesOncePerResultSet() throws Exception {
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("id");
+    when(rsmd.getColumnLabel(2)).thenReturn("AUTHOR_id");
+    when(rsmd.getColumnType(anyInt())).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(anyInt())).thenReturn(Integer.class.getCanonicalName());
+
+    final Configuration config = new Configuration();
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, config);
+    final List<ResultMapping> mappings = Arrays.asList(
+        new ResultMapping.Builder(config, "id", "ID", Integer.class).build(),
+        new ResultMapping.Builder(config, "name", "name", String.class).build());
+
+    assertArrayEquals(new int[] { 1, 0 }, rsw.getColumnIndexes(mappings, null));
+    assertArrayEquals(new int[] { 2, 0 }, rsw.getColumnIndexes(mappings, "author_"));
+    assertSame(rsw.getColumnIndexes(mappings, null), rsw.getColumnIndexes(mappings, null));
+  }
+
+  @Test
+  void shouldShareResultSetMetadataUntilColumnsChange() throws Exception {
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("id", "id", "user_id", "user_id");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+
+    final Configuration config = new Configuration();
+    config.setResultSetMetadataCacheEnabled(true);
+    final ResultSetWrapper first = new ResultSetWrapper(rs, config, "select#0");
+    final ResultSetWrapper second = new ResultSetWrapper(rs, config, "select#0");
+    assertSame(first.getColumnNames(), second.getColumnNames());
+    assertSame(first.getTypeHandler(Integer.class, "id"), second.getTypeHandler(Integer.class, "id"));
+
+    final ResultSetWrapper changed = new ResultSetWrapper(rs, config, "select#0");
+    assertEquals(Collections.singletonList("user_id"), changed.getColumnNames());
+    assertSame(changed.getColumnNames(), config.getCachedResultSetMetadata("select#0").columnNames);
+    verify(rsmd, times(2)).getColumnClassName(1);
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DiscriminatorDispatcherTest {
+
+  private Configuration configuration;
+  private ResultMap vehicle;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+    Map<String, String> doorCases = new HashMap<>();
+    doorCases.put("4", "sedan");
+    addResultMap("sedan", null);
+    addResultMap("car", discriminator("doors", new IntegerTypeHandler(), doorCases));
+    // truck的鉴别器选中truck自己，形成环形引用
+    addResultMap("truck", discriminator("type", new StringTypeHandler(), Collections.singletonMap("truck", "truck")));
+    Map<String, String> typeCases = new HashMap<>();
+    typeCases.put("car", "car");
+    typeCases.put("truck", "truck");
+    typeCases.put("boat", "missing");
+    vehicle = addResultMap("vehicle", discriminator("type", new StringTypeHandler(), typeCases));
+  }
+
+  @Test
+  void shouldFollowNestedDiscriminators() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("type")).thenReturn("car");
+    when(rs.getInt("doors")).thenReturn(4);
+    DiscriminatorDispatcher dispatcher = new DiscriminatorDispatcher(configuration, vehicle.getDiscriminator(), null);
+    assertSame(configuration.getResultMap("sedan"), dispatcher.resolve(rs, vehicle));
+    assertSame(configuration.getResultMap("sedan"), dispatcher.resolve(rs, vehicle));
+    verify(rs, times(2)).getInt("doors");
+
+    when(rs.getInt("doors")).thenReturn(2);
+    assertSame(configuration.getResultMap("car"), dispatcher.resolve(rs, vehicle));
+  }
+
+  @Test
+  void shouldStopAtCircularReference() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("type")).thenReturn("truck");
+    DiscriminatorDispatcher dispatcher = new DiscriminatorDispatcher(configuration, vehicle.getDiscriminator(), null);
+    assertSame(configuration.getResultMap("truck"), dispatcher.resolve(rs, vehicle));
+  }
+
+  @Test
+  void shouldKeepResultMapWhenNoCaseMatches() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    DiscriminatorDispatcher dispatcher = new DiscriminatorDispatcher(configuration, vehicle.getDiscriminator(), null);
+    // 列值为NULL
+    assertSame(vehicle, dispatcher.resolve(rs, vehicle));
+    when(rs.getString("type")).thenReturn("bike");
+    assertSame(vehicle, dispatcher.resolve(rs, vehicle));
+    // case指向的ResultMap不存在
+    when(rs.getString("type")).thenReturn("boat");
+    assertSame(vehicle, dispatcher.resolve(rs, vehicle));
+  }
+
+  @Test
+  void shouldReadPrefixedColumns() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("v_type")).thenReturn("car");
+    when(rs.getInt("v_doors")).thenReturn(4);
+    DiscriminatorDispatcher dispatcher = new DiscriminatorDispatcher(configuration, vehicle.getDiscriminator(), "v_");
+    assertSame(configuration.getResultMap("sedan"), dispatcher.resolve(rs, vehicle));
+  }
+
+  private Discriminator discriminator(String column, TypeHandler<?> typeHandler, Map<String, String> cases) {
+    ResultMapping resultMapping = new ResultMapping.Builder(configuration, null, column, typeHandler).build();
+    return new Discriminator.Builder(configuration, resultMapping, new HashMap<>(cases)).build();
+  }
+
+  private ResultMap addResultMap(String id, Discriminator discriminator) {
+    ResultMap resultMap = new ResultMap.Builder(configuration, id, Object.class, new ArrayList<>())
+        .discriminator(discriminator).build();
+    configuration.addResultMap(resultMap);
+    return resultMap;
+  }
+
+}
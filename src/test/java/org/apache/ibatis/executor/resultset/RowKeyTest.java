@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class RowKeyTest {
+
+  @Test
+  void shouldCompareValuesByPosition() {
+    RowKey key = new RowKey("blog", null, new Object[] { 1, null, new byte[] { 1, 2 } }, null);
+    assertEquals(key, new RowKey("blog", null, new Object[] { 1, null, new byte[] { 1, 2 } }, null));
+    assertEquals(key.hashCode(), new RowKey("blog", null, new Object[] { 1, null, new byte[] { 1, 2 } }, null).hashCode());
+    assertNotEquals(key, new RowKey("blog", null, new Object[] { null, 1, new byte[] { 1, 2 } }, null));
+    assertNotEquals(key, new RowKey("author", null, new Object[] { 1, null, new byte[] { 1, 2 } }, null));
+  }
+
+  @Test
+  void shouldDistinguishColumnPrefixes() {
+    assertNotEquals(new RowKey("author", "A1_", new Object[] { 1 }, null), new RowKey("author", "A2_", new Object[] { 1 }, null));
+  }
+
+  @Test
+  void shouldCombineWithParent() {
+    RowKey blog1 = new RowKey("blog", null, new Object[] { 1 }, null);
+    RowKey blog2 = new RowKey("blog", null, new Object[] { 2 }, null);
+    RowKey post = new RowKey("post", null, new Object[] { 10 }, null);
+    assertEquals(post.combine(blog1), post.combine(blog1));
+    assertNotEquals(post.combine(blog1), post.combine(blog2));
+    assertSame(RowKey.NULL_ROW_KEY, post.combine(RowKey.NULL_ROW_KEY));
+    assertSame(RowKey.NULL_ROW_KEY, RowKey.NULL_ROW_KEY.combine(blog1));
+  }
+
+}
@@ -15,18 +15,24 @@
  */
 package org.apache.ibatis.executor.statement;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Deadline;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -145,4 +151,29 @@ class BaseStatementHandlerTest {
         verify(statement).setQueryTimeout(10);
     }
 
+    @Test
+    void specifyDeadlineShorterThanQueryTimeout() throws SQLException {
+        mappedStatementBuilder.timeout(10);
+        Executor executor = mock(Executor.class);
+        doReturn(Deadline.after(1500, TimeUnit.MILLISECONDS)).when(executor).getDeadline();
+        doReturn(10).when(statement).getQueryTimeout();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(executor, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setStatementTimeout(statement, null);
+
+        verify(statement).setQueryTimeout(10);
+        verify(statement).setQueryTimeout(2); // apply the remaining budget rounded up to seconds
+    }
+
+    @Test
+    void specifyExpiredDeadline() throws SQLException {
+        Executor executor = mock(Executor.class);
+        doReturn(Deadline.after(0, TimeUnit.MILLISECONDS)).when(executor).getDeadline();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(executor, mappedStatementBuilder.build(), null, null, null, null);
+
+        assertThrows(SQLTimeoutException.class, () -> handler.setStatementTimeout(statement, null));
+        verify(statement, never()).setQueryTimeout(0);
+    }
+
 }
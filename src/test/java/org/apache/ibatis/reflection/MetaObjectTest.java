@@ -28,6 +28,7 @@ import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.domain.misc.CustomBeanWrapper;
 import org.apache.ibatis.domain.misc.CustomBeanWrapperFactory;
 import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.property.PropertyPath;
 import org.junit.jupiter.api.Test;
 
 class MetaObjectTest {
@@ -300,4 +301,73 @@ class MetaObjectTest {
     assertTrue(meta.hasGetter("filterParams[2]"));
   }
 
+  @Test
+  void shouldGetAndSetNestedPropertyUsingPropertyPath() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    PropertyPath path = PropertyPath.parse("richType.richProperty");
+    meta.setValue(path, "foo");
+    assertEquals("foo", rich.getRichType().getRichProperty());
+    assertEquals("foo", meta.getValue(path));
+    assertEquals("foo", SystemMetaObject.forObject(rich).getValue(path));
+  }
+
+  @Test
+  void shouldGetAndSetIndexedValuesUsingPropertyPath() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue(PropertyPath.parse("richMap[key]"), "foo");
+    assertEquals("foo", meta.getValue(PropertyPath.parse("richMap[key]")));
+    assertEquals("foo", meta.getValue(PropertyPath.parse("richMap.key")));
+    meta.setValue(PropertyPath.parse("richType.richList[0]"), "bar");
+    assertEquals("bar", meta.getValue(PropertyPath.parse("richType.richList[0]")));
+  }
+
+  @Test
+  void shouldNotInstantiateChildPathForNullValueUsingPropertyPath() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    PropertyPath path = PropertyPath.parse("richType.richField");
+    meta.setValue(path, null);
+    assertNull(rich.getRichType());
+    assertNull(meta.getValue(path));
+  }
+
+  @Test
+  void shouldParsePropertyPathOnce() {
+    PropertyPath path = PropertyPath.parse("user[uId].name");
+    assertEquals("user[uId].name", path.getFullName());
+    assertEquals("user", path.getRootName());
+    assertEquals(2, path.size());
+    assertEquals("uId", path.getSegment(0).getIndex());
+    assertEquals("user[uId].name", path.getSegment(0).getPath());
+    assertEquals("name", path.getSegment(1).getPath());
+  }
+
+  @Test
+  void shouldGetValueUsingPropertyPathWithoutMetaObject() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    rich.getRichType().setRichProperty("foo");
+    rich.getRichType().getRichList().add("bar");
+    Map<String, Object> param = new HashMap<>();
+    param.put("rich", rich);
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    assertEquals("foo", MetaObject.getValue(param, PropertyPath.parse("rich.richType.richProperty"),
+        SystemMetaObject.DEFAULT_OBJECT_FACTORY, SystemMetaObject.DEFAULT_OBJECT_WRAPPER_FACTORY, reflectorFactory));
+    assertEquals("bar", MetaObject.getValue(rich, PropertyPath.parse("richType.richList[0]"),
+        SystemMetaObject.DEFAULT_OBJECT_FACTORY, SystemMetaObject.DEFAULT_OBJECT_WRAPPER_FACTORY, reflectorFactory));
+    assertNull(MetaObject.getValue(param, PropertyPath.parse("other.richProperty"),
+        SystemMetaObject.DEFAULT_OBJECT_FACTORY, SystemMetaObject.DEFAULT_OBJECT_WRAPPER_FACTORY, reflectorFactory));
+  }
+
+  @Test
+  void shouldGetValueUsingPropertyPathThroughCustomWrapper() {
+    Author author = new Author();
+    author.setUsername("foo");
+    Object value = MetaObject.getValue(author, PropertyPath.parse("username"),
+        SystemMetaObject.DEFAULT_OBJECT_FACTORY, new CustomBeanWrapperFactory(), new DefaultReflectorFactory());
+    assertEquals("foo", value);
+  }
+
 }
@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.reflection.invoker.AmbiguousMethodInvoker;
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleGetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleSetFieldInvoker;
+import org.junit.jupiter.api.Test;
+
+class MethodHandleReflectorFactoryTest {
+
+  private final ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+
+  @Test
+  void shouldBindPublicAccessorsWithLambdas() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 3 });
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "a" });
+    assertEquals(3, reflector.getGetInvoker("count").invoke(bean, new Object[0]));
+    assertEquals("a", reflector.getGetInvoker("name").invoke(bean, new Object[0]));
+    assertTrue(reflector.getSetInvoker("count") instanceof LambdaMethodInvoker);
+    assertTrue(reflector.getGetInvoker("name") instanceof LambdaMethodInvoker);
+  }
+
+  @Test
+  void shouldBindFieldsAndNonPublicClassesWithMethodHandles() throws Exception {
+    Reflector beanReflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    beanReflector.getSetInvoker("secret").invoke(bean, new Object[] { 7L });
+    assertEquals(7L, beanReflector.getGetInvoker("secret").invoke(bean, new Object[0]));
+    assertTrue(beanReflector.getSetInvoker("secret") instanceof MethodHandleSetFieldInvoker);
+    assertTrue(beanReflector.getGetInvoker("secret") instanceof MethodHandleGetFieldInvoker);
+
+    Reflector hiddenReflector = reflectorFactory.findForClass(HiddenBean.class);
+    HiddenBean hidden = new HiddenBean();
+    hiddenReflector.getSetInvoker("value").invoke(hidden, new Object[] { "v" });
+    assertEquals("v", hiddenReflector.getGetInvoker("value").invoke(hidden, new Object[0]));
+    assertTrue(hiddenReflector.getSetInvoker("value") instanceof MethodHandleMethodInvoker);
+  }
+
+  @Test
+  void shouldWrapExceptionsLikeReflection() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getSetInvoker("failing").invoke(bean, new Object[] { "x" }));
+    assertEquals("failing", e.getCause().getMessage());
+    assertThrows(InvocationTargetException.class, () -> reflector.getSetInvoker("count").invoke(bean, new Object[] { null }));
+  }
+
+  @Test
+  void shouldRejectNullForPrimitiveFieldsLikeReflection() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Reflector reflectiveReflector = new DefaultReflectorFactory().findForClass(Bean.class);
+    Bean bean = new Bean();
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> reflector.getSetInvoker("secret").invoke(bean, new Object[] { null }));
+    IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+        () -> reflectiveReflector.getSetInvoker("secret").invoke(bean, new Object[] { null }));
+    assertEquals(expected.getMessage(), e.getMessage());
+  }
+
+  @Test
+  void shouldKeepAmbiguousInvokers() {
+    Reflector reflector = reflectorFactory.findForClass(AmbiguousBean.class);
+    assertTrue(reflector.getSetInvoker("value") instanceof AmbiguousMethodInvoker);
+  }
+
+  @Test
+  void shouldCacheReflectors() {
+    assertSame(reflectorFactory.findForClass(Bean.class), reflectorFactory.findForClass(Bean.class));
+  }
+
+  public static class Bean {
+    private int count;
+    private String name;
+    private long secret;
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    // 链式setter的返回值被忽略
+    public Bean setName(String name) {
+      this.name = name;
+      return this;
+    }
+
+    public void setFailing(String failing) {
+      throw new IllegalStateException("failing");
+    }
+  }
+
+  static class HiddenBean {
+    private String value;
+
+    public String getValue() {
+      return value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+  }
+
+  public static class AmbiguousBean {
+    public void setValue(Integer value) {
+    }
+
+    public void setValue(String value) {
+    }
+  }
+
+}
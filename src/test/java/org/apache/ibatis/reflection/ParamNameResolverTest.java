@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperMethod.FixedParamMap;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class ParamNameResolverTest {
+
+  interface Mapper {
+    void select(@Param("id") Integer id, RowBounds rowBounds, @Param("name") String name);
+
+    void selectByIds(List<Integer> ids);
+
+    void selectByArray(@Param("param2") int[] ids, String name);
+  }
+
+  private static Object namedParams(String methodName, Object... args) throws Exception {
+    Method method = Arrays.stream(Mapper.class.getMethods()).filter(m -> m.getName().equals(methodName)).findFirst().get();
+    return new ParamNameResolver(new Configuration(), method).getNamedParams(args);
+  }
+
+  @Test
+  void shouldResolveNamesAndGenericNames() throws Exception {
+    Object params = namedParams("select", 1, RowBounds.DEFAULT, "foo");
+    assertTrue(params instanceof ParamMap);
+    Map<?, ?> map = (Map<?, ?>) params;
+    assertEquals(4, map.size());
+    assertEquals(1, map.get("id"));
+    assertEquals(1, map.get("param1"));
+    assertEquals("foo", map.get("name"));
+    assertEquals("foo", map.get("param2"));
+    assertTrue(map.containsKey("param2"));
+    assertFalse(map.containsKey("param3"));
+
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 1);
+    expected.put("param1", 1);
+    expected.put("name", "foo");
+    expected.put("param2", "foo");
+    assertEquals(expected, map);
+  }
+
+  @Test
+  void shouldFailForUnknownParameter() throws Exception {
+    Map<?, ?> map = (Map<?, ?>) namedParams("select", 1, RowBounds.DEFAULT, "foo");
+    BindingException e = assertThrows(BindingException.class, () -> map.get("missing"));
+    assertEquals("Parameter 'missing' not found. Available parameters are [id, param1, name, param2]", e.getMessage());
+  }
+
+  @Test
+  void shouldNotOverwriteGenericNameDeclaredByParam() throws Exception {
+    int[] ids = { 1 };
+    Map<?, ?> map = (Map<?, ?>) namedParams("selectByArray", ids, "foo");
+    assertEquals(3, map.size());
+    assertSame(ids, map.get("param2"));
+    assertSame(ids, map.get("param1"));
+    assertEquals("foo", map.get("name"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldCopyOnFirstModification() throws Exception {
+    Map<String, Object> map = (Map<String, Object>) namedParams("select", 1, RowBounds.DEFAULT, "foo");
+    assertEquals(1, map.put("id", 2));
+    assertEquals(2, map.get("id"));
+    assertEquals(1, map.get("param1"));
+    map.put("extra", "bar");
+    assertEquals(5, map.size());
+    Set<String> keys = map.keySet();
+    assertTrue(keys.containsAll(Arrays.asList("id", "param1", "name", "param2", "extra")));
+    assertThrows(BindingException.class, () -> map.get("missing"));
+  }
+
+  @Test
+  void shouldWrapCollection() throws Exception {
+    List<Integer> ids = Arrays.asList(1, 2);
+    Map<?, ?> map = (Map<?, ?>) namedParams("selectByIds", ids);
+    assertTrue(map instanceof FixedParamMap);
+    assertSame(ids, map.get("collection"));
+    assertSame(ids, map.get("list"));
+    assertEquals(ParamNameResolver.wrapToMapIfCollection(ids, "ids"), map);
+  }
+
+  @Test
+  void shouldSerializeAsParamMap() throws Exception {
+    Object params = namedParams("select", 1, RowBounds.DEFAULT, "foo");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(params);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Object copy = in.readObject();
+      assertEquals(ParamMap.class, copy.getClass());
+      assertEquals(params, copy);
+    }
+  }
+
+}
@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PrecomputedReflectorFactoryTest {
+
+  static abstract class Entity<K> {
+    private K id;
+
+    public K getId() {
+      return id;
+    }
+
+    public void setId(K id) {
+      this.id = id;
+    }
+  }
+
+  static class Order extends Entity<Long> {
+    private String status;
+    protected List<String> tags;
+
+    public String getStatus() {
+      return status;
+    }
+
+    public void setStatus(String status) {
+      this.status = status;
+    }
+  }
+
+  // 元数据资源中只登记了name属性，可以据此判断Reflector是否由元数据创建
+  static class Generated {
+    private String name;
+    private String remark;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  // 元数据资源生成之后增加了age属性
+  static class Stale {
+    private String name;
+    private int age;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+  }
+
+  @Test
+  void shouldCreateReflectorFromGeneratedMetadata() throws Throwable {
+    ReflectorFactory reflectorFactory = new PrecomputedReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Generated.class);
+    assertArrayEquals(new String[] { "name" }, reflector.getGetablePropertyNames());
+    assertFalse(reflector.hasSetter("remark"));
+
+    Generated generated = (Generated) reflector.getDefaultConstructor().newInstance();
+    reflector.getSetInvoker("name").invoke(generated, new Object[] { "foo" });
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(generated, new Object[0]));
+  }
+
+  @Test
+  void shouldFallBackToReflectionWithoutMetadata() {
+    ReflectorFactory reflectorFactory = new PrecomputedReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Order.class);
+    assertTrue(reflector.hasSetter("tags"));
+    assertEquals(Long.class, reflector.getSetterType("id"));
+  }
+
+  @Test
+  void shouldFallBackToReflectionWhenMetadataIsOutOfDate() {
+    assertNull(ReflectorMetadata.find(Stale.class));
+    Reflector reflector = new PrecomputedReflectorFactory().findForClass(Stale.class);
+    assertTrue(reflector.hasGetter("age"));
+    assertEquals(int.class, reflector.getSetterType("age"));
+  }
+
+  @Test
+  void shouldChangeSignatureWhenMembersChange() {
+    assertEquals(ReflectorMetadata.signature(Generated.class), ReflectorMetadata.signature(Generated.class));
+    assertNotEquals(ReflectorMetadata.signature(Generated.class), ReflectorMetadata.signature(Stale.class));
+    assertEquals(ReflectorMetadata.signature(Order.class),
+        ReflectorMetadata.of(new Reflector(Order.class)).toProperties().getProperty("signature"));
+  }
+
+  @Test
+  void shouldRestoreSameMetadataAsReflection(@TempDir Path outputDirectory) throws Exception {
+    ReflectorMetadataGenerator generator = new ReflectorMetadataGenerator(outputDirectory.toFile());
+    assertEquals(1, generator.generate(Arrays.asList(Order.class, Runnable.class)));
+    generator.writeNativeImageConfig();
+
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(outputDirectory.resolve(ReflectorMetadata.resourceName(Order.class)))) {
+      properties.load(in);
+    }
+    Reflector expected = new Reflector(Order.class);
+    Reflector actual = new Reflector(ReflectorMetadata.load(Order.class, properties), false);
+    assertEquals(expected.getPropertyCount(), actual.getPropertyCount());
+    for (int i = 0; i < expected.getPropertyCount(); i++) {
+      assertEquals(expected.getPropertyName(i), actual.getPropertyName(i));
+      assertEquals(expected.hasGetter(i), actual.hasGetter(i));
+      assertEquals(expected.hasSetter(i), actual.hasSetter(i));
+    }
+    assertEquals(Long.class, actual.getSetterType("id"));
+    assertEquals(List.class, actual.getGetterType("tags"));
+    assertTrue(actual.hasDefaultConstructor());
+
+    String reflectConfig = new String(Files.readAllBytes(
+        outputDirectory.resolve(ReflectorMetadataGenerator.NATIVE_IMAGE_CONFIG_DIRECTORY + "reflect-config.json")));
+    assertTrue(reflectConfig.contains("\"name\":\"setId\",\"parameterTypes\":[\"java.lang.Object\"]"));
+    assertTrue(reflectConfig.contains("\"name\":\"tags\""));
+  }
+
+  @Test
+  void shouldRejectMetadataOfAnotherClass() {
+    Properties properties = ReflectorMetadata.of(new Reflector(Order.class)).toProperties();
+    properties.setProperty("getter.status", "method:" + Order.class.getName() + "#getState()");
+    assertThrows(ReflectionException.class, () -> ReflectorMetadata.load(Order.class, properties));
+    assertThrows(ReflectionException.class, () -> ReflectorMetadata.load(Generated.class, properties));
+    assertNull(ReflectorMetadata.find(Collections.class));
+  }
+
+}
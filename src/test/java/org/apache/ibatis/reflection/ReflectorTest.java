@@ -321,4 +321,37 @@ class ReflectorTest {
             "Ambiguous setters defined for property 'bool' in class '" + Bean.class.getName().replace("$", "\\$")
                 + "' with types '(java.lang.Integer|boolean)' and '(java.lang.Integer|boolean)'\\.");
   }
+
+  @Test
+  void shouldAssignStableIndexesToProperties() throws Throwable {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Section.class);
+    int index = reflector.getPropertyIndex("id");
+    assertTrue(index >= 0);
+    assertEquals("id", reflector.getPropertyName(index));
+    assertEquals(Long.class, reflector.getSetterType(index));
+    assertEquals(Long.class, reflector.getGetterType(index));
+    assertEquals(index, new Reflector(Section.class).getPropertyIndex("id"));
+    assertEquals(-1, reflector.getPropertyIndex("missing"));
+
+    Section section = new Section();
+    reflector.getSetInvoker(index).invoke(section, new Object[] { 5L });
+    assertEquals(5L, reflector.getGetInvoker(index).invoke(section, new Object[0]));
+  }
+
+  @Test
+  void shouldFailIndexedAccessWithoutSetter() {
+    @SuppressWarnings("unused")
+    class Bean {
+      public String getReadOnly() {return "value";}
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    int index = reflector.getPropertyIndex("readOnly");
+    assertTrue(reflector.hasGetter(index));
+    assertFalse(reflector.hasSetter(index));
+    when(() -> reflector.getSetInvoker(index));
+    then(caughtException()).isInstanceOf(ReflectionException.class)
+        .hasMessageContaining("There is no setter for property named 'readOnly'");
+  }
 }
@@ -450,11 +450,33 @@ class TypeParameterResolverTest {
     executor.shutdown();
   }
 
+  @Test
+  void shouldReuseResolvedParameterizedTypes() throws Exception {
+    Method method = IfaceA.class.getMethods()[0];
+    Type first = TypeParameterResolver.resolveReturnType(method, IfaceA.class);
+    Type second = TypeParameterResolver.resolveReturnType(method, IfaceA.class);
+    assertSame(first, second);
+    assertEquals(first, TypeParameterResolver.resolveReturnType(method, IfaceA.class));
+    assertEquals(first.hashCode(), IfaceAList.class.getMethod("m").getGenericReturnType().hashCode());
+    assertEquals(first, IfaceAList.class.getMethod("m").getGenericReturnType());
+    assertEquals(IfaceAList.class.getMethod("m").getGenericReturnType(), first);
+  }
+
+  @Test
+  void shouldNotShareResolvedParamTypeArrays() throws Exception {
+    Method method = Level0Mapper.class.getMethod("simpleSelectVoid", Integer.class);
+    Type[] first = TypeParameterResolver.resolveParamTypes(method, Level1Mapper.class);
+    first[0] = null;
+    Type[] second = TypeParameterResolver.resolveParamTypes(method, Level1Mapper.class);
+    assertEquals(Integer.class, second[0]);
+  }
+
   // @formatter:off
   class AA {}
   class BB {}
   interface IfaceA extends ParentIface<AA> {}
   interface IfaceB extends ParentIface<BB> {}
   interface ParentIface<T> {List<T> m();}
+  interface IfaceAList {List<AA> m();}
   // @formatter:on
 }
@@ -0,0 +1,136 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.factory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.junit.jupiter.api.Test;
+
+class CachingObjectFactoryTest {
+
+  @Test
+  void shouldCreateWithDefaultConstructor() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    Author first = objectFactory.create(Author.class);
+    Author second = objectFactory.create(Author.class);
+    assertNotNull(first);
+    assertNotSame(first, second);
+  }
+
+  @Test
+  void shouldCreateWithNonPublicConstructor() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    assertNotNull(objectFactory.create(PrivateConstructor.class));
+    assertNotNull(objectFactory.create(PrivateConstructor.class));
+  }
+
+  @Test
+  void shouldCreateWithConstructorArgs() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    for (int i = 0; i < 2; i++) {
+      TestClass testClass = objectFactory.create(TestClass.class,
+          Arrays.asList(String.class, Integer.class), Arrays.asList("foo", i));
+      assertEquals("foo", testClass.myString);
+      assertEquals((Integer) i, testClass.myInteger);
+    }
+  }
+
+  @Test
+  void shouldThrowSameErrorAsDefaultObjectFactory() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    ReflectionException e = assertThrows(ReflectionException.class, () -> objectFactory.create(TestClass.class,
+        Collections.singletonList(String.class), Collections.singletonList("foo")));
+    assertTrue(e.getMessage().contains("(String)"));
+    assertTrue(e.getMessage().contains("(foo)"));
+    assertThrows(ReflectionException.class, () -> objectFactory.create(TestClass.class));
+  }
+
+  @Test
+  void shouldWrapExceptionThrownByConstructor() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    ReflectionException e = assertThrows(ReflectionException.class, () -> objectFactory.create(FailingConstructor.class));
+    assertTrue(e.getCause() instanceof InvocationTargetException);
+    assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+    ReflectionException expected = assertThrows(ReflectionException.class,
+        () -> new DefaultObjectFactory().create(FailingConstructor.class));
+    assertEquals(expected.getMessage(), e.getMessage());
+  }
+
+  @Test
+  void shouldNotWrapErrorThrownByConstructor() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    assertThrows(StackOverflowError.class, () -> objectFactory.create(OverflowingConstructor.class));
+    assertThrows(StackOverflowError.class, () -> objectFactory.create(OverflowingConstructor.class,
+        Collections.singletonList(String.class), Collections.singletonList("foo")));
+  }
+
+  @Test
+  void shouldResolveCollectionInterfaces() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    assertTrue(objectFactory.create(List.class) instanceof ArrayList);
+    assertTrue(objectFactory.create(Map.class) instanceof HashMap);
+    assertTrue(objectFactory.create(Set.class) instanceof HashSet);
+    assertTrue(objectFactory.create(SortedSet.class) instanceof TreeSet);
+  }
+
+  @Test
+  void shouldCreatePresizedCollections() {
+    ObjectFactory objectFactory = new CachingObjectFactory();
+    List<Object> list = objectFactory.create(List.class, 100);
+    assertTrue(list instanceof ArrayList);
+    assertTrue(list.isEmpty());
+    assertTrue(objectFactory.create(Map.class, 100) instanceof HashMap);
+    assertTrue(objectFactory.create(Set.class, 100) instanceof HashSet);
+    assertTrue(objectFactory.create(SortedSet.class, 100) instanceof TreeSet);
+    assertTrue(new DefaultObjectFactory().create(List.class, 100) instanceof ArrayList);
+  }
+
+  static class PrivateConstructor {
+    private PrivateConstructor() {
+    }
+  }
+
+  public static class FailingConstructor {
+    public FailingConstructor() {
+      throw new IllegalStateException("failed");
+    }
+  }
+
+  public static class OverflowingConstructor {
+    public OverflowingConstructor() {
+      throw new StackOverflowError();
+    }
+
+    OverflowingConstructor(String value) {
+      throw new StackOverflowError();
+    }
+  }
+
+}
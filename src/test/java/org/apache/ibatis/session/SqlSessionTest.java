@@ -22,12 +22,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.Reader;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javassist.util.proxy.Proxy;
 
@@ -46,6 +48,7 @@ import org.apache.ibatis.domain.blog.mappers.AuthorMapper;
 import org.apache.ibatis.domain.blog.mappers.AuthorMapperWithMultipleHandlers;
 import org.apache.ibatis.domain.blog.mappers.AuthorMapperWithRowBounds;
 import org.apache.ibatis.domain.blog.mappers.BlogMapper;
+import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.io.Resources;
@@ -159,6 +162,27 @@ class SqlSessionTest extends BaseDataTest {
     }
   }
 
+  @Test
+  void shouldSelectAllAuthorsWithinDeadline() {
+    try (SqlSession session = sqlMapper.openSession(TransactionIsolationLevel.SERIALIZABLE)) {
+      session.setDeadline(Deadline.after(1, TimeUnit.MINUTES));
+      List<Author> authors = session.selectList("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors");
+      assertEquals(2, authors.size());
+    }
+  }
+
+  @Test
+  void shouldFailFastWhenDeadlineIsExceeded() {
+    try (SqlSession session = sqlMapper.openSession(TransactionIsolationLevel.SERIALIZABLE)) {
+      session.setDeadline(Deadline.after(0, TimeUnit.MILLISECONDS));
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> session.selectList("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors"));
+      assertTrue(e.getCause() instanceof SQLTimeoutException);
+      session.setDeadline(null);
+      assertEquals(2, session.selectList("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors").size());
+    }
+  }
+
   @Test
   void shouldFailWithTooManyResultsException() {
     try (SqlSession session = sqlMapper.openSession(TransactionIsolationLevel.SERIALIZABLE)) {
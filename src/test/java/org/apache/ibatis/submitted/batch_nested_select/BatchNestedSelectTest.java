@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final QueryCounter queryCounter = new QueryCounter();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(queryCounter);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    queryCounter.count.set(0);
+  }
+
+  @Test
+  void shouldLoadCollectionsWithOneNestedQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Blog> blogs = mapper.selectBlogs();
+      assertEquals(3, blogs.size());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals("Post 1-1", blogs.get(0).getPosts().get(0).getSubject());
+      assertEquals("Post 1-2", blogs.get(0).getPosts().get(1).getSubject());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      assertEquals("Post 2-1", blogs.get(1).getPosts().get(0).getSubject());
+      assertEquals(0, blogs.get(2).getPosts().size());
+      assertEquals(2, queryCounter.count.get());
+    }
+  }
+
+  @Test
+  void shouldLoadAssociationsWithOneNestedQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Post> posts = mapper.selectPosts();
+      assertEquals(3, posts.size());
+      assertEquals("Blog 1", posts.get(0).getBlog().getTitle());
+      assertEquals("Blog 1", posts.get(1).getBlog().getTitle());
+      assertEquals("Blog 2", posts.get(2).getBlog().getTitle());
+      assertNull(posts.get(0).getBlog().getPosts());
+      assertEquals(2, queryCounter.count.get());
+    }
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }))
+  public static class QueryCounter implements Interceptor {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      count.incrementAndGet();
+      return invocation.proceed();
+    }
+
+  }
+
+}
@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.resultset.ColumnarResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapColumnsIntoArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      ColumnarResult result = mapper.selectSamples();
+      assertEquals(3, result.size());
+      assertEquals(Arrays.asList("ID", "TS", "READING", "LABEL"), result.getColumnNames());
+      assertEquals(long.class, result.getColumnType("id"));
+      assertEquals(double.class, result.getColumnType("reading"));
+      assertEquals(String.class, result.getColumnType("label"));
+      assertEquals(Object.class, result.getColumnType("ts"));
+
+      assertArrayEquals(new long[] { 1, 2, 3 }, result.getLongs("id"));
+      assertArrayEquals(new double[] { 1.5, 0, 3.5 }, result.getDoubles("reading"));
+      assertFalse(result.isNull("reading", 0));
+      assertTrue(result.isNull("reading", 1));
+      assertArrayEquals(new String[] { "a", "b", null }, result.getStrings("label"));
+      assertEquals(Timestamp.valueOf("2020-01-01 00:00:00"), result.getObjects("ts")[0]);
+      assertNull(result.getObjects("ts")[2]);
+      assertTrue(result.isNull("ts", 2));
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      ColumnarResult result = mapper.selectSamplesWithRowBounds(new RowBounds(1, 1));
+      assertEquals(1, result.size());
+      assertArrayEquals(new long[] { 2 }, result.getLongs("ID"));
+      assertTrue(result.isNull("READING", 0));
+    }
+  }
+
+  @Test
+  void shouldReturnEmptyColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      ColumnarResult result = mapper.selectNoSamples();
+      assertEquals(0, result.size());
+      assertEquals(0, result.getLongs("id").length);
+    }
+  }
+
+  @Test
+  void shouldRejectWrongColumnType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      ColumnarResult result = mapper.selectSamples();
+      assertThrows(ExecutorException.class, () -> result.getDoubles("id"));
+      assertThrows(ExecutorException.class, () -> result.getLongs("missing"));
+    }
+  }
+
+}
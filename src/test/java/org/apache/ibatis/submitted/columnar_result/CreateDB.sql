@@ -0,0 +1,28 @@
+--
+--    Copyright 2009-2020 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table samples if exists;
+
+create table samples (
+  id bigint,
+  ts timestamp,
+  reading double,
+  label varchar(20)
+);
+
+insert into samples (id, ts, reading, label) values (1, '2020-01-01 00:00:00', 1.5, 'a');
+insert into samples (id, ts, reading, label) values (2, '2020-01-01 00:01:00', null, 'b');
+insert into samples (id, ts, reading, label) values (3, null, 3.5, null);
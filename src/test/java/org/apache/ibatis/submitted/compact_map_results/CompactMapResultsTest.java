@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_map_results;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.loader.WriteReplaceInterface;
+import org.apache.ibatis.executor.resultset.CompactRowMap;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompactMapResultsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compact_map_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compact_map_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapRowsToCompactMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Map<String, Object>> items = sqlSession.getMapper(Mapper.class).selectItems();
+      assertEquals(3, items.size());
+      Map<String, Object> first = items.get(0);
+      assertTrue(first instanceof CompactRowMap);
+      assertEquals(Arrays.asList("ID", "NAME", "QUANTITY"), new ArrayList<>(first.keySet()));
+      assertEquals(1, first.get("ID"));
+      assertEquals("item1", first.get("NAME"));
+      assertEquals(10L, first.get("QUANTITY"));
+
+      Map<String, Object> expected = new HashMap<>();
+      expected.put("ID", 1);
+      expected.put("NAME", "item1");
+      expected.put("QUANTITY", 10L);
+      assertEquals(expected, first);
+      assertEquals(expected.hashCode(), first.hashCode());
+
+      // null不会写入Map，与HashMap结果一致
+      Map<String, Object> second = items.get(1);
+      assertEquals(2, second.size());
+      assertFalse(second.containsKey("QUANTITY"));
+      assertNull(second.get("QUANTITY"));
+    }
+  }
+
+  @Test
+  void shouldBehaveAsMutableMap() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> item = sqlSession.getMapper(Mapper.class).selectItems().get(0);
+      assertEquals(1, item.put("ID", 100));
+      assertNull(item.put("extra", "value"));
+      assertEquals(4, item.size());
+      assertEquals("value", item.get("extra"));
+      assertEquals("item1", item.remove("NAME"));
+      assertFalse(item.containsKey("NAME"));
+      assertEquals(Arrays.asList("ID", "QUANTITY", "extra"), new ArrayList<>(item.keySet()));
+
+      Iterator<Map.Entry<String, Object>> iterator = item.entrySet().iterator();
+      iterator.next().setValue(200);
+      iterator.next();
+      iterator.remove();
+      assertEquals(200, item.get("ID"));
+      assertEquals(2, item.size());
+      item.clear();
+      assertTrue(item.isEmpty());
+    }
+  }
+
+  @Test
+  void shouldCombineExplicitAndAutomaticMappings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> item = sqlSession.getMapper(Mapper.class).selectItemsWithLabel().get(2);
+      assertEquals(3, item.size());
+      assertEquals(3, item.get("ID"));
+      assertEquals("item3", item.get("label"));
+      assertEquals(30L, item.get("QUANTITY"));
+      assertFalse(item.containsKey("NAME"));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldCreateNestedMapsForDottedColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> item = sqlSession.getMapper(Mapper.class).selectItemsWithNestedKey().get(0);
+      assertEquals("item1", ((Map<String, Object>) item.get("detail")).get("name"));
+    }
+  }
+
+  @Test
+  void shouldKeepRequestedMapImplementation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<HashMap<String, Object>> items = sqlSession.getMapper(Mapper.class).selectHashMaps();
+      assertEquals(HashMap.class, items.get(0).getClass());
+    }
+  }
+
+  @Test
+  void shouldFallBackToProxiedMapForLazyNestedQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> item = sqlSession.getMapper(Mapper.class).selectItemsWithLazyDetail().get(0);
+      assertFalse(item instanceof CompactRowMap);
+      assertTrue(item instanceof WriteReplaceInterface);
+      // id列用于嵌套查询，不参与自动映射
+      assertFalse(item.containsKey("ID"));
+      assertEquals("item1", item.get("NAME"));
+      assertEquals(10L, item.get("QUANTITY"));
+      // toString会触发延迟加载
+      assertNotNull(item.toString());
+      assertEquals("item1", item.get("detail"));
+    }
+  }
+
+  @Test
+  void shouldSerializeAsPlainMap() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> item = sqlSession.getMapper(Mapper.class).selectItems().get(0);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        out.writeObject(item);
+      }
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+        Object copy = in.readObject();
+        assertFalse(copy instanceof CompactRowMap);
+        assertEquals(item, copy);
+      }
+    }
+  }
+
+}
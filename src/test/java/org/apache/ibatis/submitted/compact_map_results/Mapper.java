@@ -0,0 +1,54 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compact_map_results;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.One;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.FetchType;
+
+public interface Mapper {
+
+  @Select("select id, name, quantity from items order by id")
+  List<Map<String, Object>> selectItems();
+
+  @Results({
+      @Result(property = "label", column = "name")
+  })
+  @Select("select id, name, quantity from items order by id")
+  List<Map<String, Object>> selectItemsWithLabel();
+
+  @Select("select id, name as \"detail.name\" from items order by id")
+  List<Map<String, Object>> selectItemsWithNestedKey();
+
+  @Select("select id, name, quantity from items order by id")
+  List<HashMap<String, Object>> selectHashMaps();
+
+  @Results({
+      @Result(property = "detail", column = "id", javaType = String.class, one = @One(select = "selectName", fetchType = FetchType.LAZY))
+  })
+  @Select("select id, name, quantity from items order by id")
+  List<Map<String, Object>> selectItemsWithLazyDetail();
+
+  @Select("select name from items where id = #{id}")
+  String selectName(int id);
+
+}
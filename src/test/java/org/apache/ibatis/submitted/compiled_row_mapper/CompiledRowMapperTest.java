@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompiledRowMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapper/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapAutomaticAndExplicitProperties() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsers();
+      assertEquals(2, users.size());
+      assertEquals(1, users.get(0).getId());
+      assertEquals("User1", users.get(0).getName());
+      assertEquals(30, users.get(0).getAge());
+      assertEquals("Tokyo", users.get(0).getCity());
+      assertEquals(10000000000L, users.get(0).getVisits());
+      assertEquals(4.5d, users.get(0).getScore(), 0d);
+      // null不会写入基本类型属性
+      assertEquals(-1, users.get(1).getAge());
+      assertEquals(-1L, users.get(1).getVisits());
+      assertEquals(-1d, users.get(1).getScore(), 0d);
+      assertNull(users.get(1).getCity());
+    }
+  }
+
+  @Test
+  void shouldFallBackForNestedProperties() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsersWithAddress();
+      assertEquals("Tokyo", users.get(0).getAddress().getCity());
+      assertNull(users.get(0).getCity());
+    }
+  }
+
+  @Test
+  void shouldWidenColumnValuesThroughReflection() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.selectUsersWithAgeAsVisits();
+      // Integer列值写入long属性
+      assertEquals(30L, users.get(0).getVisits());
+      assertEquals(-1L, users.get(1).getVisits());
+    }
+  }
+
+  @Test
+  void shouldNotRetrySetterThatThrowsClassCastException() {
+    Account.codeSetterCalls.set(0);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      PersistenceException e = assertThrows(PersistenceException.class, mapper::selectAccounts);
+      assertTrue(e.getMessage().contains("Invalid code User1"));
+      assertEquals(1, Account.codeSetterCalls.get());
+    }
+  }
+
+  @Test
+  void shouldKeepSimpleTypeResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<String> names = mapper.selectNames();
+      assertEquals("User1", names.get(0));
+      assertEquals("User2", names.get(1));
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Results(id = "userResult", value = {
+      @Result(property = "name", column = "user_name")
+  })
+  @Select("select id, user_name, age, city, visits, score from users order by id")
+  List<User> selectUsers();
+
+  @Results({
+      @Result(property = "id", column = "id"),
+      @Result(property = "address.city", column = "city")
+  })
+  @Select("select id, city from users order by id")
+  List<User> selectUsersWithAddress();
+
+  @Select("select user_name from users order by id")
+  List<String> selectNames();
+
+  @Results({
+      @Result(property = "visits", column = "age", javaType = Integer.class)
+  })
+  @Select("select id, age from users order by id")
+  List<User> selectUsersWithAgeAsVisits();
+
+  @Select("select user_name as code from users where id = 1")
+  List<Account> selectAccounts();
+
+}
@@ -0,0 +1,255 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_publisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorPublishers;
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CursorPublisherTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_publisher/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_publisher/CreateDB.sql");
+  }
+
+  @Test
+  void shouldEmitOnlyRequestedItems() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<Item> publisher = sqlSession.getMapper(Mapper.class).selectItems();
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+      assertTrue(subscriber.items.isEmpty());
+
+      subscriber.subscription.request(2);
+      assertEquals("a,b", subscriber.names());
+      assertFalse(subscriber.completed);
+
+      subscriber.subscription.request(2);
+      assertEquals("a,b,c,d", subscriber.names());
+      assertFalse(subscriber.completed);
+
+      subscriber.subscription.request(10);
+      assertEquals("a,b,c,d,e", subscriber.names());
+      assertTrue(subscriber.completed);
+      assertNull(subscriber.error);
+    }
+  }
+
+  @Test
+  void shouldCompleteWhenDemandIsExactlyMet() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      sqlSession.<Item>selectPublisher("org.apache.ibatis.submitted.cursor_publisher.Mapper.selectItems", null,
+          new RowBounds(1, 2)).subscribe(subscriber);
+      subscriber.subscription.request(2);
+      assertEquals("b,c", subscriber.names());
+      assertTrue(subscriber.completed);
+    }
+  }
+
+  @Test
+  void shouldNotOpenCursorWithoutDemand() {
+    AtomicBoolean opened = new AtomicBoolean();
+    DefaultCursorPublisher<Item> publisher = new DefaultCursorPublisher<>(() -> {
+      opened.set(true);
+      return null;
+    }, null);
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    assertFalse(opened.get());
+  }
+
+  @Test
+  void shouldCloseCursorOnCancel() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      AtomicReference<Cursor<Item>> cursor = new AtomicReference<>();
+      AtomicBoolean released = new AtomicBoolean();
+      DefaultCursorPublisher<Item> publisher = new DefaultCursorPublisher<>(() -> {
+        cursor.set(sqlSession.selectCursor("org.apache.ibatis.submitted.cursor_publisher.Mapper.selectItems"));
+        return cursor.get();
+      }, () -> released.set(true));
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+      subscriber.subscription.request(1);
+      assertTrue(cursor.get().isOpen());
+
+      subscriber.subscription.cancel();
+      assertFalse(cursor.get().isOpen());
+      assertTrue(released.get());
+      subscriber.subscription.request(1);
+      assertEquals("a", subscriber.names());
+      assertFalse(subscriber.completed);
+      assertNull(subscriber.error);
+    }
+  }
+
+  @Test
+  void shouldCancelFromOnNext() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber subscriber = new RecordingSubscriber() {
+        @Override
+        public void onNext(Item item) {
+          super.onNext(item);
+          if (items.size() == 3) {
+            subscription.cancel();
+          }
+        }
+      };
+      sqlSession.getMapper(Mapper.class).selectItems().subscribe(subscriber);
+      subscriber.subscription.request(Long.MAX_VALUE);
+      assertEquals("a,b,c", subscriber.names());
+      assertFalse(subscriber.completed);
+    }
+  }
+
+  @Test
+  void shouldSignalErrorOnNonPositiveRequest() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      sqlSession.getMapper(Mapper.class).selectItems().subscribe(subscriber);
+      subscriber.subscription.request(0);
+      assertTrue(subscriber.error instanceof IllegalArgumentException);
+      assertTrue(subscriber.items.isEmpty());
+    }
+  }
+
+  @Test
+  void shouldRejectSecondSubscriber() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<Item> publisher = sqlSession.getMapper(Mapper.class).selectItems();
+      publisher.subscribe(new RecordingSubscriber());
+      RecordingSubscriber second = new RecordingSubscriber();
+      publisher.subscribe(second);
+      assertTrue(second.error instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  void shouldOpenAndCloseOwnSession() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    sqlSessionFactory.<Item>openPublisher("org.apache.ibatis.submitted.cursor_publisher.Mapper.selectItems", null,
+        RowBounds.DEFAULT).subscribe(subscriber);
+    subscriber.subscription.request(3);
+    assertEquals("a,b,c", subscriber.names());
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals("a,b,c,d,e", subscriber.names());
+    assertTrue(subscriber.completed);
+    assertNull(subscriber.error);
+  }
+
+  @Test
+  void shouldNotSignalErrorWhenOnCompleteThrows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CursorPublisher<Item> publisher = sqlSession.getMapper(Mapper.class).selectItems();
+      AtomicInteger completions = new AtomicInteger();
+      RecordingSubscriber subscriber = new RecordingSubscriber() {
+        @Override
+        public void onComplete() {
+          completions.incrementAndGet();
+          throw new IllegalStateException("subscriber failure");
+        }
+      };
+      publisher.subscribe(subscriber);
+      subscriber.subscription.request(Long.MAX_VALUE);
+      subscriber.subscription.request(1);
+      assertEquals("a,b,c,d,e", subscriber.names());
+      assertEquals(1, completions.get());
+      assertNull(subscriber.error);
+    }
+  }
+
+  @Test
+  void shouldRejectRequestFromAnotherThread() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      AtomicBoolean opened = new AtomicBoolean();
+      CursorPublisher<Item> publisher = CursorPublishers.fromCursor(() -> {
+        opened.set(true);
+        return sqlSession.selectCursor("org.apache.ibatis.submitted.cursor_publisher.Mapper.selectItems");
+      });
+      RecordingSubscriber subscriber = new RecordingSubscriber();
+      publisher.subscribe(subscriber);
+      Thread thread = new Thread(() -> subscriber.subscription.request(1));
+      thread.start();
+      thread.join();
+      assertFalse(opened.get());
+      assertTrue(subscriber.items.isEmpty());
+      assertTrue(subscriber.error instanceof IllegalStateException);
+    }
+  }
+
+  private static class RecordingSubscriber implements CursorPublisher.Subscriber<Item> {
+
+    protected final List<Item> items = new ArrayList<>();
+    protected CursorPublisher.Subscription subscription;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    @Override
+    public void onSubscribe(CursorPublisher.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Item item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+
+    String names() {
+      return items.stream().map(Item::getName).collect(Collectors.joining(","));
+    }
+  }
+
+}
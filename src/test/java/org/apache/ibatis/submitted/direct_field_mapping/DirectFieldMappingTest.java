@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.direct_field_mapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DirectFieldMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/direct_field_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/direct_field_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldWriteFieldsWithoutCallingSetters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).selectItemsUsingFields();
+      assertEquals(2, items.size());
+      assertEquals(1, items.get(0).getId());
+      assertEquals("item1", items.get(0).getName());
+      assertEquals(10L, items.get(0).getQuantity());
+      assertEquals(0, items.get(0).getSetterCalls());
+      // NULL列不写入基本类型字段
+      assertEquals(-1L, items.get(1).getQuantity());
+      assertEquals(0, items.get(1).getSetterCalls());
+    }
+  }
+
+  @Test
+  void shouldCallSettersByDefault() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).selectItemsUsingSetters();
+      assertEquals(2, items.size());
+      assertEquals("ITEM1", items.get(0).getName());
+      assertEquals(3, items.get(0).getSetterCalls());
+    }
+  }
+
+  @Test
+  void shouldReadDirectFieldMappingSetting() {
+    assertFalse(sqlSessionFactory.getConfiguration().isDirectFieldMappingEnabled());
+    assertTrue(sqlSessionFactory.getConfiguration().getResultMap("org.apache.ibatis.submitted.direct_field_mapping.Mapper.fieldMap")
+        .getDirectFieldMapping());
+    assertNull(sqlSessionFactory.getConfiguration().getResultMap("org.apache.ibatis.submitted.direct_field_mapping.Mapper.setterMap")
+        .getDirectFieldMapping());
+  }
+
+}
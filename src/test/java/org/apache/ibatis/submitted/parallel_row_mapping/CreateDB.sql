@@ -0,0 +1,125 @@
+--
+--    Copyright 2009-2020 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table items if exists;
+
+create table items (
+  id int,
+  name varchar(20),
+  quantity bigint,
+  price double
+);
+
+insert into items (id, name, quantity, price) values (1, 'item1', 10, 1.5);
+insert into items (id, name, quantity, price) values (2, 'item2', 20, 2.5);
+insert into items (id, name, quantity, price) values (3, 'item3', 30, 3.5);
+insert into items (id, name, quantity, price) values (4, 'item4', 40, 4.5);
+insert into items (id, name, quantity, price) values (5, 'item5', 50, 5.5);
+insert into items (id, name, quantity, price) values (6, 'item6', 60, 6.5);
+insert into items (id, name, quantity, price) values (7, 'item7', 70, 7.5);
+insert into items (id, name, quantity, price) values (8, 'item8', 80, 8.5);
+insert into items (id, name, quantity, price) values (9, 'item9', 90, 9.5);
+insert into items (id, name, quantity, price) values (10, 'item10', 100, 10.5);
+insert into items (id, name, quantity, price) values (11, 'item11', 110, 11.5);
+insert into items (id, name, quantity, price) values (12, 'item12', 120, 12.5);
+insert into items (id, name, quantity, price) values (13, 'item13', 130, 13.5);
+insert into items (id, name, quantity, price) values (14, 'item14', 140, 14.5);
+insert into items (id, name, quantity, price) values (15, 'item15', 150, 15.5);
+insert into items (id, name, quantity, price) values (16, 'item16', 160, 16.5);
+insert into items (id, name, quantity, price) values (17, 'item17', 170, 17.5);
+insert into items (id, name, quantity, price) values (18, 'item18', 180, 18.5);
+insert into items (id, name, quantity, price) values (19, 'item19', 190, 19.5);
+insert into items (id, name, quantity, price) values (20, 'item20', 200, 20.5);
+insert into items (id, name, quantity, price) values (21, 'item21', 210, 21.5);
+insert into items (id, name, quantity, price) values (22, 'item22', 220, 22.5);
+insert into items (id, name, quantity, price) values (23, 'item23', 230, 23.5);
+insert into items (id, name, quantity, price) values (24, 'item24', 240, 24.5);
+insert into items (id, name, quantity, price) values (25, 'item25', 250, 25.5);
+insert into items (id, name, quantity, price) values (26, 'item26', 260, 26.5);
+insert into items (id, name, quantity, price) values (27, 'item27', 270, 27.5);
+insert into items (id, name, quantity, price) values (28, 'item28', 280, 28.5);
+insert into items (id, name, quantity, price) values (29, 'item29', 290, 29.5);
+insert into items (id, name, quantity, price) values (30, 'item30', 300, 30.5);
+insert into items (id, name, quantity, price) values (31, 'item31', 310, 31.5);
+insert into items (id, name, quantity, price) values (32, 'item32', 320, 32.5);
+insert into items (id, name, quantity, price) values (33, 'item33', 330, 33.5);
+insert into items (id, name, quantity, price) values (34, 'item34', 340, 34.5);
+insert into items (id, name, quantity, price) values (35, 'item35', 350, 35.5);
+insert into items (id, name, quantity, price) values (36, 'item36', 360, 36.5);
+insert into items (id, name, quantity, price) values (37, 'item37', 370, 37.5);
+insert into items (id, name, quantity, price) values (38, 'item38', 380, 38.5);
+insert into items (id, name, quantity, price) values (39, 'item39', 390, 39.5);
+insert into items (id, name, quantity, price) values (40, 'item40', 400, 40.5);
+insert into items (id, name, quantity, price) values (41, 'item41', 410, 41.5);
+insert into items (id, name, quantity, price) values (42, 'item42', 420, 42.5);
+insert into items (id, name, quantity, price) values (43, 'item43', 430, 43.5);
+insert into items (id, name, quantity, price) values (44, 'item44', 440, 44.5);
+insert into items (id, name, quantity, price) values (45, 'item45', 450, 45.5);
+insert into items (id, name, quantity, price) values (46, 'item46', 460, 46.5);
+insert into items (id, name, quantity, price) values (47, 'item47', 470, 47.5);
+insert into items (id, name, quantity, price) values (48, 'item48', 480, 48.5);
+insert into items (id, name, quantity, price) values (49, 'item49', 490, 49.5);
+insert into items (id, name, quantity, price) values (50, null, null, null);
+insert into items (id, name, quantity, price) values (51, 'item51', 510, 51.5);
+insert into items (id, name, quantity, price) values (52, 'item52', 520, 52.5);
+insert into items (id, name, quantity, price) values (53, 'item53', 530, 53.5);
+insert into items (id, name, quantity, price) values (54, 'item54', 540, 54.5);
+insert into items (id, name, quantity, price) values (55, 'item55', 550, 55.5);
+insert into items (id, name, quantity, price) values (56, 'item56', 560, 56.5);
+insert into items (id, name, quantity, price) values (57, 'item57', 570, 57.5);
+insert into items (id, name, quantity, price) values (58, 'item58', 580, 58.5);
+insert into items (id, name, quantity, price) values (59, 'item59', 590, 59.5);
+insert into items (id, name, quantity, price) values (60, 'item60', 600, 60.5);
+insert into items (id, name, quantity, price) values (61, 'item61', 610, 61.5);
+insert into items (id, name, quantity, price) values (62, 'item62', 620, 62.5);
+insert into items (id, name, quantity, price) values (63, 'item63', 630, 63.5);
+insert into items (id, name, quantity, price) values (64, 'item64', 640, 64.5);
+insert into items (id, name, quantity, price) values (65, 'item65', 650, 65.5);
+insert into items (id, name, quantity, price) values (66, 'item66', 660, 66.5);
+insert into items (id, name, quantity, price) values (67, 'item67', 670, 67.5);
+insert into items (id, name, quantity, price) values (68, 'item68', 680, 68.5);
+insert into items (id, name, quantity, price) values (69, 'item69', 690, 69.5);
+insert into items (id, name, quantity, price) values (70, 'item70', 700, 70.5);
+insert into items (id, name, quantity, price) values (71, 'item71', 710, 71.5);
+insert into items (id, name, quantity, price) values (72, 'item72', 720, 72.5);
+insert into items (id, name, quantity, price) values (73, 'item73', 730, 73.5);
+insert into items (id, name, quantity, price) values (74, 'item74', 740, 74.5);
+insert into items (id, name, quantity, price) values (75, 'item75', 750, 75.5);
+insert into items (id, name, quantity, price) values (76, 'item76', 760, 76.5);
+insert into items (id, name, quantity, price) values (77, 'item77', 770, 77.5);
+insert into items (id, name, quantity, price) values (78, 'item78', 780, 78.5);
+insert into items (id, name, quantity, price) values (79, 'item79', 790, 79.5);
+insert into items (id, name, quantity, price) values (80, 'item80', 800, 80.5);
+insert into items (id, name, quantity, price) values (81, 'item81', 810, 81.5);
+insert into items (id, name, quantity, price) values (82, 'item82', 820, 82.5);
+insert into items (id, name, quantity, price) values (83, 'item83', 830, 83.5);
+insert into items (id, name, quantity, price) values (84, 'item84', 840, 84.5);
+insert into items (id, name, quantity, price) values (85, 'item85', 850, 85.5);
+insert into items (id, name, quantity, price) values (86, 'item86', 860, 86.5);
+insert into items (id, name, quantity, price) values (87, 'item87', 870, 87.5);
+insert into items (id, name, quantity, price) values (88, 'item88', 880, 88.5);
+insert into items (id, name, quantity, price) values (89, 'item89', 890, 89.5);
+insert into items (id, name, quantity, price) values (90, 'item90', 900, 90.5);
+insert into items (id, name, quantity, price) values (91, 'item91', 910, 91.5);
+insert into items (id, name, quantity, price) values (92, 'item92', 920, 92.5);
+insert into items (id, name, quantity, price) values (93, 'item93', 930, 93.5);
+insert into items (id, name, quantity, price) values (94, 'item94', 940, 94.5);
+insert into items (id, name, quantity, price) values (95, 'item95', 950, 95.5);
+insert into items (id, name, quantity, price) values (96, 'item96', 960, 96.5);
+insert into items (id, name, quantity, price) values (97, 'item97', 970, 97.5);
+insert into items (id, name, quantity, price) values (98, 'item98', 980, 98.5);
+insert into items (id, name, quantity, price) values (99, 'item99', 990, 99.5);
+insert into items (id, name, quantity, price) values (100, 'item100', 1000, 100.5);
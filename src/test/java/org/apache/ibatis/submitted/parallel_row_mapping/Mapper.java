@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_row_mapping;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public interface Mapper {
+
+  @Select("select id, name, quantity, price from items order by id")
+  List<Item> selectItems();
+
+  @Select("select id, name, quantity, price from items order by id")
+  List<Item> selectItemsWithRowBounds(RowBounds rowBounds);
+
+  @ResultType(Item.class)
+  @Select("select id, name, quantity, price from items order by id")
+  void selectItemsWithHandler(ResultHandler<Item> handler);
+
+  @Select("select name from items order by id")
+  List<String> selectNames();
+
+}
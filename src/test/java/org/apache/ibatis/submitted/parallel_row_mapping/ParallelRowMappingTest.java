@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_row_mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelRowMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/parallel_row_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldKeepResultSetOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).selectItems();
+      assertEquals(100, items.size());
+      for (int i = 0; i < items.size(); i++) {
+        Item item = items.get(i);
+        int id = i + 1;
+        assertEquals(id, item.getId());
+        if (id == 50) {
+          // null不会写入基本类型属性
+          assertNull(item.getName());
+          assertEquals(-1L, item.getQuantity());
+          assertEquals(-1d, item.getPrice(), 0d);
+        } else {
+          assertEquals("item" + id, item.getName());
+          assertEquals(id * 10L, item.getQuantity());
+          assertEquals(id + 0.5d, item.getPrice(), 0d);
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldApplyRowBoundsAcrossBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).selectItemsWithRowBounds(new RowBounds(5, 20));
+      assertEquals(20, items.size());
+      for (int i = 0; i < items.size(); i++) {
+        assertEquals(i + 6, items.get(i).getId());
+      }
+    }
+  }
+
+  @Test
+  void shouldStopWhenResultHandlerStops() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Item.instances.set(0);
+      List<Integer> ids = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).selectItemsWithHandler(context -> {
+        ids.add(context.getResultObject().getId());
+        if (ids.size() == 10) {
+          context.stop();
+        }
+      });
+      assertEquals(10, ids.size());
+      for (int i = 0; i < ids.size(); i++) {
+        assertEquals(i + 1, ids.get(i).intValue());
+      }
+      // 批大小为7，停止时最多已读取并映射了三批，剩余的行不再读取
+      assertTrue(Item.instances.get() <= 3 * 7 + 1, "mapped " + Item.instances.get() + " items");
+    }
+  }
+
+  @Test
+  void shouldMapOnConfiguredPool() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    sqlSessionFactory.getConfiguration().setRowMappingPool(pool);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).selectItems();
+      assertEquals(100, items.size());
+      assertEquals(100, items.get(99).getId());
+    } finally {
+      sqlSessionFactory.getConfiguration().setRowMappingPool(null);
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void shouldKeepSimpleTypeResults() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<String> names = sqlSession.getMapper(Mapper.class).selectNames();
+      assertEquals(100, names.size());
+      assertEquals("item1", names.get(0));
+      assertNull(names.get(49));
+    }
+  }
+
+}
@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.resolved_constructor;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Arg;
+import org.apache.ibatis.annotations.ConstructorArgs;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @ConstructorArgs({
+      @Arg(column = "id", javaType = Integer.class, id = true),
+      @Arg(column = "name", javaType = String.class),
+      @Arg(column = "age", javaType = Integer.class)
+  })
+  @Select("select id, name, age from users order by id")
+  List<User> selectUsersByConstructorArgs();
+
+  @Select("select id, name, age from users order by id")
+  List<User> selectUsersByAutomapConstructor();
+
+}
@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.resolved_constructor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.resultset.ResultObjectConstructor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ResolvedConstructorTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/resolved_constructor/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/resolved_constructor/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapConstructorArgs() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertUsers(mapper.selectUsersByConstructorArgs());
+      assertConstructorResolvedOnce("selectUsersByConstructorArgs");
+    }
+  }
+
+  @Test
+  void shouldMapAutomapConstructor() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertUsers(mapper.selectUsersByAutomapConstructor());
+      assertConstructorResolvedOnce("selectUsersByAutomapConstructor");
+    }
+  }
+
+  private void assertUsers(List<User> users) {
+    assertEquals(2, users.size());
+    assertEquals(1, users.get(0).getId());
+    assertEquals("User1", users.get(0).getName());
+    assertEquals(30, users.get(0).getAge());
+    assertEquals(2, users.get(1).getId());
+    assertEquals("User2", users.get(1).getName());
+    assertNull(users.get(1).getAge());
+  }
+
+  private void assertConstructorResolvedOnce(String statementId) {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    MappedStatement ms = configuration.getMappedStatement(Mapper.class.getName() + "." + statementId);
+    String resultMapId = ms.getResultMaps().get(0).getId();
+    ResultObjectConstructor resolved = configuration.getResultObjectConstructor(resultMapId);
+    assertNotNull(resolved);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.selectList(ms.getId());
+    }
+    assertSame(resolved, configuration.getResultObjectConstructor(resultMapId));
+  }
+
+}
@@ -0,0 +1,31 @@
+--
+--    Copyright 2009-2020 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table item if exists;
+
+create table item (
+  id int,
+  name varchar(20)
+);
+
+insert into item (id, name) values (1, 'Item 1');
+insert into item (id, name) values (2, 'Item 2');
+insert into item (id, name) values (3, 'Item 3');
+insert into item (id, name) values (4, 'Item 4');
+insert into item (id, name) values (5, 'Item 5');
+insert into item (id, name) values (6, 'Item 6');
+insert into item (id, name) values (7, 'Item 7');
+insert into item (id, name) values (8, 'Item 8');
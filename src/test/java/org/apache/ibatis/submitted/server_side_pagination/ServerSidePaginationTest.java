@@ -0,0 +1,201 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.server_side_pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.executor.pagination.KeysetRowBounds;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Page;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ServerSidePaginationTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final SqlRecorder sqlRecorder = new SqlRecorder();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/server_side_pagination/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(sqlRecorder);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/server_side_pagination/CreateDB.sql");
+  }
+
+  @Test
+  void shouldPaginateOnTheServer() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Item> items = mapper.selectItems(new RowBounds(2, 3));
+      assertEquals(3, items.size());
+      assertEquals(3, items.get(0).getId());
+      assertEquals(5, items.get(2).getId());
+      assertTrue(sqlRecorder.lastSql.endsWith("LIMIT ? OFFSET ?"));
+    }
+  }
+
+  @Test
+  void shouldKeepStatementParametersBeforePagingParameters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Item> items = mapper.selectItemsAfter(4, new RowBounds(1, 10));
+      assertEquals(3, items.size());
+      assertEquals(6, items.get(0).getId());
+      assertEquals(8, items.get(2).getId());
+    }
+  }
+
+  @Test
+  void shouldPaginateCursorOnTheServer() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Integer> ids = new ArrayList<>();
+      try (Cursor<Item> cursor = mapper.selectItemsCursor(new RowBounds(6, 5))) {
+        cursor.forEach(item -> ids.add(item.getId()));
+      }
+      assertEquals(2, ids.size());
+      assertEquals(7, ids.get(0));
+      assertEquals(8, ids.get(1));
+      assertTrue(sqlRecorder.lastSql.endsWith("LIMIT ? OFFSET ?"));
+    }
+  }
+
+  @Test
+  void shouldSeekAfterLastKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Item> firstPage = mapper.selectItems(new KeysetRowBounds("id", null, 3));
+      assertEquals(3, firstPage.size());
+      assertEquals(1, firstPage.get(0).getId());
+
+      List<Item> secondPage = mapper.selectItems(new KeysetRowBounds("id", firstPage.get(2).getId(), 3));
+      assertEquals(3, secondPage.size());
+      assertEquals(4, secondPage.get(0).getId());
+      assertEquals(6, secondPage.get(2).getId());
+
+      List<Item> descending = mapper.selectItems(new KeysetRowBounds("id", 3, 5, true));
+      assertEquals(2, descending.size());
+      assertEquals(2, descending.get(0).getId());
+      assertEquals(1, descending.get(1).getId());
+    }
+  }
+
+  @Test
+  void shouldCountAndFetchPage() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Page<Item> page = mapper.selectItemsPage(2, new RowBounds(0, 4));
+      assertEquals(6, page.getTotal());
+      assertEquals(4, page.getRecords().size());
+      assertEquals(3, page.getRecords().get(0).getId());
+      assertTrue(sqlRecorder.lastSql.startsWith("SELECT COUNT(*) FROM ("));
+      assertFalse(sqlRecorder.lastSql.contains("order by"));
+    }
+  }
+
+  @Test
+  void shouldCountOnSecondConnectionInParallel() {
+    sqlSessionFactory.getConfiguration().setParallelCountEnabled(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Page<Item> page = sqlSession.selectPage("org.apache.ibatis.submitted.server_side_pagination.Mapper.selectItems", null,
+          new RowBounds(6, 4));
+      assertEquals(8, page.getTotal());
+      assertEquals(2, page.getRecords().size());
+      assertEquals(7, page.getRecords().get(0).getId());
+    } finally {
+      sqlSessionFactory.getConfiguration().setParallelCountEnabled(false);
+    }
+  }
+
+  @Test
+  void shouldNotWaitForParallelCountWhenPoolIsExhausted() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    Environment environment = configuration.getEnvironment();
+    PooledDataSource dataSource = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:server_side_pagination", "sa", null);
+    dataSource.setPoolMaximumActiveConnections(1);
+    configuration.setEnvironment(new Environment("pooled", environment.getTransactionFactory(), dataSource));
+    configuration.setParallelCountEnabled(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Page<Item> page = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> sqlSession
+          .selectPage("org.apache.ibatis.submitted.server_side_pagination.Mapper.selectItems", null, new RowBounds(0, 4)));
+      assertEquals(8, page.getTotal());
+      assertEquals(4, page.getRecords().size());
+    } finally {
+      configuration.setParallelCountEnabled(false);
+      configuration.setEnvironment(environment);
+      dataSource.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotRegisterDerivedCountStatement() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Page<Item> page = sqlSession.selectPage("org.apache.ibatis.submitted.server_side_pagination.Mapper.selectItems", null,
+          new RowBounds(0, 2));
+      assertEquals(8, page.getTotal());
+      assertTrue(sqlRecorder.lastSql.startsWith("SELECT COUNT(*) FROM ("));
+    }
+    assertFalse(configuration.hasStatement("org.apache.ibatis.submitted.server_side_pagination.Mapper.selectItems!count"));
+    assertThrows(IllegalArgumentException.class,
+        () -> configuration.getMappedStatement("org.apache.ibatis.submitted.server_side_pagination.Mapper.selectItems!count"));
+  }
+
+  @Intercepts({
+      @Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }),
+      @Signature(type = StatementHandler.class, method = "queryCursor", args = { Statement.class }) })
+  public static class SqlRecorder implements Interceptor {
+
+    private volatile String lastSql;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      lastSql = ((StatementHandler) invocation.getTarget()).getBoundSql().getSql();
+      return invocation.proceed();
+    }
+
+  }
+
+}
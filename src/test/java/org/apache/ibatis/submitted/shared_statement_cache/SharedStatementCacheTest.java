@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.shared_statement_cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SharedStatementCacheTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/shared_statement_cache/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/shared_statement_cache/CreateDB.sql");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).forceCloseAll();
+  }
+
+  @Test
+  void shouldNotCloseStatementOfOpenCursorOnEviction() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<String> names = new ArrayList<>();
+      Statement cursorStatement;
+      try (Cursor<String> cursor = mapper.selectNames()) {
+        Iterator<String> iterator = cursor.iterator();
+        names.add(iterator.next());
+        cursorStatement = StatementCapturingTypeHandler.lastStatement;
+        // 缓存只能放一个Statement，这次查询会淘汰游标所用的Statement
+        assertEquals(3, mapper.countItems());
+        assertFalse(cursorStatement.isClosed());
+        iterator.forEachRemaining(names::add);
+        assertTrue(cursor.isConsumed());
+      }
+      // 游标关闭后被淘汰的Statement随之关闭
+      assertTrue(cursorStatement.isClosed());
+      assertEquals(3, names.size());
+      assertEquals("item3", names.get(2));
+    }
+  }
+
+}
@@ -81,4 +81,11 @@ class DoubleTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldGetDoubleFromResultSetByPositionWithoutBoxing() throws Exception {
+    DoubleResultReader reader = (DoubleResultReader) TYPE_HANDLER;
+    when(rs.getDouble(1)).thenReturn(100d);
+    assertEquals(100d, reader.getDouble(rs, 1), 0d);
+  }
+
 }
@@ -81,4 +81,11 @@ class IntegerTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldGetIntFromResultSetByPositionWithoutBoxing() throws Exception {
+    IntResultReader reader = (IntResultReader) TYPE_HANDLER;
+    when(rs.getInt(1)).thenReturn(100);
+    assertEquals(100, reader.getInt(rs, 1));
+  }
+
 }
@@ -81,4 +81,11 @@ class LongTypeHandlerTest extends BaseTypeHandlerTest {
     assertNull(TYPE_HANDLER.getResult(cs, 1));
   }
 
+  @Test
+  void shouldGetLongFromResultSetByPositionWithoutBoxing() throws Exception {
+    LongResultReader reader = (LongResultReader) TYPE_HANDLER;
+    when(rs.getLong(1)).thenReturn(100L);
+    assertEquals(100L, reader.getLong(rs, 1));
+  }
+
 }